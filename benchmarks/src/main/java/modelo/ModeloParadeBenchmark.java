@@ -0,0 +1,66 @@
+package modelo;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino caliente del servidor: {@link ModeloParade#jugarCarta} y {@link ModeloParade#puntajesPorJugador}.
+ * La partida arranca con {@code carnavalInicial} cartas en mesa y se reinicia al terminar,
+ * así que cada medición recorre partidas completas desde ese tamaño de carnaval.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModeloParadeBenchmark {
+
+    @Param({"6", "20", "40"})
+    int carnavalInicial;
+
+    private SalaAislada sala;
+    private ModeloParade modelo;
+    private int turno;
+
+    @Setup(Level.Iteration)
+    public void preparar() throws IOException {
+        sala = new SalaAislada();
+        modelo = sala.modelo;
+        modelo.unirJugador("a");
+        modelo.unirJugador("b");
+        reiniciar();
+        // Mitad de partida para que las pilas tengan cartas al medir puntajes
+        for (int i = 0; i < 10 && !modelo.esFinDePartida(); i++) jugar();
+    }
+
+    @TearDown(Level.Iteration)
+    public void cerrar() throws IOException {
+        sala.close();
+    }
+
+    private void reiniciar() throws RemoteException {
+        modelo.iniciarPartida(carnavalInicial, 5);
+        turno = 0;
+    }
+
+    private void jugar() throws RemoteException {
+        modelo.jugarCarta(turno, 0);
+        turno = (turno + 1) % 2;
+    }
+
+    @Benchmark
+    public void jugarCarta() throws RemoteException {
+        if (modelo.esFinDePartida()) reiniciar();
+        jugar();
+    }
+
+    @Benchmark
+    public List<Integer> puntajesPorJugador() {
+        return modelo.puntajesPorJugador();
+    }
+}
@@ -0,0 +1,54 @@
+package modelo;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
+
+/** Guardar/cargar partida a disco ({@link ModeloParade#guardarPartida} / {@link ModeloParade#cargarPartida}). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenciaPartidaBenchmark {
+
+    private SalaAislada sala;
+    private ModeloParade modelo;
+    private Path archivo;
+
+    @Setup
+    public void preparar() throws IOException {
+        sala = new SalaAislada();
+        modelo = sala.modelo;
+        modelo.unirJugador("a");
+        modelo.unirJugador("b");
+        modelo.iniciarPartida(6, 5);
+        for (int i = 0; i < 12 && !modelo.esFinDePartida(); i++) modelo.jugarCarta(i % 2, 0);
+        archivo = sala.dir.resolve("partida.sav");
+        modelo.guardarPartida(archivo.toString());
+    }
+
+    @TearDown
+    public void limpiar() throws IOException {
+        sala.close(); // borra también la partida guardada
+    }
+
+    @Benchmark
+    public boolean guardarPartida() throws RemoteException {
+        return modelo.guardarPartida(archivo.toString());
+    }
+
+    @Benchmark
+    public boolean cargarPartida() throws RemoteException {
+        return modelo.cargarPartida(archivo.toString());
+    }
+
+    @Benchmark
+    public boolean idaYVuelta() throws RemoteException {
+        return modelo.guardarPartida(archivo.toString()) && modelo.cargarPartida(archivo.toString());
+    }
+}
@@ -0,0 +1,60 @@
+package modelo;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolución de una jugada ({@link ReglasParade#resolverJugada}, antes {@code calcularRetiradas})
+ * sobre carnavales de distinto tamaño. Cada invocación restaura el carnaval desde una plantilla;
+ * {@link #restaurarCarnaval()} mide sólo esa restauración para poder descontarla.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReglasParadeBenchmark {
+
+    @Param({"6", "20", "40"})
+    int tamanoCarnaval;
+
+    private List<Carta> plantilla;
+    private final List<Carta> carnaval = new ArrayList<>(Carta.TOTAL);
+    private final Carta[] retiradas = new Carta[Carta.TOTAL];
+    private Carta jugada;
+
+    @Setup
+    public void preparar() {
+        List<Carta> mazo = new ArrayList<>(Carta.todas());
+        Collections.shuffle(mazo, new Random(42));
+        plantilla = List.copyOf(mazo.subList(0, tamanoCarnaval));
+        // Valor bajo: se evalúa casi todo el carnaval
+        jugada = mazo.subList(tamanoCarnaval, mazo.size()).stream()
+                .filter(c -> c.getValor() <= 2).findFirst().orElseThrow();
+    }
+
+    @Benchmark
+    public int restaurarCarnaval() {
+        carnaval.clear();
+        carnaval.addAll(plantilla);
+        return carnaval.size();
+    }
+
+    @Benchmark
+    public int resolverJugada() {
+        carnaval.clear();
+        carnaval.addAll(plantilla);
+        return ReglasParade.resolverJugada(carnaval, jugada, retiradas);
+    }
+
+    @Benchmark
+    public int valorRetirado() {
+        return ReglasParade.valorRetirado(plantilla, jugada);
+    }
+}
@@ -0,0 +1,38 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * {@link ModeloParade} para benchmarks: el ranking vive en un directorio temporal (no escribe
+ * {@code ranking.dat} en el directorio de trabajo) y {@link #close()} corta la cola de comandos y el
+ * escritor de ranking y borra el directorio, así cada iteración no deja hilos ni archivos.
+ */
+final class SalaAislada implements AutoCloseable {
+    final ModeloParade modelo;
+    final Path dir;
+    private final EscritorRanking escritor;
+
+    SalaAislada() throws IOException {
+        dir = Files.createTempDirectory("parade-bench");
+        TablaClasificacion tabla = new TablaClasificacion();
+        escritor = new EscritorRanking(tabla, dir.resolve("ranking.dat").toString());
+        modelo = new ModeloParade("bench", tabla, escritor, null, null, new MetricasParade());
+    }
+
+    @Override
+    public void close() throws IOException {
+        modelo.cerrar();
+        escritor.cerrar();
+        borrar(dir);
+    }
+
+    static void borrar(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+}
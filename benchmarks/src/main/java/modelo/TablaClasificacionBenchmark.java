@@ -0,0 +1,69 @@
+package modelo;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking con historial grande: lectura del Top-5 y alta de resultados.
+ * El historial precargado se vuelca al diario (en un directorio temporal), como en el servidor, así
+ * que no queda pendiente en memoria. El alta se mide por lotes sobre una tabla nueva: los
+ * pendientes de cada lote quedan acotados y el tiempo no deriva con la cantidad de invocaciones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TablaClasificacionBenchmark {
+
+    private static final int LOTE = 1024;
+
+    @Param({"1000", "100000"})
+    int entradas;
+
+    private TablaClasificacion tabla;
+    private Path dir;
+    private final Map<String, Integer>[] resultados = nuevosResultados();
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer>[] nuevosResultados() {
+        Map<String, Integer>[] r = new Map[LOTE];
+        for (int i = 0; i < LOTE; i++) r[i] = Map.of("n" + i, (i * 7919) % 200);
+        return r;
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        dir = Files.createTempDirectory("parade-bench");
+        tabla = new TablaClasificacion();
+        for (int i = 0; i < entradas; i++) {
+            tabla.registrarResultado(Map.of("j" + (i % 500), (i * 7919) % 200));
+        }
+        if (!tabla.guardarEn(dir.resolve("ranking.dat").toString())) throw new IOException("no se pudo volcar el ranking");
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        SalaAislada.borrar(dir);
+    }
+
+    @Benchmark
+    public List<EntradaRanking> top5() {
+        return tabla.top5();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public TablaClasificacion registrarResultado() {
+        TablaClasificacion t = new TablaClasificacion();
+        for (Map<String, Integer> r : resultados) t.registrarResultado(r);
+        return t;
+    }
+}
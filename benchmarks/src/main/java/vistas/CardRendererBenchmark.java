@@ -0,0 +1,59 @@
+package vistas;
+
+import modelo.Carta;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de imágenes de cartas en {@code VistaGrafica.CardRenderer} / {@link ImagenesCartas}:
+ * en frío (caché nuevo: decodifica y escala), en caliente (todas las cartas ya en caché)
+ * y sólo el escalado con Graphics2D desde la original ya decodificada.
+ * Corre con {@code -Djava.awt.headless=true}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardRendererBenchmark {
+
+    @Param({"120"})
+    int alto;
+
+    private VistaGrafica.CardRenderer caliente;
+    private BufferedImage original;
+    private int siguiente;
+
+    @Setup
+    public void preparar() throws IOException {
+        caliente = new VistaGrafica.CardRenderer(alto, new ImagenesCartas(ImagenesCartas.MAX_BYTES));
+        for (Carta c : Carta.todas()) caliente.loadIcon(c, alto);
+        original = ImagenesCartas.comoIntRgb(ImageIO.read(getClass().getResource("/resources/cartas/rojo_5.jpeg")));
+    }
+
+    private Carta proxima() {
+        siguiente = (siguiente + 1) % Carta.TOTAL;
+        return Carta.deOrdinal(siguiente);
+    }
+
+    @Benchmark
+    public ImageIcon loadIconFrio() {
+        return new VistaGrafica.CardRenderer(alto, new ImagenesCartas(ImagenesCartas.MAX_BYTES)).loadIcon(proxima(), alto);
+    }
+
+    @Benchmark
+    public ImageIcon loadIconCaliente() {
+        return caliente.loadIcon(proxima(), alto);
+    }
+
+    @Benchmark
+    public BufferedImage escalar() {
+        return ImagenesCartas.escalar(original, alto);
+    }
+}
@@ -0,0 +1,183 @@
+package modelo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Recuperación de una sala desde checkpoint + bitácora ({@link BitacoraPartida}) tras una caída a mitad de partida. */
+class BitacoraPartidaTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<ModeloParade> abiertas = new ArrayList<>();
+    private final List<EscritorRanking> escritores = new ArrayList<>();
+
+    @AfterEach
+    void cerrar() {
+        for (ModeloParade m : abiertas) m.cerrar();
+        for (EscritorRanking e : escritores) e.cerrar();
+    }
+
+    @Test
+    void recuperaUnaPartidaAMitadSoloDesdeLaBitacora() throws Exception {
+        ModeloParade original = sala(dir.resolve("antes"));
+        for (String n : List.of("Ana", "Beto", "Caro")) original.unirJugador(n);
+        original.iniciarPartida(6, 5);
+        for (int k = 0; k < 30; k++) original.jugarCarta(k % 3, 0);
+
+        // Lo que quedó en disco al caer: se copia sin cerrar la sala
+        BitacoraPartida.volcarTodas();
+        Path despues = copiar(dir.resolve("antes"), dir.resolve("despues"));
+
+        ModeloParade recuperada = sala(despues);
+        assertTrue(recuperada.recuperar());
+        assertMismaPartida(original, recuperada);
+
+        // Sigue jugándose desde donde quedó
+        original.jugarCarta(0, 1);
+        recuperada.jugarCarta(0, 1);
+        assertMismaPartida(original, recuperada);
+    }
+
+    @Test
+    void checkpointMasColaYColaCorrupta() throws Exception {
+        Path d = dir.resolve("sala");
+        BitacoraPartida b = BitacoraPartida.abrir(d, "sala");
+        EstadoPartida estado = new EstadoPartida();
+        MotorPartida motor = new MotorPartida(estado);
+        for (int i = 0; i < 4; i++) {
+            estado.getJugadores().add(new Jugador(i, "j" + i));
+            b.unir("j" + i);
+        }
+        motor.iniciar(6, 5, new Random(11));
+        b.iniciar(6, 5, 11);
+        estado.setIniciada(true);
+        for (int k = 0; k < 12; k++) {
+            motor.jugar(k % 4, 2);
+            b.jugar(k % 4, 2);
+        }
+        b.checkpoint(estado);
+        for (int k = 12; k < 20; k++) {
+            motor.jugar(k % 4, 0);
+            b.jugar(k % 4, 0);
+        }
+        b.volcar();
+        Path wal = d.resolve("sala.wal");
+        Files.write(wal, new byte[] {0, 9, 1, 2, 3}, StandardOpenOption.APPEND); // registro a medio escribir
+
+        EstadoPartida recuperado = new EstadoPartida();
+        BitacoraPartida otra = BitacoraPartida.abrir(copiar(d, dir.resolve("copia")), "sala");
+        assertTrue(otra.recuperar(recuperado));
+        assertEquals(FormatoPartida.codificar(estado), FormatoPartida.codificar(recuperado));
+        b.cerrar();
+        otra.cerrar();
+    }
+
+    @Test
+    void unRegistroIntegroQueNoSeReproduceApartaLaBitacoraYLaSalaArrancaVacia() throws Exception {
+        Path d = dir.resolve("sala");
+        BitacoraPartida b = BitacoraPartida.abrir(d, "sala");
+        b.unir("Ana");
+        b.cerrar();
+        // JUGAR sin datos: el crc es válido pero al reproducirlo falta el índice (BufferUnderflowException)
+        CRC32 crc = new CRC32();
+        crc.update(3);
+        ByteBuffer r = ByteBuffer.allocate(7).putShort((short) 1).putInt((int) crc.getValue()).put((byte) 3);
+        Files.write(d.resolve("sala.wal"), r.array(), StandardOpenOption.APPEND);
+
+        ModeloParade m = sala(d);
+        assertThrows(IOException.class, m::recuperar);
+        assertEquals(List.of(), m.nombresJugadores());
+        assertFalse(m.partidaIniciada());
+        assertFalse(Files.exists(d.resolve("sala.wal")));
+        assertTrue(Files.exists(d.resolve("sala.wal" + BitacoraPartida.EXT_APARTADO)));
+        assertEquals(List.of(), BitacoraPartida.salasGuardadas(d));
+
+        // La sala sigue usable y el próximo arranque ya no tropieza con lo mismo
+        m.unirJugador("Caro");
+        BitacoraPartida.volcarTodas();
+        ModeloParade otra = sala(copiar(d, dir.resolve("reinicio")));
+        assertTrue(otra.recuperar());
+        assertEquals(List.of("Caro"), otra.nombresJugadores());
+    }
+
+    @Test
+    void unCheckpointTruncadoSeApartaSinTirarElArranque() throws Exception {
+        Path d = dir.resolve("sala");
+        Files.createDirectories(d);
+        Files.write(d.resolve("sala.chk"), new byte[] {0, 0, 1}); // ni siquiera la generación
+        BitacoraPartida b = BitacoraPartida.abrir(d, "sala");
+        b.unir("Ana");
+        b.cerrar();
+
+        ModeloParade m = sala(d);
+        assertThrows(IOException.class, m::recuperar);
+        assertEquals(List.of(), m.nombresJugadores());
+        assertTrue(Files.exists(d.resolve("sala.chk" + BitacoraPartida.EXT_APARTADO)));
+        assertTrue(Files.exists(d.resolve("sala.wal" + BitacoraPartida.EXT_APARTADO)));
+    }
+
+    @Test
+    void unNombreQueNoEntraEnLaBitacoraSeRechazaAlUnirse() throws Exception {
+        ModeloParade m = sala(dir.resolve("sala"));
+        String justo = "a".repeat(Jugador.MAX_NOMBRE);
+        String largo = "ñ".repeat(Jugador.MAX_NOMBRE / 2 + 1); // 2 bytes por letra
+        assertTrue(largo.getBytes(StandardCharsets.UTF_8).length > Jugador.MAX_NOMBRE);
+
+        assertEquals(0, m.unirJugador(justo));
+        assertThrows(RemoteException.class, () -> m.unirJugador(largo));
+        assertEquals(List.of(justo), m.nombresJugadores());
+
+        BitacoraPartida b = BitacoraPartida.abrir(dir.resolve("otra"), "sala");
+        assertThrows(IllegalArgumentException.class, () -> b.unir(largo));
+        EstadoPartida e = new EstadoPartida();
+        e.getJugadores().add(new Jugador(0, largo));
+        assertThrows(IllegalArgumentException.class, () -> FormatoPartida.codificar(e));
+    }
+
+    private ModeloParade sala(Path d) throws Exception {
+        TablaClasificacion tabla = new TablaClasificacion();
+        EscritorRanking escritor = new EscritorRanking(tabla, d.resolve("ranking.dat").toString());
+        escritores.add(escritor);
+        ModeloParade m = new ModeloParade("sala", tabla, escritor, BitacoraPartida.abrir(d, "sala"), null, new MetricasParade());
+        abiertas.add(m);
+        return m;
+    }
+
+    private static Path copiar(Path origen, Path destino) throws Exception {
+        Files.createDirectories(destino);
+        try (var archivos = Files.list(origen)) {
+            for (Path p : archivos.toList()) {
+                if (!p.getFileName().toString().startsWith("ranking")) Files.copy(p, destino.resolve(p.getFileName()));
+            }
+        }
+        return destino;
+    }
+
+    private static void assertMismaPartida(ModeloParade a, ModeloParade b) {
+        assertEquals(a.nombresJugadores(), b.nombresJugadores());
+        assertEquals(a.obtenerCarnaval(), b.obtenerCarnaval());
+        assertEquals(a.obtenerTurnoNombre(), b.obtenerTurnoNombre());
+        assertEquals(a.esUltimaRonda(), b.esUltimaRonda());
+        assertEquals(a.puntajesPorJugador(), b.puntajesPorJugador());
+        for (int i = 0; i < a.nombresJugadores().size(); i++) {
+            assertEquals(a.obtenerMano(i), b.obtenerMano(i), "mano " + i);
+            assertEquals(a.obtenerRecolectadas(i), b.obtenerRecolectadas(i), "recogidas " + i);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Escritor único de la sala ({@link ColaComandos}): lotes, publicación y cierre con llamadas en vuelo. */
+class ColaComandosTest {
+
+    @Test
+    void cadaLlamadaVeElEstadoPublicadoQueLaIncluye() throws Exception {
+        AtomicInteger estado = new AtomicInteger();
+        AtomicInteger publicado = new AtomicInteger();
+        ColaComandos cola = new ColaComandos("prueba", () -> publicado.set(estado.get()));
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> fs = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                fs.add(hilos.submit(() -> {
+                    int mio = cola.ejecutar(estado::incrementAndGet);
+                    assertTrue(publicado.get() >= mio);
+                    return null;
+                }));
+            }
+            for (Future<?> f : fs) f.get(10, TimeUnit.SECONDS);
+            assertEquals(2_000, estado.get());
+        } finally {
+            cola.cerrar();
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void cerrarConLlamadasEnVueloLasRespondeATodas() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            for (int ronda = 0; ronda < 200; ronda++) {
+                ColaComandos cola = new ColaComandos("prueba", () -> { });
+                AtomicInteger ejecutados = new AtomicInteger(), aceptados = new AtomicInteger();
+                CountDownLatch enMarcha = new CountDownLatch(8);
+                List<Future<?>> fs = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    fs.add(hilos.submit(() -> {
+                        enMarcha.countDown();
+                        while (true) { // hasta que la sala rechace: la última llamada compite con cerrar()
+                            try {
+                                cola.ejecutar(ejecutados::incrementAndGet);
+                                aceptados.incrementAndGet();
+                            } catch (RemoteException cerrada) {
+                                return null;
+                            }
+                        }
+                    }));
+                }
+                enMarcha.await();
+                Thread.sleep(1);
+                cola.cerrar();
+                for (Future<?> f : fs) f.get(5, TimeUnit.SECONDS); // ninguna queda esperando para siempre
+                assertEquals(aceptados.get(), ejecutados.get(), "ronda " + ronda);
+                assertThrows(RemoteException.class, () -> cola.ejecutar(() -> 1));
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+}
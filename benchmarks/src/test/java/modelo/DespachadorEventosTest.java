@@ -0,0 +1,186 @@
+package modelo;
+
+import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+import controladores.ControladorParade;
+import org.junit.jupiter.api.Test;
+import vistas.IVistaParade;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Reparto de eventos por observador ({@link DespachadorEventos}). */
+class DespachadorEventosTest {
+
+    /** Anota lo que recibe; {@code null} se anota como {@link #NULO} (la cola no acepta null). */
+    private static final class Anotador implements IObservadorRemoto {
+        static final Object NULO = new Object();
+        final BlockingQueue<Object> recibidos = new LinkedBlockingQueue<>();
+        final List<IObservableRemoto> origenes = new ArrayList<>();
+
+        @Override
+        public synchronized void actualizar(IObservableRemoto origen, Object arg) {
+            origenes.add(origen);
+            recibidos.add(arg == null ? NULO : arg);
+        }
+
+        Object siguiente() throws InterruptedException {
+            Object o = recibidos.poll(5, TimeUnit.SECONDS);
+            assertNotNull(o, "no llegó el evento");
+            return o;
+        }
+    }
+
+    @Test
+    void notificarSinArgumentoLlegaComoNullYEnOrden() throws Exception {
+        try (SalaAislada sala = new SalaAislada()) {
+            Anotador a = new Anotador();
+            sala.modelo.agregarObservador(a);
+
+            sala.modelo.notificarObservadores();
+            sala.modelo.notificarObservadores("uno");
+            sala.modelo.notificarObservadores();
+
+            assertSame(Anotador.NULO, a.siguiente());
+            assertEquals("uno", a.siguiente());
+            assertSame(Anotador.NULO, a.siguiente());
+            synchronized (a) {
+                for (IObservableRemoto o : a.origenes) assertSame(sala.modelo, o);
+            }
+        }
+    }
+
+    @Test
+    void alCerrarLosEmisoresTerminanYNoEntreganMas() throws Exception {
+        DespachadorEventos d = new DespachadorEventos(null);
+        Anotador a = new Anotador();
+        d.agregar(a);
+        d.publicar(null);
+        assertSame(Anotador.NULO, a.siguiente());
+
+        d.cerrar();
+        assertEquals(0, d.getObservadores());
+        d.publicar("tarde");
+        assertNull(a.recibidos.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void altasSimultaneasDelMismoObservadorDejanUnSoloCanal() throws Exception {
+        int hilos = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            for (int ronda = 0; ronda < 500; ronda++) {
+                DespachadorEventos d = new DespachadorEventos(null);
+                Anotador a = new Anotador();
+                CyclicBarrier largada = new CyclicBarrier(hilos);
+                List<Future<?>> fs = new ArrayList<>();
+                for (int i = 0; i < hilos; i++) {
+                    fs.add(pool.submit(() -> {
+                        largada.await();
+                        d.agregar(a);
+                        return null;
+                    }));
+                }
+                for (Future<?> f : fs) f.get(5, TimeUnit.SECONDS);
+                assertEquals(1, d.getObservadores(), "ronda " + ronda);
+                d.cerrar();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void unaRafagaCombinadaNoHaceResincronizarAlCliente() throws Exception {
+        try (SalaAislada sala = new SalaAislada()) {
+            // El cliente real, sobre la sala, contando los pedidos de tablero completo
+            AtomicInteger snapshots = new AtomicInteger();
+            IParade modelo = (IParade) Proxy.newProxyInstance(IParade.class.getClassLoader(), new Class<?>[] {IParade.class},
+                    (proxy, metodo, args) -> {
+                        if (metodo.getName().equals("obtenerSnapshot")) snapshots.incrementAndGet();
+                        try {
+                            return metodo.invoke(sala.modelo, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+            ControladorParade cliente = new ControladorParade();
+            cliente.setVista((IVistaParade) Proxy.newProxyInstance(IVistaParade.class.getClassLoader(),
+                    new Class<?>[] {IVistaParade.class}, (proxy, metodo, args) -> null));
+            cliente.setModeloRemoto(modelo);
+
+            // El primer envío se traba: mientras tanto la ráfaga se combina en la cola
+            CountDownLatch destrabar = new CountDownLatch(1);
+            BlockingQueue<EventoParade> entregados = new LinkedBlockingQueue<>();
+            IObservadorRemoto lento = (origen, arg) -> {
+                if (((EventoParade) arg).getSecuencia() == 1) {
+                    try {
+                        destrabar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                cliente.actualizar(origen, arg); // antes de anotarlo: al verlo, el lote ya está programado
+                entregados.add((EventoParade) arg);
+            };
+            DespachadorEventos d = new DespachadorEventos(sala.modelo);
+            d.agregar(lento);
+            d.publicar(EventoParade.simple(Evento.RANKING_ACTUALIZADO, 1, 0, 0, 0, 0));
+            Thread.sleep(100); // el emisor ya tomó el primero y quedó esperando
+            for (int s = 2; s <= 6; s++) d.publicar(EventoParade.simple(Evento.RANKING_ACTUALIZADO, s, 0, 0, 0, 0));
+            destrabar.countDown();
+
+            EventoParade primero = entregados.poll(5, TimeUnit.SECONDS), combinado = entregados.poll(5, TimeUnit.SECONDS);
+            assertNotNull(combinado);
+            assertEquals(1, primero.getSecuencia());
+            assertEquals(6, combinado.getSecuencia());
+            assertEquals(2, combinado.getSecuenciaDesde());
+            assertEquals(4, d.getCombinados());
+            SwingUtilities.invokeAndWait(() -> { });   // lote del cliente ya procesado
+            assertEquals(0, snapshots.get(), "la ráfaga combinada se tomó como un hueco");
+
+            // Un salto de verdad sí resincroniza
+            d.publicar(EventoParade.simple(Evento.RANKING_ACTUALIZADO, 9, 0, 0, 0, 0));
+            assertNotNull(entregados.poll(5, TimeUnit.SECONDS));
+            SwingUtilities.invokeAndWait(() -> { });
+            assertEquals(1, snapshots.get());
+            d.cerrar();
+        }
+    }
+
+    @Test
+    void losEventosConDeltaNoSeCombinan() throws Exception {
+        DespachadorEventos d = new DespachadorEventos(null);
+        CountDownLatch destrabar = new CountDownLatch(1);
+        BlockingQueue<EventoParade> entregados = new LinkedBlockingQueue<>();
+        d.agregar((origen, arg) -> {
+            try {
+                destrabar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            entregados.add((EventoParade) arg);
+        });
+        d.publicar(EventoParade.simple(Evento.MENSAJE, 1, 0, 0, 0, 0));
+        Thread.sleep(100);
+        for (int s = 2; s <= 4; s++) d.publicar(EventoParade.jugadorUnido(s, 0, 0, s, 0, s - 2, "j" + s));
+        destrabar.countDown();
+        for (int s = 1; s <= 4; s++) assertEquals(s, entregados.poll(5, TimeUnit.SECONDS).getSecuencia());
+        assertEquals(0, d.getCombinados());
+        d.cerrar();
+    }
+}
@@ -0,0 +1,158 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Formato en disco del ranking ({@link DiarioRanking}): ida y vuelta, compactación y cortes a mitad. */
+class DiarioRankingTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void idaYVueltaConservaLasEntradas() throws Exception {
+        String archivo = dir.resolve("ranking.dat").toString();
+        List<EntradaRanking> escritas = List.of(
+                new EntradaRanking("Ana", 31, 1_000L),
+                new EntradaRanking("Beto", 12, 2_000L),
+                new EntradaRanking("Ñandú", 47, 3_000L));
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            assertTrue(d.cargar().isEmpty());
+            d.agregar(escritas.subList(0, 2));
+            d.agregar(escritas.subList(2, 3));
+        }
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            assertIguales(escritas, d.cargar());
+        }
+    }
+
+    @Test
+    void despuesDeCompactarSeLeeElSnapshotMasLoNuevo() throws Exception {
+        String archivo = dir.resolve("ranking.dat").toString();
+        EntradaRanking a = new EntradaRanking("Ana", 31, 1L), b = new EntradaRanking("Beto", 12, 2L);
+        EntradaRanking c = new EntradaRanking("Caro", 20, 3L);
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            d.cargar();
+            d.agregar(List.of(a, b));
+            d.compactar(List.of(a, b));
+            d.agregar(List.of(c));
+        }
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            assertIguales(List.of(a, b, c), d.cargar());
+        }
+        assertTrue(HistorialRanking.existe(HistorialRanking.rutaPara(archivo)));
+    }
+
+    @Test
+    void corteEntreReemplazarSnapshotYVaciarDiarioNoDuplicaElTop() throws Exception {
+        String archivo = dir.resolve("ranking.dat").toString();
+        Path diario = Path.of(archivo + ".diario");
+        TablaClasificacion tabla = new TablaClasificacion();
+        tabla.cargarDe(archivo);
+        tabla.registrarResultado(Map.of("Ana", 31, "Beto", 12));
+        tabla.registrarResultado(Map.of("Caro", 20));
+        assertTrue(tabla.guardarEn(archivo));
+
+        // Lo que queda en disco si el proceso cae justo después del Files.move del snapshot
+        byte[] diarioSinVaciar = Files.readAllBytes(diario);
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            d.cargar();
+            d.compactar(tabla.top5());
+        }
+        Files.write(diario, diarioSinVaciar);
+
+        TablaClasificacion recargada = new TablaClasificacion();
+        recargada.cargarDe(archivo);
+        assertIguales(tabla.top5(), recargada.top5());
+
+        // El diario ya quedó vacío: una segunda carga tampoco duplica
+        TablaClasificacion otraVez = new TablaClasificacion();
+        otraVez.cargarDe(archivo);
+        assertIguales(tabla.top5(), otraVez.top5());
+    }
+
+    @Test
+    void corteAntesDeReemplazarSnapshotReleeElDiario() throws Exception {
+        String archivo = dir.resolve("ranking.dat").toString();
+        EntradaRanking a = new EntradaRanking("Ana", 31, 1L), b = new EntradaRanking("Beto", 12, 2L);
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            d.cargar();
+            d.agregar(List.of(a, b));
+        }
+        // Un snapshot .tmp a medio escribir no se tiene en cuenta
+        Files.write(Path.of(archivo + ".tmp"), new byte[] {1, 2, 3});
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            assertIguales(List.of(a, b), d.cargar());
+        }
+    }
+
+    @Test
+    void colaCorruptaSeDescartaYSeTrunca() throws Exception {
+        String archivo = dir.resolve("ranking.dat").toString();
+        Path diario = Path.of(archivo + ".diario");
+        EntradaRanking a = new EntradaRanking("Ana", 31, 1L), b = new EntradaRanking("Beto", 12, 2L);
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            d.cargar();
+            d.agregar(List.of(a, b));
+        }
+        long valido = Files.size(diario);
+        Files.write(diario, new byte[] {0, 0, 0, 40, 9, 9, 9}, StandardOpenOption.APPEND);
+
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            assertIguales(List.of(a, b), d.cargar());
+            assertEquals(valido, Files.size(diario));
+            d.agregar(List.of(new EntradaRanking("Caro", 20, 3L)));
+        }
+        try (DiarioRanking d = new DiarioRanking(archivo)) {
+            assertEquals(3, d.cargar().size());
+        }
+    }
+
+    @Test
+    void diarioSinGeneracionSeLeeYSeMigra() throws Exception {
+        String archivo = dir.resolve("ranking.dat").toString();
+        Files.write(Path.of(archivo + ".diario"), diarioV1(new EntradaRanking("Ana", 31, 1L)));
+
+        TablaClasificacion tabla = new TablaClasificacion();
+        tabla.cargarDe(archivo);
+        assertIguales(List.of(new EntradaRanking("Ana", 31, 1L)), tabla.top5());
+
+        TablaClasificacion recargada = new TablaClasificacion();
+        recargada.cargarDe(archivo);
+        assertIguales(tabla.top5(), recargada.top5());
+    }
+
+    /** Diario de la versión 1: cabecera de 4 bytes sin generación, mismos registros. */
+    private static byte[] diarioV1(EntradaRanking e) {
+        byte[] nombre = e.getNombre().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(4 + 4 + 16 + nombre.length);
+        buf.putInt(0x50524A01).putInt(16 + nombre.length).putInt(0);
+        buf.putLong(e.getInstanteRegistroMs()).putInt(e.getPuntaje()).put(nombre);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 12, 12 + nombre.length);
+        buf.putInt(8, (int) crc.getValue());
+        return buf.array();
+    }
+
+    private static void assertIguales(List<EntradaRanking> esperadas, List<EntradaRanking> leidas) {
+        assertEquals(describir(esperadas), describir(leidas));
+    }
+
+    private static List<String> describir(List<EntradaRanking> entradas) {
+        List<String> s = new ArrayList<>(entradas.size());
+        for (EntradaRanking e : entradas) s.add(e.getNombre() + "/" + e.getPuntaje() + "/" + e.getInstanteRegistroMs());
+        return s;
+    }
+}
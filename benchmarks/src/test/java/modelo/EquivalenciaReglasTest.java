@@ -0,0 +1,217 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Equivalencia entre la resolución de jugadas en el lugar ({@link ReglasParade}, {@link MotorPartida},
+ * conteos incrementales de {@link Jugador}) y la versión original con listas y copias, que se
+ * conserva abajo como {@link Referencia}. Las partidas son aleatorias pero con semilla fija.
+ */
+class EquivalenciaReglasTest {
+
+    private static final int PARTIDAS = 1000;
+
+    @Test
+    void resolverJugadaCoincideConLaVersionConCopias() {
+        Random rng = new Random(42);
+        Carta[] buffer = new Carta[Carta.TOTAL];
+        for (int caso = 0; caso < 20_000; caso++) {
+            List<Carta> mazo = new ArrayList<>(Carta.todas());
+            Collections.shuffle(mazo, rng);
+            List<Carta> carnaval = new ArrayList<>(mazo.subList(0, rng.nextInt(30)));
+            Carta jugada = mazo.get(40 + rng.nextInt(20));
+
+            List<Carta> esperado = new ArrayList<>(carnaval);
+            esperado.add(jugada);
+            List<Carta> retiradasEsperadas = Referencia.calcularRetiradas(esperado, jugada);
+            esperado.removeAll(retiradasEsperadas);
+
+            assertEquals(suma(retiradasEsperadas), ReglasParade.valorRetirado(carnaval, jugada), "valor, caso " + caso);
+            int n = ReglasParade.resolverJugada(carnaval, jugada, buffer);
+            assertEquals(esperado, carnaval, "carnaval, caso " + caso);
+            assertEquals(retiradasEsperadas, Arrays.asList(buffer).subList(0, n), "retiradas en orden de mesa, caso " + caso);
+        }
+    }
+
+    @Test
+    void partidasCompletasCoincidenJugadaAJugada() {
+        for (int semilla = 0; semilla < PARTIDAS; semilla++) {
+            int jugadores = 2 + semilla % 4;
+            EstadoPartida estado = new EstadoPartida();
+            for (int i = 0; i < jugadores; i++) estado.getJugadores().add(new Jugador(i, "j" + i));
+            MotorPartida motor = new MotorPartida(estado);
+            motor.iniciar(6, 5, new Random(semilla));
+            Referencia ref = new Referencia(jugadores, 6, 5, new Random(semilla));
+            comparar(ref, motor, semilla, 0);
+
+            Random elecciones = new Random(~semilla);
+            int[] puntajes = new int[jugadores];
+            int jugadas = 0;
+            while (!motor.esFinDePartida()) {
+                int turno = estado.getTurnoActual();
+                ConjuntoCartas mano = estado.getJugadores().get(turno).getMano();
+                Carta carta = mano.obtener(elecciones.nextInt(mano.tamano()));
+
+                int resultado = motor.jugar(turno, indiceEn(mano, carta));
+                boolean activoUltima = ref.jugar(turno, carta);
+
+                assertNotEquals(MotorPartida.INVALIDA, resultado);
+                assertEquals(activoUltima, (resultado & MotorPartida.ULTIMA_RONDA) != 0, "última ronda, semilla " + semilla);
+                assertEquals(ref.esFinDePartida(), (resultado & MotorPartida.FIN) != 0, "fin, semilla " + semilla);
+                comparar(ref, motor, semilla, ++jugadas);
+                motor.puntajes(puntajes);
+                assertEquals(ref.puntajes(), toList(puntajes), "puntajes, semilla " + semilla + " jugada " + jugadas);
+                assertTrue(jugadas < Carta.TOTAL * 2, "la partida no termina, semilla " + semilla);
+            }
+        }
+    }
+
+    private static void comparar(Referencia ref, MotorPartida motor, int semilla, int jugada) {
+        String donde = "semilla " + semilla + ", jugada " + jugada;
+        EstadoPartida e = motor.getEstado();
+        assertEquals(ref.mazo, new ArrayList<>(e.getMazo()), "mazo, " + donde);
+        assertEquals(ref.carnaval, e.getCarnaval(), "carnaval, " + donde);
+        assertEquals(ref.turno, e.getTurnoActual(), "turno, " + donde);
+        assertEquals(ref.ultimaRonda, e.isUltimaRonda(), "última ronda, " + donde);
+        for (int i = 0; i < ref.manos.size(); i++) {
+            Jugador j = e.getJugadores().get(i);
+            assertEquals(new HashSet<>(ref.manos.get(i)), new HashSet<>(j.getMano().aLista()), "mano " + i + ", " + donde);
+            assertEquals(new HashSet<>(ref.recogidas.get(i)), new HashSet<>(j.getRecolectadas().aLista()), "recogidas " + i + ", " + donde);
+            assertEquals(suma(ref.recogidas.get(i)), j.getSumaValores(), "suma de valores " + i + ", " + donde);
+        }
+    }
+
+    private static int indiceEn(ConjuntoCartas mano, Carta carta) {
+        for (int i = 0; i < mano.tamano(); i++) if (mano.obtener(i) == carta) return i;
+        throw new AssertionError("la carta no está en la mano: " + carta);
+    }
+
+    private static int suma(List<Carta> cartas) {
+        int s = 0;
+        for (Carta c : cartas) s += c.getValor();
+        return s;
+    }
+
+    private static List<Integer> toList(int[] xs) {
+        List<Integer> l = new ArrayList<>(xs.length);
+        for (int x : xs) l.add(x);
+        return l;
+    }
+
+    /** Lógica de la versión original de {@code ModeloParade}, con listas y copias, sin cambios. */
+    private static final class Referencia {
+        final Deque<Carta> mazoPila = new ArrayDeque<>();
+        final List<Carta> mazo = new ArrayList<>();
+        final List<Carta> carnaval = new ArrayList<>();
+        final List<List<Carta>> manos = new ArrayList<>();
+        final List<List<Carta>> recogidas = new ArrayList<>();
+        int turno;
+        boolean ultimaRonda;
+
+        Referencia(int jugadores, int cartasInicialMesa, int cartasPorJugador, Random rng) {
+            List<Carta> cartas = new ArrayList<>();
+            for (ColorCarta c : ColorCarta.values()) {
+                for (int v = 0; v <= 10; v++) cartas.add(Carta.de(c, v));
+            }
+            Collections.shuffle(cartas, rng);
+            mazoPila.addAll(cartas);
+            for (int i = 0; i < jugadores; i++) {
+                List<Carta> mano = new ArrayList<>();
+                for (int k = 0; k < cartasPorJugador && !mazoPila.isEmpty(); k++) mano.add(mazoPila.pop());
+                manos.add(mano);
+                recogidas.add(new ArrayList<>());
+            }
+            for (int i = 0; i < cartasInicialMesa && !mazoPila.isEmpty(); i++) carnaval.add(mazoPila.pop());
+            sincronizarMazo();
+        }
+
+        /** @return true si esta jugada activó la última ronda */
+        boolean jugar(int id, Carta jugada) {
+            List<Carta> mano = manos.get(id);
+            mano.remove(mano.indexOf(jugada));
+            carnaval.add(jugada);
+            List<Carta> retiradas = calcularRetiradas(new ArrayList<>(carnaval), jugada);
+            carnaval.removeAll(retiradas);
+            recogidas.get(id).addAll(retiradas);
+
+            if (!ultimaRonda && !mazoPila.isEmpty()) mano.add(mazoPila.pop());
+            boolean activo = false;
+            if (!ultimaRonda && (tieneSeisColores(recogidas.get(id)) || mazoPila.isEmpty())) {
+                ultimaRonda = true;
+                activo = true;
+            }
+            turno = (turno + 1) % manos.size();
+            sincronizarMazo();
+            return activo;
+        }
+
+        static List<Carta> calcularRetiradas(List<Carta> carnavalConJugada, Carta jugada) {
+            final int prev = carnavalConJugada.size() - 1;
+            final int v = jugada.getValor();
+            if (prev <= v) return List.of();
+            final int evaluadas = prev - v;
+            List<Carta> retiradas = new ArrayList<>(evaluadas);
+            for (int i = 0; i < evaluadas; i++) {
+                Carta c = carnavalConJugada.get(i);
+                if (c.getColor() == jugada.getColor() || c.getValor() <= v) retiradas.add(c);
+            }
+            return retiradas;
+        }
+
+        static boolean tieneSeisColores(List<Carta> recogidas) {
+            EnumSet<ColorCarta> colores = EnumSet.noneOf(ColorCarta.class);
+            for (Carta c : recogidas) colores.add(c.getColor());
+            return colores.size() == ColorCarta.values().length;
+        }
+
+        boolean esFinDePartida() {
+            return ultimaRonda && manos.stream().allMatch(m -> m.size() == 4);
+        }
+
+        List<Integer> puntajes() {
+            int n = manos.size();
+            Map<ColorCarta, List<Integer>> conteo = new EnumMap<>(ColorCarta.class);
+            for (ColorCarta c : ColorCarta.values()) conteo.put(c, new ArrayList<>(Collections.nCopies(n, 0)));
+            List<Integer> sumaValores = new ArrayList<>(Collections.nCopies(n, 0));
+            for (int i = 0; i < n; i++) {
+                for (Carta k : recogidas.get(i)) {
+                    conteo.get(k.getColor()).set(i, conteo.get(k.getColor()).get(i) + 1);
+                    sumaValores.set(i, sumaValores.get(i) + k.getValor());
+                }
+            }
+            List<Integer> puntos = new ArrayList<>(Collections.nCopies(n, 0));
+            for (ColorCarta c : ColorCarta.values()) {
+                List<Integer> xs = conteo.get(c);
+                int max = xs.stream().mapToInt(Integer::intValue).max().orElse(0);
+                if (n == 2) {
+                    int a = xs.get(0), b = xs.get(1);
+                    if (a >= b + 2) puntos.set(0, puntos.get(0) + a);
+                    else if (b >= a + 2) puntos.set(1, puntos.get(1) + b);
+                } else {
+                    for (int i = 0; i < n; i++) if (xs.get(i) == max && max > 0) puntos.set(i, puntos.get(i) + xs.get(i));
+                }
+            }
+            for (int i = 0; i < n; i++) puntos.set(i, puntos.get(i) + sumaValores.get(i));
+            return puntos;
+        }
+
+        private void sincronizarMazo() {
+            mazo.clear();
+            mazo.addAll(mazoPila);
+        }
+    }
+}
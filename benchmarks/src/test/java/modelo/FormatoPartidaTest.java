@@ -0,0 +1,95 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static modelo.ColorCarta.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Partidas guardadas ({@link FormatoPartida}): formato binario y archivos viejos de {@code ObjectOutputStream}. */
+class FormatoPartidaTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * {@code partida-vieja.sav} lo escribió la versión con listas (manos y recogidas como
+     * {@code ArrayList<Carta>}, cartas construidas con {@code new Carta}).
+     */
+    @Test
+    void importaUnaPartidaDeLaVersionConListas() throws Exception {
+        Path archivo = dir.resolve("vieja.sav");
+        try (InputStream in = getClass().getResourceAsStream("partida-vieja.sav")) {
+            assertNotNull(in, "falta el recurso partida-vieja.sav");
+            Files.copy(in, archivo);
+        }
+
+        EstadoPartida e = FormatoPartida.leer(archivo);
+
+        assertEquals(2, e.getJugadores().size());
+        Jugador ana = e.getJugadores().get(0), beto = e.getJugadores().get(1);
+        assertEquals("Ana", ana.getNombre());
+        assertEquals(List.of(Carta.de(ROJO, 3), Carta.de(AZUL, 10)), ana.getMano().aLista());
+        assertEquals(List.of(Carta.de(MORADO, 5)), ana.getRecolectadas().aLista());
+        assertEquals(5, ana.getSumaValores());
+        assertEquals(1, ana.cantidadColor(MORADO.ordinal()));
+        assertEquals(1, beto.getId());
+        assertEquals(List.of(Carta.de(VERDE, 0)), beto.getMano().aLista());
+        assertEquals(List.of(Carta.de(NEGRO, 7), Carta.de(AMARILLO, 1)), new ArrayList<>(e.getMazo()));
+        assertEquals(List.of(Carta.de(ROJO, 9), Carta.de(MORADO, 2)), e.getCarnaval());
+        assertSame(Carta.de(ROJO, 9), e.getCarnaval().get(0));
+        assertEquals(1, e.getTurnoActual());
+        assertTrue(e.isUltimaRonda());
+        assertTrue(e.isIniciada());
+    }
+
+    @Test
+    void idaYVueltaBinariaDeUnaPartidaEmpezada() throws Exception {
+        EstadoPartida estado = new EstadoPartida();
+        for (int i = 0; i < 4; i++) estado.getJugadores().add(new Jugador(i, "jugador " + i));
+        MotorPartida motor = new MotorPartida(estado);
+        motor.iniciar(6, 5, new Random(7));
+        for (int k = 0; k < 20; k++) motor.jugar(estado.getTurnoActual(), 0);
+        estado.setIniciada(true);
+
+        Path archivo = dir.resolve("partida.sav");
+        FormatoPartida.escribir(estado, archivo);
+        EstadoPartida leido = FormatoPartida.leer(archivo);
+
+        assertEquals(estado.getTurnoActual(), leido.getTurnoActual());
+        assertEquals(estado.isUltimaRonda(), leido.isUltimaRonda());
+        assertEquals(estado.isIniciada(), leido.isIniciada());
+        assertEquals(new ArrayList<>(estado.getMazo()), new ArrayList<>(leido.getMazo()));
+        assertEquals(estado.getCarnaval(), leido.getCarnaval());
+        for (int i = 0; i < 4; i++) {
+            Jugador a = estado.getJugadores().get(i), b = leido.getJugadores().get(i);
+            assertEquals(a.getNombre(), b.getNombre());
+            assertEquals(a.getMano(), b.getMano());
+            assertEquals(a.getRecolectadas(), b.getRecolectadas());
+            assertEquals(a.getSumaValores(), b.getSumaValores());
+        }
+    }
+
+    @Test
+    void rechazaUnArchivoAlteradoOTruncado() throws Exception {
+        EstadoPartida estado = new EstadoPartida();
+        estado.getJugadores().add(new Jugador(0, "Ana"));
+        estado.getCarnaval().add(Carta.de(ROJO, 4));
+        byte[] bytes = FormatoPartida.codificar(estado).array();
+
+        byte[] alterado = bytes.clone();
+        alterado[alterado.length - 1] ^= 1;
+        assertThrows(IOException.class, () -> FormatoPartida.decodificar(ByteBuffer.wrap(alterado)));
+        byte[] truncado = java.util.Arrays.copyOf(bytes, bytes.length - 3);
+        assertThrows(IOException.class, () -> FormatoPartida.decodificar(ByteBuffer.wrap(truncado)));
+    }
+}
@@ -0,0 +1,73 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulacion.ReproductorPartidas;
+import simulacion.ResultadoReproduccion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Partidas jugadas en salas reales, grabadas ({@link GrabadorPartidas}) y reproducidas sin divergencias. */
+class GrabadorPartidasTest {
+
+    private static final int PARTIDAS = 40;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void lasPartidasGrabadasSeReproducenIgual() throws Exception {
+        Path archivo = dir.resolve("grabadas.txt");
+        GrabadorPartidas grabador = new GrabadorPartidas(archivo);
+        Random rng = new Random(5);
+        for (int p = 0; p < PARTIDAS; p++) jugarPartida(grabador, 2 + p % 4, rng, dir);
+        grabador.cerrar();
+
+        List<PartidaGrabada> grabadas = ReproductorPartidas.leer(archivo);
+        assertEquals(PARTIDAS, grabadas.size());
+        ResultadoReproduccion r = new ReproductorPartidas().reproducir(grabadas);
+        assertTrue(r.sinDivergencias(), r::informe);
+        assertTrue(r.getJugadas() > PARTIDAS * 10L);
+    }
+
+    @Test
+    void unaGrabacionAlteradaSeInformaComoDivergencia() throws Exception {
+        Path archivo = dir.resolve("grabadas.txt");
+        GrabadorPartidas grabador = new GrabadorPartidas(archivo);
+        jugarPartida(grabador, 3, new Random(9), dir);
+        grabador.cerrar();
+
+        String linea = Files.readAllLines(archivo).get(0);
+        int fin = linea.lastIndexOf('|');
+        String[] puntajes = linea.substring(fin + 1).split(",");
+        puntajes[0] = String.valueOf(Integer.parseInt(puntajes[0]) + 1);
+        PartidaGrabada alterada = PartidaGrabada.deLinea(linea.substring(0, fin + 1) + String.join(",", puntajes));
+
+        ResultadoReproduccion r = new ReproductorPartidas().reproducir(List.of(alterada));
+        assertEquals(1, r.getDivergencias().size());
+        assertEquals("puntajes", r.getDivergencias().get(0).getCampo());
+    }
+
+    /** Una partida completa con jugadas al azar; los nombres llevan los separadores del formato de línea. */
+    private static void jugarPartida(GrabadorPartidas grabador, int jugadores, Random rng, Path dir) throws Exception {
+        TablaClasificacion tabla = new TablaClasificacion();
+        EscritorRanking escritor = new EscritorRanking(tabla, dir.resolve("ranking.dat").toString());
+        ModeloParade m = new ModeloParade("sala", tabla, escritor, null, grabador, new MetricasParade());
+        try {
+            for (int i = 0; i < jugadores; i++) m.unirJugador("j|" + i + ",ñ");
+            m.iniciarPartida(6, 5);
+            for (int k = 0; !m.esFinDePartida(); k++) {
+                int id = k % jugadores;
+                m.jugarCarta(id, rng.nextInt(m.obtenerMano(id).size()));
+            }
+        } finally {
+            m.cerrar();
+            escritor.cerrar();
+        }
+    }
+}
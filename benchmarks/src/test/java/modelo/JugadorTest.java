@@ -0,0 +1,54 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Forma serializada de {@link Jugador}: la de la versión con listas, compatible con partidas y pares viejos. */
+class JugadorTest {
+
+    @Test
+    void laFormaSerializadaDeclaraListas() {
+        ObjectStreamClass desc = ObjectStreamClass.lookup(Jugador.class);
+        assertEquals(1L, desc.getSerialVersionUID());
+        assertEquals(List.class, desc.getField("mano").getType());
+        assertEquals(List.class, desc.getField("recolectadas").getType());
+    }
+
+    @Test
+    void idaYVueltaConservaCartasYConteos() throws Exception {
+        Jugador j = new Jugador(3, "Ana");
+        j.getMano().agregar(Carta.de(ColorCarta.values()[0], 4));
+        j.getMano().agregar(Carta.de(ColorCarta.values()[2], 9));
+        j.agregarRecogida(Carta.de(ColorCarta.values()[1], 7));
+        j.agregarRecogida(Carta.de(ColorCarta.values()[1], 2));
+
+        Jugador leido = idaYVuelta(j);
+
+        assertEquals(3, leido.getId());
+        assertEquals("Ana", leido.getNombre());
+        assertEquals(j.getMano(), leido.getMano());
+        assertEquals(j.getRecolectadas(), leido.getRecolectadas());
+        assertEquals(2, leido.cantidadColor(1));
+        assertEquals(9, leido.getSumaValores());
+        assertSame(Carta.de(ColorCarta.values()[0], 4), leido.getMano().obtener(0));
+    }
+
+    private static Jugador idaYVuelta(Jugador j) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(j);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (Jugador) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package modelo;
+
+import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+import org.junit.jupiter.api.Test;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Espectadores del transporte binario ({@link TransmisionSala}) contra un {@link ServidorBinario} real:
+ * todos ven la partida, la sala codifica cada evento una sola vez y nadie puede jugar mirando.
+ * Corre en el directorio de trabajo de surefire (bitácoras y ranking quedan en {@code target}).
+ */
+class TransmisionSalaTest {
+
+    private static final int ESPECTADORES = 8;
+
+    /** Cuenta lo que recibe un espectador y recuerda la última secuencia y versión. */
+    private static final class Contador implements IObservadorRemoto {
+        final AtomicInteger recibidos = new AtomicInteger();
+        final AtomicLong secuencia = new AtomicLong(-1);
+        final AtomicLong version = new AtomicLong(-1);
+
+        @Override
+        public void actualizar(IObservableRemoto origen, Object arg) {
+            recibidos.incrementAndGet();
+            if (arg instanceof EventoParade ev) {
+                secuencia.set(ev.getSecuencia());
+                version.set(ev.getVersion());
+            }
+        }
+    }
+
+    @Test
+    void losEspectadoresVenLaPartidaConUnaSolaCodificacionPorEvento() throws Exception {
+        RegistroSalas salas = new RegistroSalas();
+        ServidorBinario srv = new ServidorBinario(salas, "127.0.0.1", 0);
+        ExecutorService pool = Executors.newFixedThreadPool(ESPECTADORES);
+        List<ClienteBinario> clientes = new ArrayList<>();
+        try {
+            srv.iniciar();
+            int puerto = srv.puerto();
+            String id = "espectadores-" + System.nanoTime();
+
+            // se suman a la vez: la transmisión tiene que quedar registrada una sola vez
+            List<Future<ClienteBinario>> fs = new ArrayList<>();
+            for (int i = 0; i < ESPECTADORES; i++) fs.add(pool.submit(() -> ClienteBinario.espectar("127.0.0.1", puerto, id)));
+            List<Contador> contadores = new ArrayList<>();
+            for (Future<ClienteBinario> f : fs) {
+                ClienteBinario c = f.get(10, TimeUnit.SECONDS);
+                clientes.add(c);
+                Contador k = new Contador();
+                c.agregarObservador(k);
+                contadores.add(k);
+            }
+            ModeloParade m = salas.salaLocal(id);
+            assertEquals(1, m.eventos().getObservadores());
+            assertEquals(ESPECTADORES, m.transmision().getEspectadores());
+
+            ClienteBinario jugador = ClienteBinario.conectar("127.0.0.1", puerto, id);
+            clientes.add(jugador);
+            jugador.unirJugador("ana");
+            jugador.unirJugador("beto");
+
+            ClienteBinario espectador = clientes.get(0);
+            assertThrows(RemoteException.class, () -> espectador.unirJugador("colado"));
+            assertThrows(RemoteException.class, () -> espectador.iniciarPartida(6, 5));
+            assertThrows(RemoteException.class, () -> espectador.obtenerMano(0));
+
+            jugador.iniciarPartida(6, 5);
+            assertThrows(RemoteException.class, () -> espectador.jugarCarta(0, 0));
+            for (int t = 0; !jugador.esFinDePartida(); t ^= 1) jugador.jugarCarta(t, 0);
+
+            long version = m.obtenerSnapshot(-1).getVersion();
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (contadores.stream().anyMatch(k -> k.version.get() < version)) {
+                assertTrue(System.nanoTime() < limite, "un espectador no llegó a la versión " + version);
+                Thread.sleep(20);
+            }
+            long eventos = contadores.get(0).secuencia.get(); // el último evento lleva la secuencia total
+            long tramas = m.transmision().getTramas();
+            assertTrue(tramas > 0 && tramas <= eventos, "tramas " + tramas + " para " + eventos + " eventos");
+            for (Contador k : contadores) assertTrue(k.recibidos.get() <= tramas);
+            assertEquals(jugador.puntajesPorJugador(), espectador.puntajesPorJugador());
+
+            for (ClienteBinario c : clientes.subList(0, ESPECTADORES)) c.cerrar();
+            while (m.transmision().getEspectadores() > 0) {
+                assertTrue(System.nanoTime() < limite, "quedaron espectadores tras cerrar");
+                Thread.sleep(20);
+            }
+        } finally {
+            for (ClienteBinario c : clientes) c.cerrar();
+            pool.shutdownNow();
+            srv.cerrar();
+            salas.cerrar();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package vistas;
+
+import modelo.Carta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Atlas de miniaturas de {@link ImagenesCartas}: tope de memoria compartido, carga por cubeta y poda del disco. */
+class ImagenesCartasTest {
+
+    private static final int[] ALTOS = {64, 96, 128, 160, 192, 224, 256, 288};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void losAtlasCuentanContraElTopeDeMemoria() throws Exception {
+        long tope = 8L * 1024 * 1024; // menos que los atlas de todas las cubetas juntos
+        ImagenesCartas img = new ImagenesCartas(tope, dir);
+        img.precargar().join();
+        armarAtlas(img, ALTOS);
+
+        for (int alto : ALTOS) {
+            for (int i = 0; i < Carta.TOTAL; i += 5) assertNotNull(img.icono(Carta.deOrdinal(i), alto - 3));
+        }
+        assertTrue(img.bytesEnMemoria() <= tope, "en memoria " + img.bytesEnMemoria() + " > " + tope);
+        assertTrue(img.atlasEnMemoria() < ALTOS.length);
+    }
+
+    @Test
+    void alArrancarNoSeLeeNingunAtlasHastaQueSePideSuCubeta() throws Exception {
+        ImagenesCartas primera = new ImagenesCartas(ImagenesCartas.MAX_BYTES, dir);
+        primera.precargar().join();
+        armarAtlas(primera, 96, 160, 224);
+
+        ImagenesCartas img = new ImagenesCartas(ImagenesCartas.MAX_BYTES, dir);
+        img.precargar().join();
+        assertEquals(0, img.atlasEnMemoria());
+        assertEquals(0, img.bytesEnMemoria());
+
+        assertNotNull(img.icono(Carta.deOrdinal(0), 150)); // cubeta 160
+        assertEquals(1, img.atlasEnMemoria());
+        assertNotNull(img.icono(Carta.deOrdinal(1), 140));
+        assertEquals(1, img.atlasEnMemoria());
+    }
+
+    @Test
+    void sePodanLosAtlasViejosYLosDeOtrasImagenes() throws Exception {
+        ImagenesCartas primera = new ImagenesCartas(ImagenesCartas.MAX_BYTES, dir);
+        primera.precargar().join();
+        armarAtlas(primera, ALTOS);
+        Files.write(dir.resolve("cartas-0badcafe-128.atlas"), new byte[] {1, 2, 3});
+
+        new ImagenesCartas(ImagenesCartas.MAX_BYTES, dir).precargar().join();
+
+        List<Path> quedan = atlas();
+        assertTrue(quedan.size() <= ImagenesCartas.MAX_ATLAS_DISCO, "quedan " + quedan);
+        assertFalse(Files.exists(dir.resolve("cartas-0badcafe-128.atlas")));
+    }
+
+    /** Pide un ícono de cada cubeta y espera a que su atlas quede escrito (se arma en segundo plano). */
+    private void armarAtlas(ImagenesCartas img, int... altos) throws Exception {
+        for (int alto : altos) {
+            img.icono(Carta.deOrdinal(0), alto);
+            long limite = System.nanoTime() + 30_000_000_000L;
+            while (atlas().stream().noneMatch(p -> p.getFileName().toString().endsWith("-" + alto + ".atlas"))) {
+                assertTrue(System.nanoTime() < limite, "no se escribió el atlas de " + alto);
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private List<Path> atlas() throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(p -> p.getFileName().toString().endsWith(".atlas")).toList();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package app;
+
+import modelo.RegistroSalas;
+import modelo.ServidorBinario;
+import simulacion.GeneradorCarga;
+import simulacion.ResultadoCarga;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.rmi.registry.LocateRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga: levanta un {@link AppServidorParade} local en otro proceso (con directorio de
+ * trabajo temporal, para no tocar el ranking ni las bitácoras reales) y lo carga con bots RMI en
+ * escalones, mostrando latencia de jugada por percentiles, llamadas/s y eventos/s.
+ * Uso: {@code AppCargaParade [maxClientes] [paso] [segundosPorEscalon] [jugadoresPorMesa] [--externo] [--binario]}
+ * ({@code --externo}: usa un servidor que ya esté corriendo en 127.0.0.1:8888; {@code --binario}: los bots
+ * juegan por el transporte binario en vez de RMI).
+ */
+public class AppCargaParade {
+    private static final String HOST = "127.0.0.1";
+    private static final int PUERTO = 8888;
+
+    public static void main(String[] args) throws Exception {
+        List<String> nums = new ArrayList<>();
+        boolean externo = false, binario = false;
+        for (String a : args) {
+            if (a.equals("--externo")) externo = true;
+            else if (a.equals("--binario")) binario = true;
+            else nums.add(a);
+        }
+        int maxClientes = nums.size() > 0 ? Integer.parseInt(nums.get(0)) : 64;
+        int paso        = nums.size() > 1 ? Integer.parseInt(nums.get(1)) : 8;
+        int segundos    = nums.size() > 2 ? Integer.parseInt(nums.get(2)) : 10;
+        int porMesa     = nums.size() > 3 ? Integer.parseInt(nums.get(3)) : 2;
+
+        if (System.getProperty("java.rmi.server.hostname") == null) {
+            System.setProperty("java.rmi.server.hostname", HOST); // los eventos vuelven por loopback
+        }
+
+        Process servidor = externo ? null : lanzarServidor();
+        int salida = 0;
+        try {
+            esperarServidor(servidor);
+            System.out.printf("Carga: hasta %d clientes de a %d, %d s por escalón, %d por mesa (%s)%n",
+                    maxClientes, paso, segundos, porMesa, binario ? "binario" : "RMI");
+            System.out.print(ResultadoCarga.encabezado());
+            new GeneradorCarga(HOST, PUERTO, porMesa, binario ? ServidorBinario.PUERTO : 0)
+                    .escalonar(maxClientes, paso, segundos * 1000L, r -> System.out.print(r.informe()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            salida = 1;
+        } finally {
+            if (servidor != null) {
+                servidor.destroy(); // SIGTERM: corre el hook de cierre del servidor
+                if (!servidor.waitFor(10, TimeUnit.SECONDS)) servidor.destroyForcibly();
+            }
+        }
+        System.exit(salida); // los hilos de RMI no son daemon
+    }
+
+    /** Mismo JDK y mismo classpath (en rutas absolutas) que este proceso, en un directorio temporal. */
+    private static Process lanzarServidor() throws IOException {
+        Path dir = Files.createTempDirectory("parade-carga");
+        StringBuilder cp = new StringBuilder();
+        for (String e : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (e.isEmpty()) continue;
+            if (cp.length() > 0) cp.append(File.pathSeparator);
+            cp.append(Path.of(e).toAbsolutePath());
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        System.out.println("Servidor de prueba en " + dir + " (log: servidor.log)");
+        return new ProcessBuilder(java, "-Djava.rmi.server.hostname=" + HOST, "-cp", cp.toString(),
+                AppServidorParade.class.getName())
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("servidor.log").toFile())
+                .start();
+    }
+
+    private static void esperarServidor(Process servidor) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (true) {
+            try {
+                LocateRegistry.getRegistry(HOST, PUERTO).lookup(RegistroSalas.NOMBRE_RMI);
+                return;
+            } catch (Exception e) {
+                if (servidor != null && !servidor.isAlive())
+                    throw new IllegalStateException("El servidor terminó al arrancar (código " + servidor.exitValue() + ")");
+                if (System.nanoTime() > limite) throw e;
+                Thread.sleep(200);
+            }
+        }
+    }
+}
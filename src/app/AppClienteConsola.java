@@ -1,10 +1,10 @@
 package app;
 
 import controladores.ControladorParade;
+import modelo.RegistroSalas;
 import vistas.IVistaParade;
 import vistas.VistaConsola;
 import ar.edu.unlu.rmimvc.RMIMVCException;
-import ar.edu.unlu.rmimvc.cliente.Cliente;
 
 import javax.swing.*;
 import java.rmi.RemoteException;
@@ -21,9 +21,16 @@ public class AppClienteConsola {
             } catch (Throwable ignored) {}
         });
 
-        String portStr = JOptionPane.showInputDialog(null, "Puerto del cliente:", "10001");
-        if (portStr == null || portStr.isBlank()) return;
-        int basePort = Integer.parseInt(portStr);
+        boolean binario = ClienteSala.transporteBinario(); // RMI necesita un puerto local para los callbacks
+        int basePort = 0;
+        if (!binario) {
+            String portStr = JOptionPane.showInputDialog(null, "Puerto del cliente:", "10001");
+            if (portStr == null || portStr.isBlank()) return;
+            basePort = Integer.parseInt(portStr);
+        }
+
+        String sala = JOptionPane.showInputDialog(null, "Sala:", RegistroSalas.SALA_PRINCIPAL);
+        if (sala == null || sala.isBlank()) sala = RegistroSalas.SALA_PRINCIPAL;
 
         ControladorParade c = new ControladorParade();
         IVistaParade v = new VistaConsola(c);
@@ -36,13 +43,23 @@ public class AppClienteConsola {
         boolean conectado = false;
         Exception ultimoError = null;
 
-        for (int intento = 0; intento < 5 && !conectado; intento++) {
+        if (binario) {
+            try {
+                c.setEspectador(ClienteSala.modoEspectador());
+                ClienteSala.iniciarBinario(c, hostServidor, sala);
+                v.iniciar();
+                conectado = true;
+            } catch (RemoteException e) {
+                ultimoError = e;
+            }
+        }
+
+        for (int intento = 0; intento < 5 && !conectado && !binario; intento++) {
             int puertoClienteLocal = basePort + intento;
             try {
-                ar.edu.unlu.rmimvc.cliente.Cliente cli =
-                        new ar.edu.unlu.rmimvc.cliente.Cliente(hostServidor, puertoClienteLocal, hostCliente, puertoServidorRegistry);
+                ClienteSala cli = new ClienteSala(hostServidor, puertoClienteLocal, hostCliente, puertoServidorRegistry);
 
-                cli.iniciar(c);
+                cli.iniciar(c, sala);
                 v.iniciar();
                 conectado = true;
             } catch (java.rmi.RemoteException | ar.edu.unlu.rmimvc.RMIMVCException e) {
@@ -0,0 +1,22 @@
+package app;
+
+import simulacion.ReproductorPartidas;
+import simulacion.ResultadoReproduccion;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reproduce offline las partidas grabadas por el servidor y reporta divergencias
+ * en carnaval, pilas o puntajes. Termina con código 1 si hubo alguna.
+ * Uso: {@code AppReproductorParade [archivo]} (por defecto {@code partidas/grabadas.txt}).
+ */
+public class AppReproductorParade {
+    public static void main(String[] args) throws IOException {
+        Path archivo = Path.of(args.length > 0 ? args[0] : "partidas/grabadas.txt");
+        var partidas = ReproductorPartidas.leer(archivo);
+        ResultadoReproduccion r = new ReproductorPartidas().reproducir(partidas);
+        System.out.print(r.informe());
+        if (!r.sinDivergencias()) System.exit(1);
+    }
+}
@@ -1,23 +1,29 @@
 package app;
 
-import modelo.ModeloParade;
+import modelo.RegistroSalas;
+import modelo.ServidorBinario;
 import ar.edu.unlu.rmimvc.RMIMVCException;
 import ar.edu.unlu.rmimvc.servidor.Servidor;
 
-import java.rmi.RemoteException;
+import java.io.IOException;
+import java.rmi.AlreadyBoundException;
 
 public class AppServidorParade {
     public static void main(String[] args) {
         try {
-            ModeloParade modelo = new ModeloParade();
+            RegistroSalas salas = new RegistroSalas();
+            Runtime.getRuntime().addShutdownHook(new Thread(salas::cerrar, "cierre-ranking"));
+            int puertoBinario = Integer.getInteger("parade.binario.puerto", ServidorBinario.PUERTO); // 0: sin transporte binario
+            if (puertoBinario > 0) new ServidorBinario(salas, "127.0.0.1", puertoBinario).iniciar(); // antes que RMI: quien espera al registry encuentra los dos
             Servidor servidor = new Servidor("127.0.0.1", 8888);
-            servidor.iniciar(modelo);
+            servidor.iniciar(salas.principal());              // "MVCRMI/Modelo" = sala principal
+            servidor.exportarObjeto(RegistroSalas.NOMBRE_RMI, salas);
+            salas.metricas().registrarJmx();
+            salas.metricas().volcarCada(Long.getLong("parade.metricas.segundos", 60)); // 0: sin volcado
             System.out.println("Servidor Parade iniciado en 127.0.0.1:8888");
-        } catch (RemoteException | RMIMVCException e) {
+            if (puertoBinario > 0) System.out.println("Transporte binario en 127.0.0.1:" + puertoBinario);
+        } catch (IOException | RMIMVCException | AlreadyBoundException e) {
             e.printStackTrace();
         }
     }
 }
-
-
-
@@ -0,0 +1,35 @@
+package app;
+
+import simulacion.PoliticaJugada;
+import simulacion.ResultadoSimulacion;
+import simulacion.SimuladorParade;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulación offline: corre muchas partidas headless y muestra partidas/seg y estadísticas.
+ * Uso: {@code AppSimuladorParade [partidas] [semilla] [politica...]}
+ * (una política por asiento: "aleatoria" o "minimo"; por defecto dos jugadores aleatorios).
+ */
+public class AppSimuladorParade {
+    public static void main(String[] args) {
+        long partidas = (args.length > 0) ? Long.parseLong(args[0]) : 1_000_000L;
+        long semilla  = (args.length > 1) ? Long.parseLong(args[1]) : 42L;
+
+        List<PoliticaJugada> politicas = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) politicas.add(PoliticaJugada.porNombre(args[i]));
+        if (politicas.isEmpty()) politicas = List.of(PoliticaJugada.ALEATORIA, PoliticaJugada.ALEATORIA);
+
+        SimuladorParade sim = new SimuladorParade(politicas, 6, 5);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            sim.simular(Math.min(partidas, 20_000), semilla, pool); // calentamiento del JIT
+            ResultadoSimulacion r = sim.simular(partidas, semilla, pool);
+            System.out.print(r.informe());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
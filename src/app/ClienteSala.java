@@ -0,0 +1,92 @@
+package app;
+
+import ar.edu.unlu.rmimvc.RMIMVCException;
+import ar.edu.unlu.rmimvc.ServidorRMI;
+import ar.edu.unlu.rmimvc.cliente.IControladorRemoto;
+import modelo.ClienteBinario;
+import modelo.IParade;
+import modelo.ISalasParade;
+import modelo.RegistroSalas;
+import modelo.ServidorBinario;
+
+import java.rmi.AlreadyBoundException;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+
+/**
+ * Variante del {@code Cliente} de la librería RMI-MVC que se conecta a una sala concreta:
+ * busca el registro de salas del servidor, obtiene el modelo de la sala pedida y
+ * registra al controlador como observador de esa sala.
+ * Con {@link #iniciarBinario} hace lo mismo sobre el transporte binario ({@link ClienteBinario}),
+ * sin puerto local ni exportar el controlador.
+ */
+public class ClienteSala extends ServidorRMI {
+    private final String hostServidor;
+    private final int puertoServidor;
+
+    public ClienteSala(String hostServidor, int puertoCliente, String hostCliente, int puertoServidor) {
+        super(hostCliente, puertoCliente);
+        this.hostServidor = hostServidor;
+        this.puertoServidor = puertoServidor;
+    }
+
+    public IControladorRemoto iniciar(IControladorRemoto controlador, String idSala)
+            throws RemoteException, RMIMVCException {
+        iniciarServidorRMI();
+        IParade sala;
+        try {
+            ISalasParade salas = (ISalasParade) LocateRegistry
+                    .getRegistry(hostServidor, puertoServidor)
+                    .lookup(RegistroSalas.NOMBRE_RMI);
+            sala = salas.sala(idSala);
+        } catch (NotBoundException e) {
+            throw new RMIMVCException("No se encontró el registro de salas en el servidor.");
+        }
+        controlador.setModeloRemoto(sala);
+        try {
+            IControladorRemoto exportado = exportarObjeto("MVCRMI/Cliente", controlador);
+            sala.agregarObservador(exportado);
+            return exportado;
+        } catch (AlreadyBoundException e) {
+            throw new RMIMVCException("Error al registrar el controlador en el servidor RMI local.");
+        }
+    }
+
+    /**
+     * Transporte seleccionado al arrancar: {@code -Dparade.transporte=binario} (por defecto, RMI).
+     * {@code espectador} también va por el binario, en modo de sólo lectura.
+     */
+    public static boolean transporteBinario() {
+        return "binario".equalsIgnoreCase(transporte()) || modoEspectador();
+    }
+
+    /** {@code -Dparade.transporte=espectador}: mirar la sala sin unirse. */
+    public static boolean modoEspectador() {
+        return "espectador".equalsIgnoreCase(transporte());
+    }
+
+    private static String transporte() {
+        return System.getProperty("parade.transporte", "rmi");
+    }
+
+    /**
+     * Conecta al controlador con la sala por el transporte binario (como espectador si
+     * {@link #modoEspectador()}). Puerto: {@code -Dparade.binario.puerto} (por defecto {@link ServidorBinario#PUERTO}).
+     */
+    public static IParade iniciarBinario(IControladorRemoto controlador, String hostServidor, String idSala)
+            throws RemoteException {
+        int puerto = Integer.getInteger("parade.binario.puerto", ServidorBinario.PUERTO);
+        ClienteBinario sala = modoEspectador()
+                ? ClienteBinario.espectar(hostServidor, puerto, idSala)
+                : ClienteBinario.conectar(hostServidor, puerto, idSala);
+        try {
+            controlador.setModeloRemoto(sala);
+            sala.agregarObservador(controlador);
+        } catch (RemoteException e) {
+            sala.cerrar();
+            throw e;
+        }
+        return sala;
+    }
+}
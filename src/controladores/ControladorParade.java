@@ -8,6 +8,9 @@ import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
 import javax.swing.*;
 import java.rmi.RemoteException;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -22,105 +25,227 @@ public class ControladorParade implements IControladorRemoto {
     private IVistaParade vista;
     private Integer idJugador;      // índice que asigna el modelo al unirse
     private String nombreJugador;   // alias local elegido en la vista
+    private boolean espectador;     // sólo mira: el servidor no lo deja unirse ni jugar
+    private SnapshotJugador ultimoSnapshot; // último estado recibido (una sola llamada por refresco)
+    private long ultimaSecuencia = 0;       // secuencia del último evento recibido (sólo EDT)
+    // Caché de datos que casi no cambian; los eventos anuncian la versión vigente en el servidor
+    private EstadoLobby lobby;
+    private EstadoRanking ranking;
+    private long versionLobbyServidor = -1;
+    private long versionRankingServidor = -1;
+    /** Eventos recibidos por RMI que esperan el próximo lote en el EDT. */
+    private final Queue<EventoParade> entrantes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean loteProgramado = new AtomicBoolean();
 
     public void setVista(IVistaParade vista) { this.vista = vista; }
     public void setNombreJugador(String nombre) { this.nombreJugador = nombre; }
+    public void setEspectador(boolean espectador) { this.espectador = espectador; }
+    public boolean isEspectador() { return espectador; }
 
     // === Acciones desde la vista ===
 
-    /** Refresca lista de jugadores y habilita/deshabilita controles. */
+    /** Refresca lista de jugadores y habilita/deshabilita controles (desde la caché si sigue vigente). */
     private void syncJugadoresYControles() {
+        syncJugadoresYControles(false);
+    }
+
+    /** @param verificar consultar al servidor aunque ningún evento haya anunciado cambios (tras una acción propia) */
+    private void syncJugadoresYControles(boolean verificar) {
         try {
-            var nombres = modelo.nombresJugadores();
-            vista.mostrarJugadores(nombres, nombreJugador);
-            boolean enCurso = modelo.partidaIniciada();
+            EstadoLobby l = lobby(verificar);
+            vista.mostrarJugadores(l.getNombres(), nombreJugador);
             // Mejora: habilitar solo si partida en curso y el usuario ya está unido
-            vista.setControlesHabilitados(enCurso && idJugador != null);
+            vista.setControlesHabilitados(l.isPartidaIniciada() && idJugador != null);
         } catch (RemoteException e) {
             vista.mostrarError("Error de conexión");
         }
     }
 
+    // === Caché versionada de lobby y ranking ===
+
+    /**
+     * Lobby cacheado. Sólo se consulta al servidor si un evento trajo otra versión (o si se pide
+     * verificar), y aun así con una llamada condicional que no trae nada si no cambió.
+     */
+    private EstadoLobby lobby(boolean verificar) throws RemoteException {
+        if (verificar || lobby == null || lobby.getVersion() != versionLobbyServidor) {
+            EstadoLobby nuevo = modelo.lobbySiCambio(lobby == null ? -1 : lobby.getVersion());
+            if (nuevo != null) lobby = nuevo;
+            versionLobbyServidor = lobby.getVersion();
+        }
+        return lobby;
+    }
+
+    /**
+     * Ranking cacheado, con la misma regla que {@link #lobby}. La tabla es compartida entre salas y
+     * los resultados de otras salas no llegan como eventos a ésta, así que un pedido explícito verifica.
+     */
+    private EstadoRanking ranking(boolean verificar) throws RemoteException {
+        if (verificar || ranking == null || ranking.getVersion() != versionRankingServidor) {
+            EstadoRanking nuevo = modelo.top5SiCambio(ranking == null ? -1 : ranking.getVersion());
+            if (nuevo != null) ranking = nuevo;
+            versionRankingServidor = ranking.getVersion();
+        }
+        return ranking;
+    }
+
     /** Atajo para setear nombre y unirse. */
     public void autoUnirConNombre(String nombre) {
         setNombreJugador(nombre);
         unirJugadorSiHaceFalta();
     }
 
+    /** Modo espectador: muestra la sala sin unirse. */
+    public void mirar() {
+        if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
+        vista.comenzarLote();
+        try {
+            syncJugadoresYControles();
+            refrescar();
+            vista.mostrarInfo("Mirando la partida como espectador.");
+        } finally {
+            vista.terminarLote();
+        }
+    }
+
+    /** En modo espectador las acciones que tocan la partida no llegan al servidor. */
+    private boolean soloMira() {
+        if (espectador) vista.mostrarError("Modo espectador: sólo se puede mirar la partida.");
+        return espectador;
+    }
+
     /** Se une si aún no se unió. */
     public void unirJugadorSiHaceFalta() {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
+        if (soloMira()) return;
         if (idJugador != null) { syncJugadoresYControles(); return; }
         if (nombreJugador == null || nombreJugador.isBlank()) {
             vista.mostrarError("Ingresá tu nombre.");
             return;
         }
+        vista.comenzarLote();
         try {
             idJugador = modelo.unirJugador(nombreJugador);
             vista.mostrarInfo("Te uniste como " + nombreJugador + " (id=" + idJugador + ")");
-            syncJugadoresYControles();
+            syncJugadoresYControles(true);
             refrescar();
         } catch (RemoteException e) {
             vista.mostrarError(e.getMessage());
+        } finally {
+            vista.terminarLote();
         }
     }
 
     // === Ranking ===
+    /** Pedido del usuario: consulta al servidor (condicional: no trae nada si no cambió). */
     public void mostrarRanking() {
+        mostrarRanking(true);
+    }
+
+    private void mostrarRanking(boolean verificar) {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
         try {
-            List<EntradaRanking> top = modelo.top5();
-            vista.mostrarRanking(top);
+            vista.mostrarRanking(ranking(verificar).getTop());
         } catch (RemoteException e) {
             vista.mostrarError("Error de conexión");
         }
     }
 
     // === Observer del modelo remoto ===
+
+    /**
+     * No procesa el evento en el momento: lo encola y programa, si no hay uno pendiente, un único
+     * lote en el EDT. Así una ráfaga de eventos (jugada + última ronda + puntajes + ranking)
+     * termina en un solo refresco por zona.
+     */
     @Override
     public void actualizar(IObservableRemoto o, Object arg) throws RemoteException {
-        if (!(arg instanceof Evento ev)) return;
-
-        Runnable r = () -> {
-            try {
-                switch (ev) {
-                    case JUGADOR_UNIDO       -> syncJugadoresYControles();
-                    case INICIO_PARTIDA      -> { syncJugadoresYControles(); refrescar(); }
-                    case CARTA_JUGADA        -> refrescar();
-                    case ULTIMA_RONDA        -> vista.mostrarInfo("¡Última ronda!");
-                    case PUNTAJES_FINALES    -> verPuntajes();        // <- NUEVO: mostrar cierre apenas llega
-                    case FIN_PARTIDA         -> { /* el modelo ya envió puntajes; nada extra acá */ }
-                    case RANKING_ACTUALIZADO -> mostrarRanking();
-                    case MENSAJE             -> { /* reservado para toasts/infos generales si querés */ }
+        if (!(arg instanceof EventoParade ev)) return;
+        entrantes.add(ev);
+        if (loteProgramado.compareAndSet(false, true)) SwingUtilities.invokeLater(this::procesarLote);
+    }
+
+    /**
+     * Recorre los eventos acumulados marcando zonas sucias (lobby, tablero, puntajes, ranking)
+     * y después refresca cada zona una sola vez. Las jugadas se siguen aplicando como delta sobre
+     * el snapshot local; si alguna no alcanza (hueco, robo propio) el tablero se pide completo y
+     * los deltas siguientes del lote se saltean porque el snapshot nuevo ya los incluye.
+     */
+    private void procesarLote() {
+        loteProgramado.set(false); // lo que llegue desde acá programa el próximo lote
+        boolean lobbySucio = false, tableroCompleto = false, puntajes = false, ranking = false, ultimaRonda = false;
+        SnapshotJugador tablero = ultimoSnapshot;
+        boolean tableroDelta = false;
+
+        EventoParade ev;
+        while ((ev = entrantes.poll()) != null) {
+            // Un salto en la secuencia indica eventos perdidos: el delta ya no alcanza. Un evento
+            // combinado cubre las secuencias de los que reemplazó, así que no cuenta como salto.
+            boolean hueco = ultimaSecuencia > 0 && ev.getSecuenciaDesde() > ultimaSecuencia + 1;
+            if (ev.getSecuencia() > ultimaSecuencia) {
+                ultimaSecuencia = ev.getSecuencia();
+                versionLobbyServidor = ev.getVersionLobby();     // la caché se invalida sola si avanzó
+                versionRankingServidor = ev.getVersionRanking();
+            }
+            switch (ev.getTipo()) {
+                case JUGADOR_UNIDO       -> lobbySucio = true;
+                case INICIO_PARTIDA      -> { lobbySucio = true; tableroCompleto = true; }
+                case CARTA_JUGADA        -> {
+                    if (tableroCompleto) break; // el snapshot completo que viene ya trae esta jugada
+                    if (!hueco && tablero != null && tablero.getVersion() >= ev.getVersion()) break; // ya incluido
+                    SnapshotJugador s = (hueco || tablero == null) ? null : tablero.aplicar(ev);
+                    if (s != null) { tablero = s; tableroDelta = true; }
+                    else tableroCompleto = true;
                 }
-            } catch (Throwable e) {
-                LOG.log(Level.SEVERE, "Fallo en actualizar()", e);
-                String msg = (e.getMessage() == null) ? e.getClass().getSimpleName() : e.getMessage();
-                try { vista.mostrarError("Fallo en actualizar: " + msg); } catch (Throwable ignore) {}
+                case ULTIMA_RONDA        -> ultimaRonda = true;
+                case PUNTAJES_FINALES    -> puntajes = true;   // mostrar cierre apenas llega
+                case FIN_PARTIDA         -> { /* el modelo ya envió puntajes; nada extra acá */ }
+                case RANKING_ACTUALIZADO -> ranking = true;
+                case MENSAJE             -> { /* reservado para toasts/infos generales si querés */ }
             }
-        };
+            if (hueco && ev.getTipo() != Evento.CARTA_JUGADA) tableroCompleto = true;
+        }
 
-        if (SwingUtilities.isEventDispatchThread()) r.run();
-        else SwingUtilities.invokeLater(r);
+        vista.comenzarLote();
+        try {
+            if (ultimaRonda) vista.mostrarInfo("¡Última ronda!");
+            if (lobbySucio) syncJugadoresYControles();
+            if (tableroCompleto) refrescar();
+            else if (tableroDelta) mostrarSnapshot(tablero);
+            if (puntajes) verPuntajes();
+            if (ranking) mostrarRanking(false); // el evento ya trajo la versión vigente
+        } catch (Throwable e) {
+            LOG.log(Level.SEVERE, "Fallo en actualizar()", e);
+            String msg = (e.getMessage() == null) ? e.getClass().getSimpleName() : e.getMessage();
+            try { vista.mostrarError("Fallo en actualizar: " + msg); } catch (Throwable ignore) {}
+        } finally {
+            vista.terminarLote();
+        }
     }
 
     public void iniciarPartida(int cartasMesa, int cartasPorJugador) {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
+        if (soloMira()) return;
+        vista.comenzarLote();
         try {
             modelo.iniciarPartida(cartasMesa, cartasPorJugador);
-            syncJugadoresYControles();
+            syncJugadoresYControles(true);
             refrescar();
         } catch (RemoteException e) {
             vista.mostrarError("Error de conexión");
+        } finally {
+            vista.terminarLote();
         }
     }
 
     public void jugarCarta(int indiceEnMano) {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
+        if (soloMira()) return;
         if (idJugador == null) { vista.mostrarError("Primero unite a la partida."); return; }
         try {
-            // Validación suave de índice (mejor UX)
-            List<Carta> mano = modelo.obtenerMano(idJugador);
+            // Validación suave de índice (mejor UX) contra el último snapshot recibido
+            List<Carta> mano = (ultimoSnapshot != null && ultimoSnapshot.getIdJugador() == idJugador)
+                    ? ultimoSnapshot.getMano() : modelo.obtenerMano(idJugador);
             if (indiceEnMano < 0 || indiceEnMano >= mano.size()) {
                 vista.mostrarError("Elegí una carta válida de tu mano.");
                 return;
@@ -138,26 +263,34 @@ public class ControladorParade implements IControladorRemoto {
     public void refrescar() {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
         try {
-            List<Carta> mano = (idJugador == null) ? List.of() : modelo.obtenerMano(idJugador);
-            vista.mostrarMano(mano);
-            vista.mostrarCarnaval(modelo.obtenerCarnaval());
-            vista.mostrarTurno(modelo.obtenerTurnoNombre());
+            mostrarSnapshot(modelo.obtenerSnapshot(idJugador == null ? -1 : idJugador));
+        } catch (RemoteException e) {
+            vista.mostrarError("Error de conexión");
+        }
+    }
 
-            if (idJugador != null) {
-                var propias = modelo.obtenerRecolectadas(idJugador);
-                vista.mostrarRecolectadasPropias(propias);
+    private void mostrarSnapshot(SnapshotJugador s) {
+        ultimoSnapshot = s;
+        vista.comenzarLote();
+        try {
+            vista.mostrarMano(s.getMano());
+            vista.mostrarCarnaval(s.getCarnaval());
+            vista.mostrarTurno(s.getTurnoNombre());
 
-                var nombres = modelo.nombresJugadores();
-                var pilas = modelo.obtenerRecolectadasTodos();
-                vista.mostrarRecolectadasOponentes(nombres, pilas);
+            if (idJugador != null) {
+                vista.mostrarRecolectadasPropias(s.getRecolectadasPropias());
+                vista.mostrarRecolectadasOponentes(s.getNombres(), s.getRecolectadasTodos());
+            } else if (espectador) {
+                vista.mostrarRecolectadasOponentes(s.getNombres(), s.getRecolectadasTodos());
             }
-        } catch (RemoteException e) {
-            vista.mostrarError("Error de conexión");
+        } finally {
+            vista.terminarLote();
         }
     }
 
     public void guardar(String archivo) {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
+        if (soloMira()) return;
         try {
             boolean ok = modelo.guardarPartida(archivo);
             vista.mostrarInfo(ok ? "Partida guardada." : "No se pudo guardar.");
@@ -168,6 +301,7 @@ public class ControladorParade implements IControladorRemoto {
 
     public void cargar(String archivo) {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
+        if (soloMira()) return;
         try {
             boolean ok = modelo.cargarPartida(archivo);
             vista.mostrarInfo(ok ? "Partida cargada." : "No se pudo cargar.");
@@ -180,7 +314,7 @@ public class ControladorParade implements IControladorRemoto {
         if (modelo == null) { vista.mostrarError("No conectado al servidor."); return; }
         try {
             var pts  = modelo.puntajesPorJugador();
-            var noms = modelo.nombresJugadores();
+            var noms = lobby(false).getNombres();
             vista.mostrarPuntajes(noms, pts);
         } catch (RemoteException e) {
             vista.mostrarError("Error de conexión");
@@ -193,7 +327,7 @@ public class ControladorParade implements IControladorRemoto {
     private void reidentificarId() {
         if (nombreJugador == null || modelo == null) return;
         try {
-            List<String> nombres = modelo.nombresJugadores();
+            List<String> nombres = lobby(true).getNombres();
             int idx = nombres.indexOf(nombreJugador);
             this.idJugador = (idx >= 0) ? idx : null; // si no está, queda null y la vista lo indicará
         } catch (RemoteException e) {
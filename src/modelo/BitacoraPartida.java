@@ -0,0 +1,398 @@
+package modelo;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Bitácora de escritura anticipada de una sala: cada {@code unirJugador}, {@code iniciarPartida}
+ * (con su semilla) y {@code jugarCarta} aceptado se anota como un registro de pocos bytes.
+ * <p>
+ * Anotar sólo copia el registro a un buffer en memoria; un hilo compartido vuelca los buffers de
+ * todas las salas cada {@value #INTERVALO_MS} ms con un único fsync por sala (group commit), así
+ * que una caída pierde a lo sumo esa ventana. Cada {@value #CHECKPOINT_CADA} registros la sala
+ * pide un checkpoint: el estado completo en {@link FormatoPartida} ({@code <sala>.chk}) y una
+ * bitácora nueva ({@code <sala>.wal}). Ambos llevan un número de generación, de modo que si el
+ * proceso cae entre escribir el checkpoint y reiniciar la bitácora, la bitácora vieja se ignora.
+ * <p>
+ * Al arrancar, {@link #recuperar} carga el checkpoint y reproduce la cola de la bitácora con
+ * {@link MotorPartida}; si no se puede, los archivos se apartan y la sala arranca vacía.
+ * <pre>
+ * .wal: int magia "PRWL" | long generación | registros
+ * registro: short largo | int crc32 | byte tipo | datos
+ *   UNIR: nombre UTF-8 · INICIAR: int mesa, int porJugador, long semilla · JUGAR: byte id, byte índice
+ * .chk: long generación | partida en FormatoPartida
+ * </pre>
+ */
+final class BitacoraPartida {
+    private static final Logger LOG = Logger.getLogger(BitacoraPartida.class.getName());
+
+    /** Directorio (relativo al de trabajo, como ranking.dat) donde se guardan las bitácoras. */
+    static final String DIRECTORIO = "partidas";
+    static final int CHECKPOINT_CADA = 64;
+    static final long INTERVALO_MS = 5;
+
+    private static final int MAGIA = 0x5052574C; // "PRWL"
+    private static final int CABECERA = 4 + 8;
+    private static final byte UNIR = 1, INICIAR = 2, JUGAR = 3;
+    private static final String EXT_LOG = ".wal", EXT_CHECKPOINT = ".chk";
+    static final String EXT_APARTADO = ".danado";
+
+    private static final Set<BitacoraPartida> ACTIVAS = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService VOLCADOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "bitacora-partidas");
+        t.setDaemon(true);
+        return t;
+    });
+    static {
+        VOLCADOR.scheduleWithFixedDelay(BitacoraPartida::volcarTodas, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private final Path log;
+    private final Path checkpoint;
+    private final CRC32 crc = new CRC32();
+
+    // ---- Estado en memoria (guardado por this; lo tocan los hilos RMI bajo el lock de la sala) ----
+    private ByteBuffer pendiente = ByteBuffer.allocate(1024);
+    private byte[] checkpointPendiente;
+    private long generacion;
+    private int registros;
+    private int inicioRegistro;
+    private boolean forzarCheckpoint;
+
+    // ---- Disco (guardado por "escritura"; lo usa el volcador) ----
+    private final Object escritura = new Object();
+    private FileChannel canal;
+    private boolean reiniciarLog = true; // el .wal en disco no corresponde a "generacion": reescribir cabecera
+
+    private BitacoraPartida(Path log, Path checkpoint) {
+        this.log = log;
+        this.checkpoint = checkpoint;
+    }
+
+    /** Bitácora de la sala {@code idSala} dentro de {@code dir}. No toca el disco hasta la primera escritura. */
+    static BitacoraPartida abrir(Path dir, String idSala) {
+        String base = URLEncoder.encode(idSala, StandardCharsets.UTF_8);
+        return new BitacoraPartida(dir.resolve(base + EXT_LOG), dir.resolve(base + EXT_CHECKPOINT));
+    }
+
+    /** Ids de las salas que tienen bitácora o checkpoint en {@code dir}. */
+    static List<String> salasGuardadas(Path dir) {
+        List<String> ids = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return ids;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*{" + EXT_LOG + "," + EXT_CHECKPOINT + "}")) {
+            for (Path p : ds) {
+                String f = p.getFileName().toString();
+                String id = URLDecoder.decode(f.substring(0, f.lastIndexOf('.')), StandardCharsets.UTF_8);
+                if (!ids.contains(id)) ids.add(id);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudo listar " + dir, e);
+        }
+        return ids;
+    }
+
+    // ---------------- Anotación (camino caliente) ----------------
+
+    synchronized void unir(String nombre) {
+        byte[] n = nombre.getBytes(StandardCharsets.UTF_8);
+        if (n.length > Jugador.MAX_NOMBRE) throw new IllegalArgumentException("nombre de jugador demasiado largo: " + n.length + " bytes");
+        ByteBuffer b = registro(UNIR, n.length);
+        b.put(n);
+        cerrarRegistro(b);
+    }
+
+    synchronized void iniciar(int cartasMesa, int cartasPorJugador, long semilla) {
+        ByteBuffer b = registro(INICIAR, 4 + 4 + 8);
+        b.putInt(cartasMesa).putInt(cartasPorJugador).putLong(semilla);
+        cerrarRegistro(b);
+    }
+
+    synchronized void jugar(int idJugador, int indiceEnMano) {
+        ByteBuffer b = registro(JUGAR, 2);
+        b.put((byte) idJugador).put((byte) indiceEnMano);
+        cerrarRegistro(b);
+    }
+
+    /** true cuando conviene tomar un checkpoint (bitácora larga o una escritura falló). */
+    synchronized boolean requiereCheckpoint() {
+        return registros >= CHECKPOINT_CADA || forzarCheckpoint;
+    }
+
+    /** Toma un checkpoint de {@code estado}: lo anotado hasta ahora queda cubierto y se descarta. */
+    synchronized void checkpoint(EstadoPartida estado) {
+        ByteBuffer e = FormatoPartida.codificar(estado);
+        byte[] bytes = new byte[8 + e.remaining()];
+        ByteBuffer.wrap(bytes).putLong(++generacion).put(e);
+        checkpointPendiente = bytes;
+        pendiente.clear();
+        registros = 0;
+        forzarCheckpoint = false;
+        ACTIVAS.add(this);
+    }
+
+    private ByteBuffer registro(byte tipo, int largoDatos) {
+        if (1 + largoDatos > 0xFFFF) throw new IllegalArgumentException("registro de bitácora demasiado largo");
+        int total = 2 + 4 + 1 + largoDatos;
+        if (pendiente.remaining() < total) {
+            ByteBuffer mayor = ByteBuffer.allocate(Math.max(pendiente.capacity() * 2, pendiente.position() + total));
+            pendiente.flip();
+            mayor.put(pendiente);
+            pendiente = mayor;
+        }
+        inicioRegistro = pendiente.position();
+        pendiente.putShort((short) (1 + largoDatos)).putInt(0).put(tipo);
+        return pendiente;
+    }
+
+    /** Completa el crc del registro abierto por {@link #registro} y lo deja listo para volcar. */
+    private void cerrarRegistro(ByteBuffer b) {
+        int datos = inicioRegistro + 6;
+        crc.reset();
+        crc.update(b.array(), datos, b.position() - datos);
+        b.putInt(inicioRegistro + 2, (int) crc.getValue());
+        registros++;
+        ACTIVAS.add(this);
+    }
+
+    // ---------------- Volcado (hilo de fondo) ----------------
+
+    /** Vuelca todas las bitácoras con datos pendientes. También se usa al apagar el servidor. */
+    static void volcarTodas() {
+        for (BitacoraPartida b : ACTIVAS) b.volcar();
+    }
+
+    void volcar() {
+        synchronized (escritura) {
+            byte[] chk;
+            long gen;
+            ByteBuffer datos;
+            synchronized (this) {
+                chk = checkpointPendiente;
+                checkpointPendiente = null;
+                gen = generacion;
+                if (pendiente.position() == 0 && chk == null) {
+                    ACTIVAS.remove(this);
+                    return;
+                }
+                pendiente.flip();
+                datos = ByteBuffer.allocate(pendiente.remaining()).put(pendiente).flip();
+                pendiente.clear();
+            }
+            try {
+                Files.createDirectories(log.getParent());
+                if (chk != null) {
+                    escribirCheckpoint(chk);
+                    reiniciarLog = true;
+                }
+                if (canal == null) {
+                    canal = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                if (reiniciarLog) {
+                    canal.truncate(0);
+                    canal.write(ByteBuffer.allocate(CABECERA).putInt(MAGIA).putLong(gen).flip(), 0);
+                    canal.position(CABECERA);
+                    reiniciarLog = false;
+                }
+                while (datos.hasRemaining()) canal.write(datos);
+                canal.force(false);
+            } catch (IOException e) {
+                LOG.log(Level.SEVERE, "No se pudo escribir la bitácora " + log + "; se pide checkpoint", e);
+                synchronized (this) { forzarCheckpoint = true; }
+                reiniciarLog = true;
+            }
+        }
+    }
+
+    private void escribirCheckpoint(byte[] chk) throws IOException {
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer b = ByteBuffer.wrap(chk);
+            while (b.hasRemaining()) ch.write(b);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ---------------- Recuperación ----------------
+
+    /**
+     * Reconstruye la sala: carga el último checkpoint y reproduce la cola de la bitácora con un
+     * {@link MotorPartida} propio, sobre un estado aparte; {@code destino} se reemplaza sólo si todo
+     * se pudo reproducir. Una cola corrupta (crc o largo) se registra y se descarta.
+     * <p>
+     * Si el checkpoint no se puede leer o un registro íntegro no se puede aplicar, bitácora y
+     * checkpoint se apartan (ver {@link #apartar}) para que el próximo arranque no falle igual,
+     * {@code destino} queda sin tocar y se lanza {@link IOException}.
+     * @return true si había algo que recuperar
+     */
+    boolean recuperar(EstadoPartida destino) throws IOException {
+        long gen = 0;
+        boolean hay = false;
+        int reproducidos = 0;
+        EstadoPartida recuperado;
+        try {
+            if (Files.exists(checkpoint)) {
+                ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+                gen = b.getLong();
+                recuperado = FormatoPartida.decodificar(b);
+                hay = true;
+            } else {
+                recuperado = new EstadoPartida();
+            }
+            if (Files.exists(log)) {
+                int n = reproducirCola(gen, recuperado);
+                if (n >= 0) {
+                    reproducidos = n;
+                    hay = true;
+                }
+            }
+        } catch (IOException | RuntimeException e) { // BufferUnderflow, IllegalState/IllegalArgument del motor
+            apartar();
+            throw new IOException("No se pudo reproducir la bitácora " + log, e);
+        }
+        if (!hay) return false;
+
+        destino.reset();
+        destino.getJugadores().addAll(recuperado.getJugadores());
+        destino.getMazo().addAll(recuperado.getMazo());
+        destino.getCarnaval().addAll(recuperado.getCarnaval());
+        destino.setTurnoActual(recuperado.getTurnoActual());
+        destino.setUltimaRonda(recuperado.isUltimaRonda());
+        destino.setIniciada(recuperado.isIniciada());
+        synchronized (this) {
+            generacion = gen;
+            registros = reproducidos;
+            checkpoint(destino); // lo reproducido queda cubierto por un checkpoint nuevo: la bitácora arranca limpia
+        }
+        final int n = reproducidos;
+        LOG.info(() -> "Sala recuperada desde " + checkpoint.getParent() + ": " + n + " registros reproducidos");
+        return true;
+    }
+
+    /**
+     * Reproduce sobre {@code estado} los registros íntegros de la bitácora si es de la generación
+     * {@code gen}. @return registros reproducidos, o -1 si la bitácora es de otra generación
+     */
+    private int reproducirCola(long gen, EstadoPartida estado) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(log));
+        if (b.remaining() < CABECERA || b.getInt() != MAGIA || b.getLong() != gen) {
+            LOG.info(() -> "Bitácora " + log + " anterior al último checkpoint: se ignora");
+            return -1;
+        }
+        MotorPartida motor = new MotorPartida(estado);
+        int valido = b.position(), reproducidos = 0;
+        while (b.remaining() >= 6) {
+            int largo = Short.toUnsignedInt(b.getShort());
+            int esperado = b.getInt();
+            if (largo < 1 || b.remaining() < largo) break;
+            crc.reset();
+            crc.update(b.array(), b.position(), largo);
+            if ((int) crc.getValue() != esperado) break;
+            reproducir(b.slice(b.position(), largo), estado, motor);
+            b.position(b.position() + largo);
+            valido = b.position();
+            reproducidos++;
+        }
+        if (valido < b.limit()) {
+            final int v = valido, total = b.limit();
+            LOG.warning(() -> "Bitácora " + log + " con cola corrupta: se descartan " + (total - v) + " bytes");
+        }
+        return reproducidos;
+    }
+
+    /** Renombra bitácora y checkpoint a {@code .danado} (fuera de {@link #salasGuardadas}) para revisarlos a mano. */
+    private void apartar() {
+        for (Path p : List.of(log, checkpoint)) {
+            try {
+                if (Files.exists(p)) {
+                    Path destino = p.resolveSibling(p.getFileName() + EXT_APARTADO);
+                    Files.move(p, destino, StandardCopyOption.REPLACE_EXISTING);
+                    LOG.warning(() -> "Bitácora ilegible apartada en " + destino);
+                }
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "No se pudo apartar " + p, e);
+            }
+        }
+    }
+
+    private static void reproducir(ByteBuffer r, EstadoPartida estado, MotorPartida motor) throws IOException {
+        byte tipo = r.get();
+        switch (tipo) {
+            case UNIR -> {
+                byte[] n = new byte[r.remaining()];
+                r.get(n);
+                estado.getJugadores().add(new Jugador(estado.getJugadores().size(), new String(n, StandardCharsets.UTF_8)));
+            }
+            case INICIAR -> {
+                int mesa = r.getInt(), porJugador = r.getInt();
+                motor.iniciar(mesa, porJugador, new Random(r.getLong()));
+            }
+            case JUGAR -> {
+                int id = r.get(), idx = r.get();
+                if (motor.jugar(id, idx) == MotorPartida.INVALIDA) {
+                    throw new IOException("jugada inválida al reproducir la bitácora: " + id + "/" + idx);
+                }
+            }
+            default -> throw new IOException("registro de bitácora desconocido: " + tipo);
+        }
+    }
+
+    // ---------------- Cierre ----------------
+
+    /** Vuelca lo pendiente y cierra el archivo. */
+    void cerrar() {
+        volcar();
+        ACTIVAS.remove(this);
+        synchronized (escritura) {
+            if (canal == null) return;
+            try {
+                canal.close();
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "cerrando bitácora", e);
+            }
+            canal = null;
+            reiniciarLog = true;
+        }
+    }
+
+    /** Cierra y borra bitácora y checkpoint (la sala se descarta). */
+    void borrar() {
+        synchronized (this) {
+            pendiente.clear();
+            checkpointPendiente = null;
+        }
+        cerrar();
+        try {
+            Files.deleteIfExists(log);
+            Files.deleteIfExists(checkpoint);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudo borrar la bitácora " + log, e);
+        }
+    }
+}
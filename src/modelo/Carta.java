@@ -2,30 +2,69 @@ package modelo;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Objects;
+import java.util.List;
 
 /**
  * Valor inmutable del juego: color + valor (0..10).
- * Importante: implementa equals/hashCode para funcionar bien con
- * List#contains, List#removeAll y comparaciones por conjuntos en el Modelo.
+ * Las 66 cartas son únicas: hay una sola instancia canónica por carta (flyweight),
+ * que se obtiene con {@link #de(ColorCarta, int)} o {@link #deOrdinal(int)}.
+ * Cada carta tiene un {@link #ordinal()} en 0..65 que usan los conjuntos de bits
+ * ({@link ConjuntoCartas}) de manos y recogidas.
  */
 public final class Carta implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /** Valores por color (0..10). */
+    public static final int VALORES = 11;
+    /** Cantidad total de cartas del mazo (6 colores × 11 valores). */
+    public static final int TOTAL = ColorCarta.values().length * VALORES;
+
+    private static final Carta[] TABLA = new Carta[TOTAL];
+    private static final List<Carta> TODAS;
+    static {
+        for (ColorCarta c : ColorCarta.values()) {
+            for (int v = 0; v < VALORES; v++) {
+                TABLA[c.ordinal() * VALORES + v] = new Carta(c, v);
+            }
+        }
+        TODAS = List.of(TABLA);
+    }
+
     private final ColorCarta color;
     private final int valor; // 0..10
 
-    public Carta(ColorCarta color, int valor) {
-        if (color == null) throw new IllegalArgumentException("color no puede ser null");
-        if (valor < 0 || valor > 10) throw new IllegalArgumentException("valor fuera de rango (0..10)");
+    private Carta(ColorCarta color, int valor) {
         this.color = color;
         this.valor = valor;
     }
 
+    /** Instancia canónica de la carta. */
+    public static Carta de(ColorCarta color, int valor) {
+        if (color == null) throw new IllegalArgumentException("color no puede ser null");
+        if (valor < 0 || valor > 10) throw new IllegalArgumentException("valor fuera de rango (0..10)");
+        return TABLA[color.ordinal() * VALORES + valor];
+    }
+
+    /** Instancia canónica a partir del ordinal (0..65). */
+    public static Carta deOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= TOTAL) throw new IllegalArgumentException("ordinal fuera de rango (0..65)");
+        return TABLA[ordinal];
+    }
+
+    /** Las 66 cartas en orden de ordinal (lista inmutable). */
+    public static List<Carta> todas() { return TODAS; }
+
     public ColorCarta getColor() { return color; }
     public int getValor() { return valor; }
 
+    /** Posición de la carta en la tabla canónica: {@code color.ordinal() * 11 + valor}. */
+    public int ordinal() { return color.ordinal() * VALORES + valor; }
+
+    /** Al deserializar se vuelve a la instancia canónica (mantiene la identidad por carta). */
+    @Serial
+    private Object readResolve() { return de(color, valor); }
+
     @Override
     public String toString() { return color + "(" + valor + ")"; }
 
@@ -38,9 +77,6 @@ public final class Carta implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(color, valor);
+        return ordinal();
     }
 }
-
-
-
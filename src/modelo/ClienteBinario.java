@@ -0,0 +1,318 @@
+package modelo;
+
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.rmi.ConnectException;
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static modelo.ProtocoloParade.*;
+
+/**
+ * {@link IParade} del lado cliente sobre {@link ProtocoloParade}: se usa igual que el stub RMI de una
+ * sala (mismo contrato, mismas excepciones) pero no exporta nada; los eventos vuelven por el mismo
+ * socket. Varios hilos pueden llamar a la vez: cada pedido lleva un id y un hilo lector reparte las
+ * respuestas. Los observadores se notifican en orden desde un hilo propio, así que pueden volver a
+ * llamar al modelo desde {@code actualizar} sin trabar al lector.
+ * <p>
+ * Con {@link #espectar} la conexión sólo mira: el servidor rechaza unirse, jugar, ver manos o tocar
+ * la partida, y los snapshots llegan como para quien no está unido.
+ */
+public final class ClienteBinario implements IParade {
+    private static final Logger LOG = Logger.getLogger(ClienteBinario.class.getName());
+    private static final Consumer<ByteBuffer> SIN_ARGUMENTOS = b -> { };
+
+    private final SocketChannel socket;
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<ByteBuffer>> pendientes = new ConcurrentHashMap<>();
+    private final List<IObservadorRemoto> observadores = new CopyOnWriteArrayList<>();
+    private final ExecutorService notificador =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("binario-eventos").factory());
+    private volatile boolean cerrado;
+
+    private ClienteBinario(SocketChannel socket) {
+        this.socket = socket;
+    }
+
+    /**
+     * Se conecta al {@link ServidorBinario} y se ata a la sala (creándola si no existe).
+     * @throws RemoteException si no hay servidor o rechaza el saludo
+     */
+    public static ClienteBinario conectar(String host, int puerto, String idSala) throws RemoteException {
+        SocketChannel s;
+        try {
+            s = SocketChannel.open(new InetSocketAddress(host, puerto));
+            s.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            throw new ConnectException("No se pudo conectar a " + host + ":" + puerto, e);
+        }
+        ClienteBinario c = new ClienteBinario(s);
+        Thread.ofVirtual().name("binario-lector").start(c::leer);
+        try {
+            c.pedir(OP_HOLA, b -> {
+                b.putInt(MAGIA).putShort(VERSION);
+                ponerTexto(b, idSala);
+            });
+        } catch (RemoteException | RuntimeException e) {
+            c.cerrar();
+            throw e;
+        }
+        return c;
+    }
+
+    /**
+     * Como {@link #conectar} pero de sólo lectura: para mirar una sala sin unirse. Los eventos llegan
+     * por la transmisión de la sala, compartida con los demás espectadores.
+     */
+    public static ClienteBinario espectar(String host, int puerto, String idSala) throws RemoteException {
+        ClienteBinario c = conectar(host, puerto, idSala);
+        try {
+            c.pedir(OP_ESPECTAR, SIN_ARGUMENTOS);
+        } catch (RemoteException | RuntimeException e) {
+            c.cerrar();
+            throw e;
+        }
+        return c;
+    }
+
+    /** Corta la conexión; las llamadas en curso fallan con {@link RemoteException}. */
+    public void cerrar() {
+        cerrado = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Cerrando la conexión binaria", e);
+        }
+        notificador.shutdown();
+    }
+
+    // ---------------- Pedidos ----------------
+
+    /** Envía el pedido y espera su respuesta; deja el buffer después del estado OK. */
+    private ByteBuffer pedir(byte op, Consumer<ByteBuffer> argumentos) throws RemoteException {
+        if (cerrado) throw new ConnectException("Conexión cerrada");
+        int id = ids.incrementAndGet();
+        CompletableFuture<ByteBuffer> f = new CompletableFuture<>();
+        pendientes.put(id, f);
+        ByteBuffer salida = tomar();
+        escritura.lock();
+        try {
+            comenzar(salida, op).putInt(id);
+            argumentos.accept(salida);
+            enviar(socket, salida);
+        } catch (IOException e) {
+            pendientes.remove(id);
+            throw new ConnectException("Conexión cerrada", e);
+        } finally {
+            escritura.unlock();
+            devolver(salida);
+        }
+        ByteBuffer r;
+        try {
+            r = f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendientes.remove(id);
+            throw new RemoteException("Interrumpido esperando al servidor", e);
+        } catch (ExecutionException e) {
+            throw new ConnectException("Conexión cerrada", (Exception) e.getCause());
+        }
+        verificar(r);
+        return r;
+    }
+
+    /** Hilo lector: reparte respuestas y encola eventos hasta que se corta la conexión. */
+    private void leer() {
+        ByteBuffer cabecera = ByteBuffer.allocate(4);
+        IOException error = null;
+        try {
+            ByteBuffer in;
+            while ((in = recibir(socket, cabecera)) != null) {
+                try {
+                    byte tipo = in.get();
+                    if (tipo == RESPUESTA) {
+                        CompletableFuture<ByteBuffer> f = pendientes.remove(in.getInt());
+                        if (f != null) f.complete(ByteBuffer.wrap(copiarResto(in)));
+                    } else if (tipo == EVENTO) {
+                        EventoParade ev = leerEvento(in);
+                        notificador.execute(() -> notificar(ev));
+                    }
+                } finally {
+                    devolver(in);
+                }
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new IOException("Trama del servidor mal formada", e);
+        } finally {
+            if (!cerrado && error != null) LOG.log(Level.WARNING, "Se cortó la conexión binaria", error);
+            cerrar();
+            IOException causa = error != null ? error : new IOException("El servidor cerró la conexión");
+            for (CompletableFuture<ByteBuffer> f : pendientes.values()) f.completeExceptionally(causa);
+            pendientes.clear();
+        }
+    }
+
+    private static byte[] copiarResto(ByteBuffer in) {
+        byte[] b = new byte[in.remaining()];
+        in.get(b);
+        return b;
+    }
+
+    private void notificar(Object ev) {
+        for (IObservadorRemoto o : observadores) {
+            try {
+                o.actualizar(this, ev);
+            } catch (RemoteException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Fallo notificando a un observador local", e);
+            }
+        }
+    }
+
+    // ---------------- Observadores ----------------
+
+    /** El primer observador suscribe la conexión a los eventos de la sala. */
+    @Override
+    public void agregarObservador(IObservadorRemoto o) throws RemoteException {
+        if (observadores.contains(o)) return;
+        observadores.add(o);
+        if (observadores.size() == 1) pedir(OP_SUSCRIBIR, SIN_ARGUMENTOS);
+    }
+
+    @Override
+    public void removerObservador(IObservadorRemoto o) throws RemoteException {
+        if (observadores.remove(o) && observadores.isEmpty()) pedir(OP_DESUSCRIBIR, SIN_ARGUMENTOS);
+    }
+
+    /** Sólo a los observadores de este cliente (el servidor es quien emite a la sala). */
+    @Override
+    public void notificarObservadores(Object arg) {
+        if (!cerrado) notificador.execute(() -> notificar(arg));
+    }
+
+    @Override
+    public void notificarObservadores() {
+        notificarObservadores(null);
+    }
+
+    // ---------------- IParade ----------------
+
+    @Override
+    public int unirJugador(String nombre) throws RemoteException {
+        return pedir(OP_UNIR, b -> ponerTexto(b, nombre)).getInt();
+    }
+
+    @Override
+    public void iniciarPartida(int cartasInicialMesa, int cartasPorJugador) throws RemoteException {
+        pedir(OP_INICIAR, b -> b.putInt(cartasInicialMesa).putInt(cartasPorJugador));
+    }
+
+    @Override
+    public boolean partidaIniciada() throws RemoteException {
+        return leerBooleano(pedir(OP_PARTIDA_INICIADA, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public void jugarCarta(int idJugador, int indiceEnMano) throws RemoteException {
+        pedir(OP_JUGAR, b -> b.putInt(idJugador).putInt(indiceEnMano));
+    }
+
+    @Override
+    public List<Carta> obtenerMano(int idJugador) throws RemoteException {
+        return leerCartas(pedir(OP_MANO, b -> b.putInt(idJugador)));
+    }
+
+    @Override
+    public List<Carta> obtenerCarnaval() throws RemoteException {
+        return leerCartas(pedir(OP_CARNAVAL, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public List<Carta> obtenerRecolectadas(int idJugador) throws RemoteException {
+        return leerCartas(pedir(OP_RECOLECTADAS, b -> b.putInt(idJugador)));
+    }
+
+    @Override
+    public List<List<Carta>> obtenerRecolectadasTodos() throws RemoteException {
+        return leerPilas(pedir(OP_RECOLECTADAS_TODOS, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public String obtenerTurnoNombre() throws RemoteException {
+        return leerTexto(pedir(OP_TURNO_NOMBRE, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public boolean esUltimaRonda() throws RemoteException {
+        return leerBooleano(pedir(OP_ULTIMA_RONDA, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public boolean esFinDePartida() throws RemoteException {
+        return leerBooleano(pedir(OP_FIN_DE_PARTIDA, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public SnapshotJugador obtenerSnapshot(int idJugador) throws RemoteException {
+        return leerSnapshot(pedir(OP_SNAPSHOT, b -> b.putInt(idJugador)));
+    }
+
+    @Override
+    public List<Integer> puntajesPorJugador() throws RemoteException {
+        return leerEnteros(pedir(OP_PUNTAJES, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public List<String> nombresJugadores() throws RemoteException {
+        return leerTextos(pedir(OP_NOMBRES, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public EstadoLobby lobbySiCambio(long version) throws RemoteException {
+        return leerLobby(pedir(OP_LOBBY_SI_CAMBIO, b -> b.putLong(version)));
+    }
+
+    @Override
+    public boolean guardarPartida(String archivo) throws RemoteException {
+        return leerBooleano(pedir(OP_GUARDAR, b -> ponerTexto(b, archivo)));
+    }
+
+    @Override
+    public boolean cargarPartida(String archivo) throws RemoteException {
+        return leerBooleano(pedir(OP_CARGAR, b -> ponerTexto(b, archivo)));
+    }
+
+    @Override
+    public void registrarResultadoEnRanking() throws RemoteException {
+        pedir(OP_REGISTRAR_RANKING, SIN_ARGUMENTOS);
+    }
+
+    @Override
+    public List<EntradaRanking> top5() throws RemoteException {
+        return leerEntradas(pedir(OP_TOP5, SIN_ARGUMENTOS));
+    }
+
+    @Override
+    public EstadoRanking top5SiCambio(long version) throws RemoteException {
+        return leerRanking(pedir(OP_TOP5_SI_CAMBIO, b -> b.putLong(version)));
+    }
+}
@@ -0,0 +1,141 @@
+package modelo;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Único escritor de una sala. Los hilos de RMI encolan comandos y esperan su resultado; un hilo
+ * virtual por sala los ejecuta de a uno, así el estado mutable de la partida sólo lo toca ese hilo.
+ * <p>
+ * Los comandos que llegan juntos se ejecutan en lote y al final del lote se llama a
+ * {@code alPublicar} (en el escritor, antes de responder): cuando una llamada de escritura vuelve,
+ * el estado publicado ya la incluye.
+ * <p>
+ * Un comando puede ejecutar otro: si la llamada viene del propio escritor, corre en línea.
+ */
+final class ColaComandos {
+    private static final Logger LOG = Logger.getLogger(ColaComandos.class.getName());
+
+    /** Tope de comandos por lote (acota cuánto espera el primero del lote). */
+    private static final int MAX_LOTE = 64;
+
+    @FunctionalInterface
+    interface Comando<T> {
+        T ejecutar() throws RemoteException;
+    }
+
+    /** Resultado en espera: se ejecuta dentro del lote y se completa después de publicar. */
+    private static final class Pedido<T> extends CompletableFuture<T> {
+        private final Comando<T> comando;
+        private T resultado;
+        private Throwable error;
+
+        Pedido(Comando<T> comando) { this.comando = comando; }
+
+        void correr() {
+            try {
+                resultado = comando.ejecutar();
+            } catch (Throwable t) {
+                error = t;
+            }
+        }
+
+        void responder() {
+            if (error != null) completeExceptionally(error);
+            else complete(resultado);
+        }
+    }
+
+    private static final Pedido<Void> FIN = new Pedido<>(() -> null);
+
+    private final String nombre;
+    private final Runnable alPublicar;
+    private final LinkedBlockingQueue<Pedido<?>> cola = new LinkedBlockingQueue<>();
+    private volatile Thread hilo;
+    private boolean cerrada;          // guardado por this, junto con el encolado (FIN es siempre el último)
+
+    /**
+     * @param nombre     para el nombre del hilo ("sala-" + nombre)
+     * @param alPublicar corre en el escritor al final de cada lote, antes de responder a los llamadores
+     */
+    ColaComandos(String nombre, Runnable alPublicar) {
+        this.nombre = nombre;
+        this.alPublicar = alPublicar;
+    }
+
+    /** @return true si el hilo actual es el escritor de esta sala. */
+    boolean enEscritor() { return Thread.currentThread() == hilo; }
+
+    /**
+     * Ejecuta el comando en el escritor y espera su resultado.
+     * Las excepciones del comando se relanzan tal cual en el hilo que llamó.
+     */
+    <T> T ejecutar(Comando<T> c) throws RemoteException {
+        if (enEscritor()) return c.ejecutar();
+        Pedido<T> p = new Pedido<>(c);
+        encolar(p);
+        try {
+            return p.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrumpido esperando a la sala.", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RemoteException re) throw re;
+            if (causa instanceof RuntimeException re) throw re;
+            if (causa instanceof Error err) throw err;
+            throw new RemoteException("Error en la sala.", causa);
+        }
+    }
+
+    /**
+     * Encola si la sala sigue abierta. Revisar y encolar bajo el mismo lock que {@link #cerrar()}
+     * asegura que nada queda detrás de FIN sin respuesta.
+     */
+    private synchronized void encolar(Pedido<?> p) throws RemoteException {
+        if (cerrada) throw new RemoteException("La sala está cerrada.");
+        if (hilo == null) {
+            hilo = Thread.ofVirtual().name("sala-" + nombre).unstarted(this::bucle);
+            hilo.start();
+        }
+        cola.add(p);
+    }
+
+    private void bucle() {
+        List<Pedido<?>> lote = new ArrayList<>();
+        try {
+            while (true) {
+                lote.add(cola.take());
+                cola.drainTo(lote, MAX_LOTE - 1);
+                boolean fin = false;
+                for (Pedido<?> p : lote) {
+                    if (p == FIN) fin = true;
+                    else p.correr();
+                }
+                try {
+                    alPublicar.run();
+                } catch (RuntimeException e) {
+                    LOG.log(Level.SEVERE, "Fallo publicando el estado de la sala " + nombre, e);
+                }
+                for (Pedido<?> p : lote) p.responder();
+                lote.clear();
+                if (fin) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Deja de aceptar comandos; los ya encolados se ejecutan. */
+    synchronized void cerrar() {
+        if (cerrada) return;
+        cerrada = true;
+        if (hilo != null) cola.add(FIN);
+    }
+}
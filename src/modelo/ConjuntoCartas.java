@@ -0,0 +1,132 @@
+package modelo;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Conjunto de cartas como bitset de 66 bits (par de {@code long}, indexado por {@link Carta#ordinal()}).
+ * Lo usan las manos y las pilas de recogidas: alta/baja/pertenencia son operaciones de bits
+ * y los conteos por color salen de un {@code bitCount} con máscara.
+ * El orden de iteración (y de los índices de {@link #obtener(int)}) es el del ordinal:
+ * por color y, dentro del color, por valor.
+ */
+public final class ConjuntoCartas implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Máscaras por color: bits [c*11, c*11+10] repartidos entre la palabra baja (0..63) y la alta (64..65).
+    private static final long[] MASCARA_BAJA = new long[ColorCarta.values().length];
+    private static final long[] MASCARA_ALTA = new long[ColorCarta.values().length];
+    static {
+        for (ColorCarta c : ColorCarta.values()) {
+            for (int v = 0; v < Carta.VALORES; v++) {
+                int o = c.ordinal() * Carta.VALORES + v;
+                if (o < 64) MASCARA_BAJA[c.ordinal()] |= 1L << o;
+                else MASCARA_ALTA[c.ordinal()] |= 1L << (o - 64);
+            }
+        }
+    }
+
+    private long baja; // ordinales 0..63
+    private long alta; // ordinales 64..65
+
+    public ConjuntoCartas() { }
+
+    public ConjuntoCartas(Collection<Carta> cartas) {
+        for (Carta c : cartas) agregar(c);
+    }
+
+    // --- Alta / baja / consulta ---
+
+    /** @return true si la carta no estaba en el conjunto. */
+    public boolean agregar(Carta c) {
+        int o = c.ordinal();
+        if (o < 64) { long antes = baja; baja |= 1L << o; return antes != baja; }
+        long antes = alta; alta |= 1L << (o - 64); return antes != alta;
+    }
+
+    public void agregarTodas(ConjuntoCartas otras) {
+        baja |= otras.baja;
+        alta |= otras.alta;
+    }
+
+    public void agregarTodas(Collection<Carta> cartas) {
+        for (Carta c : cartas) agregar(c);
+    }
+
+    /** @return true si la carta estaba en el conjunto. */
+    public boolean quitar(Carta c) {
+        int o = c.ordinal();
+        if (o < 64) { long antes = baja; baja &= ~(1L << o); return antes != baja; }
+        long antes = alta; alta &= ~(1L << (o - 64)); return antes != alta;
+    }
+
+    public boolean contiene(Carta c) {
+        int o = c.ordinal();
+        return o < 64 ? (baja & (1L << o)) != 0 : (alta & (1L << (o - 64))) != 0;
+    }
+
+    public int tamano() { return Long.bitCount(baja) + Long.bitCount(alta); }
+    public boolean estaVacio() { return (baja | alta) == 0; }
+    public void limpiar() { baja = 0; alta = 0; }
+
+    /** Carta en la posición {@code indice} según el orden de ordinal. */
+    public Carta obtener(int indice) {
+        if (indice < 0) throw new IndexOutOfBoundsException(indice);
+        int enBaja = Long.bitCount(baja);
+        if (indice < enBaja) return Carta.deOrdinal(enesimoBit(baja, indice));
+        if (indice - enBaja < Long.bitCount(alta)) return Carta.deOrdinal(64 + enesimoBit(alta, indice - enBaja));
+        throw new IndexOutOfBoundsException(indice);
+    }
+
+    // --- Consultas de puntaje ---
+
+    public int cantidadColor(ColorCarta c) {
+        return Long.bitCount(baja & MASCARA_BAJA[c.ordinal()]) + Long.bitCount(alta & MASCARA_ALTA[c.ordinal()]);
+    }
+
+    /** @return true si hay al menos una carta de cada uno de los seis colores. */
+    public boolean tieneTodosLosColores() {
+        for (int c = 0; c < MASCARA_BAJA.length; c++) {
+            if ((baja & MASCARA_BAJA[c]) == 0 && (alta & MASCARA_ALTA[c]) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Suma de los valores de todas las cartas del conjunto. */
+    public int sumaValores() {
+        int suma = 0;
+        for (long b = baja; b != 0; b &= b - 1) suma += Long.numberOfTrailingZeros(b) % Carta.VALORES;
+        for (long b = alta; b != 0; b &= b - 1) suma += (64 + Long.numberOfTrailingZeros(b)) % Carta.VALORES;
+        return suma;
+    }
+
+    /** Copia inmutable en orden de ordinal. */
+    public List<Carta> aLista() {
+        List<Carta> res = new ArrayList<>(tamano());
+        for (long b = baja; b != 0; b &= b - 1) res.add(Carta.deOrdinal(Long.numberOfTrailingZeros(b)));
+        for (long b = alta; b != 0; b &= b - 1) res.add(Carta.deOrdinal(64 + Long.numberOfTrailingZeros(b)));
+        return List.copyOf(res);
+    }
+
+    private static int enesimoBit(long bits, int n) {
+        for (int i = 0; i < n; i++) bits &= bits - 1;
+        return Long.numberOfTrailingZeros(bits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConjuntoCartas c)) return false;
+        return baja == c.baja && alta == c.alta;
+    }
+
+    @Override
+    public int hashCode() { return Long.hashCode(baja) * 31 + Long.hashCode(alta); }
+
+    @Override
+    public String toString() { return aLista().toString(); }
+}
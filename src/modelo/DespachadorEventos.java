@@ -0,0 +1,237 @@
+package modelo;
+
+import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+
+import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reparto de eventos a los observadores de una sala sin bloquear al que los emite.
+ * <p>
+ * Cada observador tiene su propia cola acotada y su propio hilo (virtual) que le envía los eventos
+ * en orden. {@link #publicar} sólo encola, así que la latencia de una jugada no depende del cliente
+ * más lento. En la cola:
+ * <ul>
+ *   <li>un evento sin delta (ver {@link EventoParade#llevaDelta()}) reemplaza al último pendiente si
+ *       es del mismo tipo, y hereda el rango de secuencias que éste cubría
+ *       ({@link EventoParade#getSecuenciaDesde()}): el cliente reacciona igual a uno que a varios y no
+ *       ve un salto;</li>
+ *   <li>si la cola se llena se descarta lo pendiente y queda sólo el último evento; el cliente ve el
+ *       salto de secuencia y se resincroniza con un snapshot.</li>
+ * </ul>
+ * Cada envío tiene un timeout ({@value #TIMEOUT_MS} ms): si se vence, se interrumpe el hilo (lo que
+ * corta el socket) y cuenta como fallo. Un observador con {@value #MAX_FALLOS} fallos seguidos se quita.
+ * <p>
+ * {@code notificarObservadores()} sin argumento publica {@code null}; en la cola viaja como
+ * {@link #SIN_ARGUMENTO} y al observador le llega {@code null}, como con {@code ObservableRemoto}.
+ */
+final class DespachadorEventos {
+    private static final Logger LOG = Logger.getLogger(DespachadorEventos.class.getName());
+
+    static final int CAPACIDAD = 64;
+    static final long TIMEOUT_MS = 3_000;
+    static final int MAX_FALLOS = 3;
+
+    /** Envíos en curso de todas las salas, revisados por el vigía de timeouts. */
+    private static final Set<Canal> ENVIANDO = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService VIGIA = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "vigia-observadores");
+        t.setDaemon(true);
+        return t;
+    });
+    static {
+        VIGIA.scheduleWithFixedDelay(DespachadorEventos::revisarTimeouts, 100, 100, TimeUnit.MILLISECONDS);
+    }
+
+    /** Lugar de {@code null} en las colas (un {@link ArrayDeque} no acepta null). */
+    private static final Object SIN_ARGUMENTO = new Object();
+    /** Lo que devuelve {@link Canal#siguiente()} cuando el canal se cerró. */
+    private static final Object CERRADO = new Object();
+
+    private final IObservableRemoto origen;
+    private final List<Canal> canales = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong combinados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong expulsados = new AtomicLong();
+
+    DespachadorEventos(IObservableRemoto origen) {
+        this.origen = origen;
+    }
+
+    /**
+     * Suma un observador con su canal; si ya estaba no hace nada. Es {@code synchronized} para que
+     * dos altas del mismo observador no pasen juntas la búsqueda y lo registren dos veces.
+     */
+    synchronized void agregar(IObservadorRemoto o) {
+        for (Canal c : canales) if (c.observador.equals(o)) return;
+        Canal c = new Canal(o);
+        canales.add(c);
+        c.hilo = Thread.ofVirtual().name("observador-" + Integer.toHexString(System.identityHashCode(o))).start(c);
+    }
+
+    void quitar(IObservadorRemoto o) {
+        for (Canal c : canales) {
+            if (c.observador.equals(o)) cerrar(c);
+        }
+    }
+
+    /** Encola el evento para todos los observadores; no bloquea. {@code null} se entrega como null. */
+    void publicar(Object evento) {
+        Object ev = evento == null ? SIN_ARGUMENTO : evento;
+        for (Canal c : canales) c.encolar(ev);
+    }
+
+    /** Cierra todos los canales (la sala se descarta). */
+    void cerrar() {
+        for (Canal c : canales) cerrar(c);
+    }
+
+    private void cerrar(Canal c) {
+        canales.remove(c);
+        c.lock.lock();
+        try {
+            c.activo = false;
+            c.cola.clear();
+            c.hayEventos.signalAll();
+        } finally {
+            c.lock.unlock();
+        }
+    }
+
+    int getObservadores() { return canales.size(); }
+    long getEnviados() { return enviados.get(); }
+    long getCombinados() { return combinados.get(); }
+    long getDescartados() { return descartados.get(); }
+    long getFallidos() { return fallidos.get(); }
+    long getExpulsados() { return expulsados.get(); }
+
+    private static void revisarTimeouts() {
+        long ahora = System.nanoTime();
+        for (Canal c : ENVIANDO) {
+            long inicio = c.inicioEnvio;
+            if (inicio != 0 && ahora - inicio > TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS) && !c.vencido) {
+                c.vencido = true;
+                c.hilo.interrupt(); // en un hilo virtual corta el socket bloqueado
+            }
+        }
+    }
+
+    /**
+     * Cola y emisor de un observador. La espera es con {@link ReentrantLock} y no con
+     * {@code wait()}: un hilo virtual en {@code wait()} fija su portador, y con cientos de
+     * observadores inactivos se agotarían los portadores.
+     */
+    private final class Canal implements Runnable {
+        final IObservadorRemoto observador;
+        final ArrayDeque<Object> cola = new ArrayDeque<>();  // guardado por lock
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition hayEventos = lock.newCondition();
+        boolean activo = true;          // guardado por lock
+        Thread hilo;
+        volatile long inicioEnvio;      // 0 si no hay envío en curso
+        volatile boolean vencido;
+        int fallos;                     // seguidos; sólo lo toca el hilo del canal
+
+        Canal(IObservadorRemoto observador) {
+            this.observador = observador;
+        }
+
+        void encolar(Object ev) {
+            lock.lock();
+            try {
+                encolarConLock(ev);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void encolarConLock(Object ev) {
+            if (!activo) return;
+            // sólo con el último: si quedara otro evento entre ambos, llegaría con un salto de secuencia
+            if (ev instanceof EventoParade nuevo && !nuevo.llevaDelta()
+                    && cola.peekLast() instanceof EventoParade viejo && viejo.getTipo() == nuevo.getTipo()) {
+                cola.pollLast();
+                ev = nuevo.cubriendoDesde(viejo.getSecuenciaDesde());
+                combinados.incrementAndGet();
+            }
+            if (cola.size() >= CAPACIDAD) {
+                descartados.addAndGet(cola.size());
+                cola.clear(); // el cliente detecta el hueco de secuencia y pide un snapshot
+            }
+            cola.addLast(ev);
+            hayEventos.signal();
+        }
+
+        private Object siguiente() throws InterruptedException {
+            lock.lock();
+            try {
+                while (activo && cola.isEmpty()) hayEventos.await();
+                return activo ? cola.pollFirst() : CERRADO;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Object ev;
+                try {
+                    ev = siguiente();
+                } catch (InterruptedException e) {
+                    continue; // interrupción tardía del vigía: se revisa activo en la próxima vuelta
+                }
+                if (ev == CERRADO) return;
+                enviar(ev);
+            }
+        }
+
+        private void enviar(Object ev) {
+            vencido = false;
+            inicioEnvio = System.nanoTime();
+            ENVIANDO.add(this);
+            boolean ok;
+            Exception error = null;
+            try {
+                observador.actualizar(origen, ev == SIN_ARGUMENTO ? null : ev);
+                ok = true;
+            } catch (RemoteException | RuntimeException e) {
+                ok = false;
+                error = e;
+            } finally {
+                ENVIANDO.remove(this);
+                inicioEnvio = 0;
+                Thread.interrupted(); // descarta una interrupción que llegó justo al terminar
+            }
+            if (ok && !vencido) {
+                fallos = 0;
+                enviados.incrementAndGet();
+                return;
+            }
+            fallidos.incrementAndGet();
+            if (++fallos >= MAX_FALLOS) {
+                expulsados.incrementAndGet();
+                LOG.log(Level.WARNING, "Observador quitado tras " + fallos + " fallos seguidos", error);
+                cerrar(this);
+            } else {
+                LOG.log(Level.FINE, vencido ? "Timeout notificando a un observador" : "Fallo notificando a un observador", error);
+            }
+        }
+    }
+}
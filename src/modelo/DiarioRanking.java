@@ -0,0 +1,308 @@
+package modelo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Persistencia binaria del ranking: un snapshot del Top ({@code ranking.dat}) más un diario
+ * sólo-agregar ({@code ranking.dat.diario}) con un registro chico por resultado.
+ * <p>
+ * Cabecera de ambos archivos: {@code [int magia][long generación]}. Registro:
+ * {@code [int largo][int crc32][long instanteMs][int puntaje][nombre UTF-8]}, con el CRC calculado
+ * sobre lo que sigue al crc. Cada {@link #agregar} escribe el lote completo y hace un solo fsync.
+ * Cuando el diario supera {@link #COMPACTAR_CADA} registros se compacta: sus entradas pasan al
+ * {@link HistorialRanking}, se reescribe el snapshot con el Top y el diario vuelve a cero.
+ * <p>
+ * La generación dice qué diario ya está incluido en el snapshot: al compactar el diario de
+ * generación g, el snapshot nuevo lleva g y el diario vacío pasa a g + 1. Al cargar, un diario con
+ * generación menor o igual a la del snapshot ya está aplicado y sus registros no se vuelven a sumar
+ * (es lo que queda si el proceso cae después de reemplazar el snapshot y antes de vaciar el diario).
+ * Ambos archivos se leen con lecturas comunes, sin mapearlos: el diario se trunca y el snapshot se
+ * reemplaza, y eso no se puede hacer con un mapeo vivo del archivo. Una cola corrupta se registra en
+ * el log y se descarta en lugar de perder el archivo entero. Los archivos de la versión 1 (sin
+ * generación) se leen igual y se migran en la compactación siguiente.
+ */
+final class DiarioRanking implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(DiarioRanking.class.getName());
+
+    static final int COMPACTAR_CADA = 4096;
+
+    private static final int MAGIA_DIARIO = 0x50524A02;   // "PRJ" v2
+    private static final int MAGIA_SNAPSHOT = 0x50525302; // "PRS" v2
+    private static final int MAGIA_DIARIO_V1 = 0x50524A01, MAGIA_SNAPSHOT_V1 = 0x50525301; // sin generación
+    private static final short MAGIA_SERIALIZACION = (short) 0xACED; // ranking.dat viejo (ObjectOutputStream)
+    private static final int CABECERA = 4 + 8;
+    private static final int CABECERA_V1 = 4;
+    private static final int FIJO = 4 + 8 + 4;            // crc + instante + puntaje
+    private static final int MAX_NOMBRE = 1024;
+
+    private final Path snapshot;
+    private final Path diario;
+    private final String historial;
+    private FileChannel canal;
+    /** Generación del diario abierto (ver la cabecera). */
+    private long generacion;
+    private int registrosEnDiario;
+    private boolean compactacionPendiente;
+    private final CRC32 crc = new CRC32();
+
+    DiarioRanking(String archivoRanking) {
+        this.snapshot = Path.of(archivoRanking);
+        this.diario = Path.of(archivoRanking + ".diario");
+        this.historial = HistorialRanking.rutaPara(archivoRanking);
+    }
+
+    /**
+     * Lee snapshot y diario. Devuelve todas las entradas válidas (el Top compactado más lo
+     * agregado desde entonces). Si el snapshot es del formato viejo, lo migra en la próxima compactación.
+     */
+    List<EntradaRanking> cargar() throws IOException {
+        List<EntradaRanking> salida = new ArrayList<>();
+        long generacionSnapshot = Files.exists(snapshot) ? leerSnapshot(salida) : -1;
+        abrirDiario();
+        ByteBuffer buf = leerTodo(canal);
+        int magia = buf.getInt();
+        if (magia == MAGIA_DIARIO_V1) {
+            generacion = 0;               // anterior a cualquier snapshot con generación
+            compactacionPendiente = true; // se reescribe con generación
+        } else if (magia == MAGIA_DIARIO && buf.remaining() >= 8) {
+            generacion = buf.getLong();
+        } else if (magia == MAGIA_DIARIO) {
+            generacion = generacionSnapshot; // cabecera a medio escribir: el diario estaba vacío
+        } else {
+            throw new IOException("diario de ranking inválido: " + diario);
+        }
+        if (generacion <= generacionSnapshot) {
+            // El snapshot ya incluye este diario: se cayó entre reemplazar el snapshot y vaciarlo
+            LOG.info(() -> "Diario de ranking ya incluido en " + snapshot + "; se descarta");
+            vaciarDiario(generacionSnapshot + 1);
+            compactacionPendiente = false;
+            return salida;
+        }
+        int antes = salida.size();
+        long tamano = buf.limit();
+        int valido = leerRegistros(buf, salida);
+        registrosEnDiario = salida.size() - antes;
+        if (valido < tamano) {
+            LOG.warning(() -> "Diario de ranking con cola corrupta en " + diario + ": se descartan "
+                    + (tamano - valido) + " bytes desde el byte " + valido);
+            canal.truncate(valido);
+            canal.force(true);
+            canal.position(valido);
+        }
+        if (registrosEnDiario >= COMPACTAR_CADA) compactacionPendiente = true;
+        return salida;
+    }
+
+    /** @return generación del snapshot, o -1 si está vacío o es de un formato sin generación */
+    private long leerSnapshot(List<EntradaRanking> salida) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            buf = leerTodo(ch);
+        }
+        if (buf.remaining() < CABECERA_V1) return -1;
+        if (buf.getShort(0) == MAGIA_SERIALIZACION) {
+            leerSnapshotViejo(buf, salida);
+            return -1;
+        }
+        int magia = buf.getInt();
+        long gen;
+        if (magia == MAGIA_SNAPSHOT) {
+            gen = buf.getLong();
+        } else if (magia == MAGIA_SNAPSHOT_V1) {
+            gen = -1;
+            compactacionPendiente = true;
+        } else {
+            throw new IOException("snapshot de ranking inválido: " + snapshot);
+        }
+        int valido = leerRegistros(buf, salida);
+        if (valido < buf.limit()) {
+            LOG.warning(() -> "Snapshot de ranking corrupto en " + snapshot + " desde el byte " + valido
+                    + "; se conservan las entradas anteriores");
+        }
+        return gen;
+    }
+
+    /** El archivo entero en un buffer de heap (son chicos: el Top y a lo sumo un diario sin compactar). */
+    private static ByteBuffer leerTodo(FileChannel ch) throws IOException {
+        long tamano = ch.size();
+        if (tamano > Integer.MAX_VALUE) throw new IOException("archivo de ranking demasiado grande");
+        ByteBuffer buf = ByteBuffer.allocate((int) tamano);
+        while (buf.hasRemaining() && ch.read(buf, buf.position()) >= 0) { }
+        return buf.flip();
+    }
+
+    /** Formato previo: lista completa serializada. Sus entradas van al historial al compactar. */
+    @SuppressWarnings("unchecked")
+    private void leerSnapshotViejo(ByteBuffer buf, List<EntradaRanking> salida) throws IOException {
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            var data = (List<EntradaRanking>) ois.readObject();
+            if (data != null) {
+                salida.addAll(data);
+                if (!HistorialRanking.existe(historial)) HistorialRanking.agregarEn(historial, data);
+            }
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("ranking.dat viejo ilegible: " + snapshot, e);
+        }
+        compactacionPendiente = true;
+    }
+
+    /** Lee registros hasta el final o hasta el primero inválido; devuelve la posición del último byte válido. */
+    private int leerRegistros(ByteBuffer buf, List<EntradaRanking> salida) {
+        while (buf.remaining() >= 4) {
+            int inicio = buf.position();
+            int largo = buf.getInt();
+            if (largo < FIJO || largo > FIJO + MAX_NOMBRE || buf.remaining() < largo) return inicio;
+            int esperado = buf.getInt();
+            ByteBuffer cuerpo = buf.slice(buf.position(), largo - 4);
+            crc.reset();
+            crc.update(cuerpo);
+            if ((int) crc.getValue() != esperado) return inicio;
+            long instante = buf.getLong();
+            int puntaje = buf.getInt();
+            byte[] nombre = new byte[largo - FIJO];
+            buf.get(nombre);
+            salida.add(new EntradaRanking(new String(nombre, StandardCharsets.UTF_8), puntaje, instante));
+        }
+        return buf.position();
+    }
+
+    /** Agrega el lote al final del diario con un único fsync. */
+    void agregar(List<EntradaRanking> entradas) throws IOException {
+        if (entradas.isEmpty()) return;
+        abrirDiario();
+        ByteBuffer buf = codificar(entradas);
+        while (buf.hasRemaining()) canal.write(buf);
+        canal.force(false);
+        registrosEnDiario += entradas.size();
+        if (registrosEnDiario >= COMPACTAR_CADA) compactacionPendiente = true;
+    }
+
+    boolean requiereCompactar() { return compactacionPendiente; }
+
+    /**
+     * Pasa el diario al historial, reescribe el snapshot con {@code top} y la generación del diario
+     * (reemplazo atómico) y vacía el diario con la generación siguiente.
+     * Si se corta antes de reemplazar el snapshot, al cargar se vuelve a leer el diario y algunas
+     * entradas pueden quedar dos veces en el historial (nunca en el Top). Si se corta después, el
+     * diario tiene una generación ya incluida en el snapshot y se descarta al cargar.
+     */
+    void compactar(List<EntradaRanking> top) throws IOException {
+        abrirDiario();
+        ByteBuffer buf = leerTodo(canal);
+        buf.position(buf.getInt() == MAGIA_DIARIO_V1 ? CABECERA_V1 : CABECERA);
+        if (buf.hasRemaining()) {
+            List<EntradaRanking> delDiario = new ArrayList<>(registrosEnDiario);
+            leerRegistros(buf, delDiario);
+            if (!HistorialRanking.agregarEn(historial, delDiario)) {
+                throw new IOException("no se pudo agregar al historial: " + historial);
+            }
+        }
+
+        Path tmp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cab = ByteBuffer.allocate(CABECERA).putInt(MAGIA_SNAPSHOT).putLong(generacion).flip();
+            ch.write(cab);
+            ByteBuffer cuerpo = codificar(top);
+            while (cuerpo.hasRemaining()) ch.write(cuerpo);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        vaciarDiario(generacion + 1);
+        compactacionPendiente = false;
+    }
+
+    /**
+     * Deja el diario vacío con la generación dada. Primero trunca y después escribe la cabecera: si
+     * se corta entre medio queda un diario vacío con la generación vieja, que igual se descarta.
+     */
+    private void vaciarDiario(long nueva) throws IOException {
+        canal.truncate(0);
+        canal.force(true);
+        canal.write(ByteBuffer.allocate(CABECERA).putInt(MAGIA_DIARIO).putLong(nueva).flip(), 0);
+        canal.force(true);
+        canal.position(CABECERA);
+        generacion = nueva;
+        registrosEnDiario = 0;
+    }
+
+    private ByteBuffer codificar(List<EntradaRanking> entradas) {
+        List<byte[]> nombres = new ArrayList<>(entradas.size());
+        int total = 0;
+        for (EntradaRanking e : entradas) {
+            byte[] n = e.getNombre().getBytes(StandardCharsets.UTF_8);
+            if (n.length > MAX_NOMBRE) n = java.util.Arrays.copyOf(n, MAX_NOMBRE);
+            nombres.add(n);
+            total += 4 + FIJO + n.length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        for (int i = 0; i < entradas.size(); i++) {
+            EntradaRanking e = entradas.get(i);
+            byte[] n = nombres.get(i);
+            buf.putInt(FIJO + n.length);
+            int posCrc = buf.position();
+            buf.putInt(0);
+            buf.putLong(e.getInstanteRegistroMs()).putInt(e.getPuntaje()).put(n);
+            crc.reset();
+            crc.update(buf.slice(posCrc + 4, FIJO - 4 + n.length));
+            buf.putInt(posCrc, (int) crc.getValue());
+        }
+        return buf.flip();
+    }
+
+    private void abrirDiario() throws IOException {
+        if (canal != null) return;
+        canal = FileChannel.open(diario, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (canal.size() < CABECERA_V1) {
+            vaciarDiario(generacionDelSnapshot() + 1);
+            return;
+        }
+        ByteBuffer cab = ByteBuffer.allocate(CABECERA);
+        canal.read(cab, 0);
+        if (cab.getInt(0) == MAGIA_DIARIO && cab.position() == CABECERA) generacion = cab.getLong(4);
+        canal.position(canal.size());
+    }
+
+    /** Generación del snapshot en disco, para un diario que se crea de cero (0 si no hay o no la tiene). */
+    private long generacionDelSnapshot() throws IOException {
+        if (!Files.exists(snapshot)) return 0;
+        try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer cab = ByteBuffer.allocate(CABECERA);
+            ch.read(cab, 0);
+            return cab.position() == CABECERA && cab.getInt(0) == MAGIA_SNAPSHOT ? cab.getLong(4) : 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (canal == null) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "cerrando diario de ranking", e);
+        }
+        canal = null;
+    }
+}
@@ -0,0 +1,143 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Persistencia del ranking en segundo plano. Las salas sólo encolan un pedido ({@link #solicitar()})
+ * y vuelven enseguida; un único hilo drena la cola y combina todos los pedidos acumulados en una
+ * sola llamada a {@link TablaClasificacion#guardarEn}. Así la latencia de disco no cae sobre la
+ * llamada remota del jugador que terminó la partida.
+ */
+public final class EscritorRanking {
+    private static final Logger LOG = Logger.getLogger(EscritorRanking.class.getName());
+
+    private final TablaClasificacion tabla;
+    private final String archivo;
+    private final LinkedBlockingQueue<Long> cola = new LinkedBlockingQueue<>();
+
+    private final AtomicLong solicitadas = new AtomicLong();
+    private long escritas;                       // último nº de pedido ya persistido (guardado por this)
+    private final AtomicLong escrituras = new AtomicLong();
+    private final AtomicLong fallidas = new AtomicLong();
+    private final AtomicLong nanosTotales = new AtomicLong();
+    private volatile long nanosUltima;
+    private volatile long nanosMax;
+
+    private Thread hilo;
+    private volatile boolean cerrado;
+    private volatile MetricasParade metricas;
+
+    EscritorRanking(TablaClasificacion tabla, String archivo) {
+        this.tabla = tabla;
+        this.archivo = archivo;
+    }
+
+    /** Reporta la duración de cada escritura a {@code m} (además de las métricas propias). */
+    void medirCon(MetricasParade m) {
+        this.metricas = m;
+        m.observarRanking(this);
+    }
+
+    /** Pide persistir el ranking. No bloquea; pedidos seguidos se combinan en una escritura. */
+    void solicitar() {
+        if (cerrado) {
+            escribir(solicitadas.incrementAndGet()); // después de cerrar no hay hilo: escribir en línea
+            return;
+        }
+        iniciarHilo();
+        cola.add(solicitadas.incrementAndGet());
+    }
+
+    private synchronized void iniciarHilo() {
+        if (hilo != null) return;
+        hilo = new Thread(this::bucle, "escritor-ranking");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void bucle() {
+        List<Long> lote = new ArrayList<>();
+        try {
+            while (!cerrado || !cola.isEmpty()) {
+                Long primero = cola.poll(1, TimeUnit.SECONDS);
+                if (primero == null) continue;
+                lote.add(primero);
+                cola.drainTo(lote);
+                escribir(lote.get(lote.size() - 1)); // los pedidos llegan en orden: el último cubre a todos
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void escribir(long hasta) {
+        long t0 = System.nanoTime();
+        boolean ok = tabla.guardarEn(archivo);
+        long dt = System.nanoTime() - t0;
+        escrituras.incrementAndGet();
+        if (!ok) fallidas.incrementAndGet();
+        nanosTotales.addAndGet(dt);
+        nanosUltima = dt;
+        if (dt > nanosMax) nanosMax = dt;
+        MetricasParade m = metricas;
+        if (m != null) m.registrarEscrituraRanking(dt);
+        synchronized (this) {
+            if (hasta > escritas) escritas = hasta;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Bloquea hasta que todo lo solicitado antes de esta llamada esté en disco (o hasta el timeout).
+     * @return true si se alcanzó a persistir todo
+     */
+    public boolean flush(long timeoutMs) throws InterruptedException {
+        long objetivo = solicitadas.get();
+        long limite = System.currentTimeMillis() + timeoutMs;
+        synchronized (this) {
+            while (escritas < objetivo) {
+                long resta = limite - System.currentTimeMillis();
+                if (resta <= 0) return false;
+                wait(resta);
+            }
+        }
+        return true;
+    }
+
+    /** Hook de apagado: deja de aceptar pedidos en segundo plano, vacía la cola y hace una última escritura. */
+    public void cerrar() {
+        cerrado = true;
+        Thread h;
+        synchronized (this) { h = hilo; }
+        if (h != null) {
+            try {
+                h.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        escribir(solicitadas.get());
+        LOG.fine(() -> "Escritor de ranking cerrado: " + escrituras.get() + " escrituras, "
+                + solicitadas.get() + " pedidos");
+    }
+
+    // ---- Métricas ----
+
+    /** Pedidos todavía no persistidos. */
+    public synchronized long getEscriturasPendientes() { return solicitadas.get() - escritas; }
+    public long getPedidos() { return solicitadas.get(); }
+    public long getEscrituras() { return escrituras.get(); }
+    public long getEscriturasFallidas() { return fallidas.get(); }
+    public long getDuracionUltimaNanos() { return nanosUltima; }
+    public long getDuracionMaximaNanos() { return nanosMax; }
+    public long getDuracionPromedioNanos() {
+        long n = escrituras.get();
+        return n == 0 ? 0 : nanosTotales.get() / n;
+    }
+}
@@ -0,0 +1,31 @@
+package modelo;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Datos del lobby de una sala (jugadores y si la partida ya arrancó) junto con su versión.
+ * La versión cambia sólo cuando cambia alguno de los dos datos, así que el cliente puede
+ * cachearlo y pedirlo de nuevo únicamente si un evento trae una versión más nueva
+ * (ver {@link IParade#lobbySiCambio}).
+ */
+public final class EstadoLobby implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    @SuppressWarnings("serial") // List.copyOf: inmutable y serializable
+    private final List<String> nombres;
+    private final boolean partidaIniciada;
+
+    EstadoLobby(long version, List<String> nombres, boolean partidaIniciada) {
+        this.version = version;
+        this.nombres = List.copyOf(nombres);
+        this.partidaIniciada = partidaIniciada;
+    }
+
+    public long getVersion() { return version; }
+    public List<String> getNombres() { return nombres; }
+    public boolean isPartidaIniciada() { return partidaIniciada; }
+}
@@ -21,8 +21,8 @@ public class EstadoPartida implements Serializable {
     private final List<Jugador> jugadores = new ArrayList<>();
     /** Mazo como pila (push/pop en el tope). */
     private final Deque<Carta> mazo = new ArrayDeque<>();
-    /** Cartas en mesa en orden de aparición. */
-    private final List<Carta> carnaval = new ArrayList<>();
+    /** Cartas en mesa en orden de aparición (capacidad para el mazo entero: nunca re-crece). */
+    private final List<Carta> carnaval = new ArrayList<>(Carta.TOTAL);
 
     private int turnoActual = 0;
     private boolean ultimaRonda = false;
@@ -0,0 +1,26 @@
+package modelo;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Top del ranking junto con su versión (la de {@link TablaClasificacion#getVersion()}).
+ * Ver {@link IParade#top5SiCambio}.
+ */
+public final class EstadoRanking implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    @SuppressWarnings("serial") // List.copyOf: inmutable y serializable
+    private final List<EntradaRanking> top;
+
+    EstadoRanking(long version, List<EntradaRanking> top) {
+        this.version = version;
+        this.top = List.copyOf(top);
+    }
+
+    public long getVersion() { return version; }
+    public List<EntradaRanking> getTop() { return top; }
+}
@@ -0,0 +1,96 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Foto inmutable de una sala que publica su escritor ({@link ColaComandos}) después de cada lote de
+ * comandos. Las consultas de {@link IParade} leen de acá sin tomar locks: nunca ven una jugada a
+ * medio aplicar y no frenan al escritor.
+ * Los {@link SnapshotJugador} se arman la primera vez que se piden y quedan en la foto.
+ */
+final class EstadoSala {
+    final long version;
+    final long versionLobby;
+    final boolean iniciada;
+    final boolean ultimaRonda;
+    final boolean finDePartida;
+    final String turnoNombre;          // "-" sin jugadores
+    final int cartasEnMazo;
+    final List<String> nombres;
+    final List<List<Carta>> manos;
+    final List<Carta> carnaval;
+    final List<List<Carta>> pilas;
+    final List<Integer> puntajes;
+
+    /** Uno por jugador más el de "no unido" al final; se completan a pedido (carreras inofensivas). */
+    private final AtomicReferenceArray<SnapshotJugador> snapshots;
+
+    private EstadoSala(EstadoPartida e, boolean finDePartida, int[] puntajes, long version, long versionLobby,
+                       EstadoSala anterior) {
+        List<Jugador> js = e.getJugadores();
+        int n = js.size();
+        this.version = version;
+        this.versionLobby = versionLobby;
+        this.iniciada = e.isIniciada();
+        this.ultimaRonda = e.isUltimaRonda();
+        this.finDePartida = finDePartida;
+        this.turnoNombre = n == 0 ? "-" : js.get(e.getTurnoActual()).getNombre();
+        this.cartasEnMazo = e.getMazo().size();
+
+        if (anterior != null && anterior.versionLobby == versionLobby) {
+            this.nombres = anterior.nombres; // el lobby no cambió: mismos nombres
+        } else {
+            List<String> ns = new ArrayList<>(n);
+            for (Jugador j : js) ns.add(j.getNombre());
+            this.nombres = List.copyOf(ns);
+        }
+        List<List<Carta>> ms = new ArrayList<>(n), ps = new ArrayList<>(n);
+        List<Integer> pts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Jugador j = js.get(i);
+            ms.add(j.getMano().aLista());
+            ps.add(j.getRecolectadas().aLista());
+            pts.add(puntajes[i]);
+        }
+        this.manos = List.copyOf(ms);
+        this.pilas = List.copyOf(ps);
+        this.puntajes = List.copyOf(pts);
+        this.carnaval = List.copyOf(e.getCarnaval());
+        this.snapshots = new AtomicReferenceArray<>(n + 1);
+    }
+
+    /**
+     * Copia el estado actual (sólo desde el escritor de la sala).
+     * @param puntajes puntajes actuales, paralelos a los jugadores
+     * @param anterior foto previa, para reusar lo que no cambió (puede ser null)
+     */
+    static EstadoSala de(EstadoPartida e, boolean finDePartida, int[] puntajes, long version, long versionLobby,
+                         EstadoSala anterior) {
+        return new EstadoSala(e, finDePartida, puntajes, version, versionLobby, anterior);
+    }
+
+    /**
+     * Snapshot por jugador. El de "no unido" (id -1) se arma primero y sus listas comunes
+     * (carnaval, nombres, pilas) se comparten con los snapshots de cada jugador.
+     */
+    SnapshotJugador snapshot(int idJugador) {
+        int n = manos.size();
+        SnapshotJugador base = snapshots.get(n);
+        if (base == null) {
+            base = new SnapshotJugador(version, -1, List.of(), carnaval, turnoNombre, nombres, pilas,
+                    ultimaRonda, cartasEnMazo);
+            if (!snapshots.compareAndSet(n, null, base)) base = snapshots.get(n);
+        }
+        if (idJugador < 0 || idJugador >= n) return base;
+
+        SnapshotJugador s = snapshots.get(idJugador);
+        if (s == null) {
+            s = new SnapshotJugador(version, idJugador, manos.get(idJugador), carnaval, turnoNombre, nombres,
+                    pilas, ultimaRonda, cartasEnMazo);
+            if (!snapshots.compareAndSet(idJugador, null, s)) s = snapshots.get(idJugador);
+        }
+        return s;
+    }
+}
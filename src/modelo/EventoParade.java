@@ -0,0 +1,127 @@
+package modelo;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mensaje que el modelo envía a los observadores: tipo de {@link Evento} + delta del cambio.
+ * <p>
+ * Todos los mensajes llevan:
+ *  - {@code secuencia}: número creciente por sala; un salto indica que se perdió un evento. Un evento
+ *    sin delta puede reemplazar a otros iguales que lo precedían en la cola de un observador: entonces
+ *    cubre desde {@link #getSecuenciaDesde()} hasta {@code secuencia} y el cliente no ve el salto.
+ *  - {@code version}: versión del estado luego del evento (igual a {@link SnapshotJugador#getVersion()}).
+ *  - {@code cartasEnMazo}: cartas que quedan en el mazo.
+ *  - {@code versionLobby} / {@code versionRanking}: versiones de jugadores/inicio y del ranking; si no
+ *    avanzaron, el cliente puede seguir usando lo que tiene en caché (ver {@link IParade#lobbySiCambio}).
+ * Los de tipo {@link Evento#CARTA_JUGADA} traen además quién jugó, qué carta, qué cartas salieron
+ * del carnaval, si robó, el nuevo turno y la bandera de última ronda; con eso un cliente puede
+ * avanzar su snapshot local sin consultar al servidor (ver {@link SnapshotJugador#aplicar}).
+ */
+public final class EventoParade implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Evento tipo;
+    private final long secuencia;
+    /** Eventos previos que éste reemplaza (0 si no combinó ninguno; también al leer una versión vieja). */
+    private final int anteriores;
+    private final long version;
+    private final int cartasEnMazo;
+    private final long versionLobby;
+    private final long versionRanking;
+
+    // --- Delta (sólo JUGADOR_UNIDO / CARTA_JUGADA; -1/null en el resto) ---
+    private final int idJugador;
+    private final String nombreJugador;
+    private final Carta jugada;
+    @SuppressWarnings("serial") // siempre List.of: inmutable y serializable
+    private final List<Carta> retiradas;
+    private final boolean robo;
+    private final int turnoActual;
+    private final String turnoNombre;
+    private final boolean ultimaRonda;
+
+    private EventoParade(Evento tipo, long secuencia, int anteriores, long version, int cartasEnMazo,
+                         long versionLobby, long versionRanking, int idJugador, String nombreJugador, Carta jugada, List<Carta> retiradas,
+                         boolean robo, int turnoActual, String turnoNombre, boolean ultimaRonda) {
+        this.tipo = tipo;
+        this.secuencia = secuencia;
+        this.anteriores = anteriores;
+        this.version = version;
+        this.cartasEnMazo = cartasEnMazo;
+        this.versionLobby = versionLobby;
+        this.versionRanking = versionRanking;
+        this.idJugador = idJugador;
+        this.nombreJugador = nombreJugador;
+        this.jugada = jugada;
+        this.retiradas = retiradas;
+        this.robo = robo;
+        this.turnoActual = turnoActual;
+        this.turnoNombre = turnoNombre;
+        this.ultimaRonda = ultimaRonda;
+    }
+
+    /** Evento sin delta (inicio, última ronda, puntajes, ranking, fin, mensaje). */
+    static EventoParade simple(Evento tipo, long secuencia, long version, int cartasEnMazo,
+                               long versionLobby, long versionRanking) {
+        return new EventoParade(tipo, secuencia, 0, version, cartasEnMazo, versionLobby, versionRanking,
+                -1, null, null, List.of(), false, -1, null, false);
+    }
+
+    static EventoParade jugadorUnido(long secuencia, long version, int cartasEnMazo,
+                                     long versionLobby, long versionRanking, int idJugador, String nombre) {
+        return new EventoParade(Evento.JUGADOR_UNIDO, secuencia, 0, version, cartasEnMazo, versionLobby, versionRanking,
+                idJugador, nombre, null, List.of(), false, -1, null, false);
+    }
+
+    static EventoParade cartaJugada(long secuencia, long version, int cartasEnMazo,
+                                    long versionLobby, long versionRanking, int idJugador, String nombre, Carta jugada, Carta[] retiradas, int cantRetiradas,
+                                    boolean robo, int turnoActual, String turnoNombre, boolean ultimaRonda) {
+        return new EventoParade(Evento.CARTA_JUGADA, secuencia, 0, version, cartasEnMazo, versionLobby, versionRanking,
+                idJugador, nombre, jugada, List.of(Arrays.copyOf(retiradas, cantRetiradas)),
+                robo, turnoActual, turnoNombre, ultimaRonda);
+    }
+
+    /**
+     * Este mismo evento cubriendo también las secuencias desde {@code desde}: lo usa la cola de un
+     * observador al combinar eventos sin delta seguidos. Sólo para eventos sin delta.
+     */
+    EventoParade cubriendoDesde(long desde) {
+        if (desde == getSecuenciaDesde()) return this;
+        if (llevaDelta() || desde > secuencia) throw new IllegalArgumentException("no se puede combinar " + this);
+        return new EventoParade(tipo, secuencia, Math.toIntExact(secuencia - desde), version, cartasEnMazo,
+                versionLobby, versionRanking, idJugador, nombreJugador, jugada, retiradas, robo, turnoActual,
+                turnoNombre, ultimaRonda);
+    }
+
+    /** true si trae un delta que el cliente aplica (no se puede combinar con otro). */
+    boolean llevaDelta() { return tipo == Evento.JUGADOR_UNIDO || tipo == Evento.CARTA_JUGADA; }
+
+    public Evento getTipo() { return tipo; }
+    public long getSecuencia() { return secuencia; }
+    /** Primera secuencia que cubre: {@link #getSecuencia()} salvo que haya reemplazado a eventos previos. */
+    public long getSecuenciaDesde() { return secuencia - anteriores; }
+    public long getVersion() { return version; }
+    public int getCartasEnMazo() { return cartasEnMazo; }
+    public long getVersionLobby() { return versionLobby; }
+    public long getVersionRanking() { return versionRanking; }
+
+    public int getIdJugador() { return idJugador; }
+    public String getNombreJugador() { return nombreJugador; }
+    public Carta getJugada() { return jugada; }
+    /** Cartas que salieron del carnaval hacia las recogidas de quien jugó (en orden de mesa). */
+    public List<Carta> getRetiradas() { return retiradas; }
+    /** true si quien jugó robó una carta del mazo (la carta no viaja: es información privada). */
+    public boolean isRobo() { return robo; }
+    public int getTurnoActual() { return turnoActual; }
+    public String getTurnoNombre() { return turnoNombre; }
+    public boolean isUltimaRonda() { return ultimaRonda; }
+
+    @Override
+    public String toString() {
+        return tipo + "#" + (anteriores > 0 ? getSecuenciaDesde() + ".." : "") + secuencia + (jugada != null ? " " + nombreJugador + " " + jugada + " -" + retiradas : "");
+    }
+}
@@ -0,0 +1,161 @@
+package modelo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binario de partida guardada (versión {@value #VERSION}).
+ * <pre>
+ * cabecera: int magia "PRDS" | short versión | short banderas (bit0 última ronda, bit1 iniciada)
+ *           | int crc32 del cuerpo | int largo del cuerpo
+ * cuerpo:   byte jugadores | byte turno
+ *           por jugador: int id | byte largo nombre | nombre UTF-8
+ *                        | byte n + n ordinales (mano) | byte n + n ordinales (recogidas)
+ *           byte n + n ordinales (mazo, desde el tope) | byte n + n ordinales (carnaval, en orden)
+ * </pre>
+ * Cada carta es un byte ({@link Carta#ordinal()}), así que una partida ocupa unos cientos de bytes.
+ * Los archivos viejos escritos con {@code ObjectOutputStream} se siguen pudiendo importar.
+ */
+final class FormatoPartida {
+
+    static final int MAGIA = 0x50524453; // "PRDS"
+    static final short VERSION = 1;
+    private static final short MAGIA_SERIALIZACION = (short) 0xACED;
+    private static final int CABECERA = 4 + 2 + 2 + 4 + 4;
+    private static final int ULTIMA_RONDA = 1, INICIADA = 2;
+
+    private FormatoPartida() { }
+
+    /** Escribe el estado en {@code archivo} (lo reemplaza si existe). */
+    static void escribir(EstadoPartida estado, Path archivo) throws IOException {
+        ByteBuffer buf = codificar(estado);
+        try (FileChannel ch = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    /** Lee una partida en formato binario o, si es un archivo viejo, la importa desde la serialización Java. */
+    static EstadoPartida leer(Path archivo) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = ch.size();
+            if (tamano > Integer.MAX_VALUE) throw new IOException("archivo de partida demasiado grande: " + archivo);
+            buf = ByteBuffer.allocate((int) tamano);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+            buf.flip();
+        }
+        if (buf.remaining() >= 2 && buf.getShort(0) == MAGIA_SERIALIZACION) return importarViejo(buf);
+        return decodificar(buf);
+    }
+
+    static ByteBuffer codificar(EstadoPartida estado) {
+        List<Jugador> js = estado.getJugadores();
+        int largo = 2 + 1 + estado.getMazo().size() + 1 + estado.getCarnaval().size();
+        byte[][] nombres = new byte[js.size()][];
+        for (int i = 0; i < js.size(); i++) {
+            Jugador j = js.get(i);
+            byte[] n = j.getNombre().getBytes(StandardCharsets.UTF_8);
+            if (n.length > Jugador.MAX_NOMBRE) throw new IllegalArgumentException("nombre de jugador demasiado largo: " + n.length + " bytes");
+            nombres[i] = n;
+            largo += 4 + 1 + nombres[i].length + 1 + j.getMano().tamano() + 1 + j.getRecolectadas().tamano();
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(CABECERA + largo);
+        int banderas = (estado.isUltimaRonda() ? ULTIMA_RONDA : 0) | (estado.isIniciada() ? INICIADA : 0);
+        buf.putInt(MAGIA).putShort(VERSION).putShort((short) banderas).putInt(0).putInt(largo);
+
+        buf.put((byte) js.size()).put((byte) estado.getTurnoActual());
+        for (int i = 0; i < js.size(); i++) {
+            Jugador j = js.get(i);
+            buf.putInt(j.getId()).put((byte) nombres[i].length).put(nombres[i]);
+            ponerCartas(buf, j.getMano());
+            ponerCartas(buf, j.getRecolectadas());
+        }
+        buf.put((byte) estado.getMazo().size());
+        for (Carta c : estado.getMazo()) buf.put((byte) c.ordinal());
+        buf.put((byte) estado.getCarnaval().size());
+        for (Carta c : estado.getCarnaval()) buf.put((byte) c.ordinal());
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), CABECERA, largo);
+        buf.putInt(8, (int) crc.getValue());
+        return buf.flip();
+    }
+
+    private static void ponerCartas(ByteBuffer buf, ConjuntoCartas cartas) {
+        int n = cartas.tamano();
+        buf.put((byte) n);
+        for (int i = 0; i < n; i++) buf.put((byte) cartas.obtener(i).ordinal());
+    }
+
+    static EstadoPartida decodificar(ByteBuffer buf) throws IOException {
+        if (buf.remaining() < CABECERA || buf.getInt() != MAGIA) throw new IOException("no es una partida de Parade");
+        short version = buf.getShort();
+        if (version != VERSION) throw new IOException("versión de partida no soportada: " + version);
+        int banderas = buf.getShort();
+        int crcEsperado = buf.getInt();
+        int largo = buf.getInt();
+        if (largo < 0 || buf.remaining() < largo) throw new IOException("partida truncada");
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(buf.position(), largo));
+        if ((int) crc.getValue() != crcEsperado) throw new IOException("checksum de partida inválido");
+
+        try {
+            EstadoPartida e = new EstadoPartida();
+            ConjuntoCartas vistas = new ConjuntoCartas(); // cada carta puede aparecer una sola vez
+            int n = Byte.toUnsignedInt(buf.get());
+            int turno = Byte.toUnsignedInt(buf.get());
+            for (int i = 0; i < n; i++) {
+                int id = buf.getInt();
+                byte[] nombre = new byte[Byte.toUnsignedInt(buf.get())];
+                buf.get(nombre);
+                Jugador j = new Jugador(id, new String(nombre, StandardCharsets.UTF_8));
+                for (int k = Byte.toUnsignedInt(buf.get()); k > 0; k--) j.getMano().agregar(leerCarta(buf, vistas));
+                for (int k = Byte.toUnsignedInt(buf.get()); k > 0; k--) j.agregarRecogida(leerCarta(buf, vistas));
+                e.getJugadores().add(j);
+            }
+            for (int k = Byte.toUnsignedInt(buf.get()); k > 0; k--) e.getMazo().addLast(leerCarta(buf, vistas));
+            for (int k = Byte.toUnsignedInt(buf.get()); k > 0; k--) e.getCarnaval().add(leerCarta(buf, vistas));
+            if (n > 0 && turno >= n) throw new IOException("turno fuera de rango: " + turno);
+            e.setTurnoActual(turno);
+            e.setUltimaRonda((banderas & ULTIMA_RONDA) != 0);
+            e.setIniciada((banderas & INICIADA) != 0);
+            return e;
+        } catch (java.nio.BufferUnderflowException ex) {
+            throw new IOException("partida truncada", ex);
+        }
+    }
+
+    private static Carta leerCarta(ByteBuffer buf, ConjuntoCartas vistas) throws IOException {
+        int ordinal = Byte.toUnsignedInt(buf.get());
+        if (ordinal >= Carta.TOTAL) throw new IOException("carta inválida: " + ordinal);
+        Carta c = Carta.deOrdinal(ordinal);
+        if (!vistas.agregar(c)) throw new IOException("carta repetida: " + c);
+        return c;
+    }
+
+    private static EstadoPartida importarViejo(ByteBuffer buf) throws IOException {
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            EstadoPartida e = (EstadoPartida) ois.readObject();
+            for (Jugador j : e.getJugadores()) {
+                if (j.getNombre().getBytes(StandardCharsets.UTF_8).length > Jugador.MAX_NOMBRE) {
+                    throw new IOException("partida vieja con un nombre de jugador demasiado largo");
+                }
+            }
+            return e;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("partida vieja ilegible", e);
+        }
+    }
+}
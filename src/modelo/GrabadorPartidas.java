@@ -0,0 +1,63 @@
+package modelo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Agrega las partidas terminadas ({@link PartidaGrabada}) a un archivo de texto, una por línea,
+ * desde un hilo propio para no sumar latencia de disco a la jugada que cerró la partida.
+ * El archivo se puede reproducir con {@code simulacion.ReproductorPartidas}.
+ */
+final class GrabadorPartidas {
+    private static final Logger LOG = Logger.getLogger(GrabadorPartidas.class.getName());
+
+    /** Archivo por defecto, junto a las bitácoras de sala. */
+    static final String ARCHIVO = BitacoraPartida.DIRECTORIO + "/grabadas.txt";
+
+    private final Path archivo;
+    private final ExecutorService hilo = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "grabador-partidas");
+        t.setDaemon(true);
+        return t;
+    });
+
+    GrabadorPartidas(Path archivo) {
+        this.archivo = archivo;
+    }
+
+    void grabar(PartidaGrabada p) {
+        hilo.execute(() -> escribir(p.aLinea()));
+    }
+
+    private void escribir(String linea) {
+        try {
+            if (archivo.getParent() != null) Files.createDirectories(archivo.getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+                w.write(linea);
+                w.newLine();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudo grabar la partida en " + archivo, e);
+        }
+    }
+
+    /** Termina de escribir lo encolado. */
+    void cerrar() {
+        hilo.shutdown();
+        try {
+            hilo.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package modelo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de duraciones en nanosegundos con cubetas en potencias de 2 ([2^i, 2^(i+1))).
+ * Registrar no toma locks: un {@link LongAdder} por cubeta y el máximo por CAS sólo cuando crece.
+ * Los percentiles son aproximados: se informa el borde superior de la cubeta.
+ */
+final class Histograma {
+    /** 2^40 ns ≈ 18 minutos: lo que supere cae en la última cubeta. */
+    private static final int CUBETAS = 41;
+
+    private final LongAdder[] cubetas = new LongAdder[CUBETAS];
+    private final LongAdder cuenta = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histograma() {
+        for (int i = 0; i < CUBETAS; i++) cubetas[i] = new LongAdder();
+    }
+
+    void registrar(long nanos) {
+        if (nanos < 0) nanos = 0;
+        int i = nanos == 0 ? 0 : Math.min(CUBETAS - 1, 63 - Long.numberOfLeadingZeros(nanos));
+        cubetas[i].increment();
+        cuenta.increment();
+        suma.add(nanos);
+        if (nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** Copia de los contadores (no atómica entre cubetas, suficiente para informes). */
+    Instantanea instantanea() {
+        long[] c = new long[CUBETAS];
+        for (int i = 0; i < CUBETAS; i++) c[i] = cubetas[i].sum();
+        return new Instantanea(c, cuenta.sum(), suma.sum(), max.get());
+    }
+
+    void reiniciar() {
+        for (LongAdder c : cubetas) c.reset();
+        cuenta.reset();
+        suma.reset();
+        max.set(0);
+    }
+
+    /** Contadores de un {@link Histograma} en un instante. */
+    static final class Instantanea {
+        private final long[] cubetas;
+        final long cuenta;
+        final long suma;
+        final long max;
+
+        private Instantanea(long[] cubetas, long cuenta, long suma, long max) {
+            this.cubetas = cubetas;
+            this.cuenta = cuenta;
+            this.suma = suma;
+            this.max = max;
+        }
+
+        long promedio() { return cuenta == 0 ? 0 : suma / cuenta; }
+
+        /** Borde superior de la cubeta que contiene el percentil {@code q} (0..1), acotado por el máximo. */
+        long percentil(double q) {
+            long total = 0;
+            for (long c : cubetas) total += c;
+            if (total == 0) return 0;
+            long objetivo = (long) Math.ceil(q * total), acum = 0;
+            for (int i = 0; i < cubetas.length; i++) {
+                acum += cubetas[i];
+                if (acum >= objetivo) return Math.min(max, (1L << (i + 1)) - 1);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package modelo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Historial completo del ranking en disco, separado del Top que se mantiene en memoria.
+ * Es un archivo de texto sólo-agregar, una línea por resultado: {@code instanteMs;puntaje;nombre}.
+ * Agregar cuesta lo mismo sin importar cuántos resultados haya acumulados.
+ */
+final class HistorialRanking {
+
+    private HistorialRanking() { }
+
+    /** Archivo de historial asociado a un archivo de ranking. */
+    static String rutaPara(String archivoRanking) {
+        return archivoRanking + ".historial";
+    }
+
+    static boolean existe(String ruta) {
+        return Files.exists(Path.of(ruta));
+    }
+
+    /** Agrega las entradas al final del historial (lo crea si no existe). */
+    static boolean agregarEn(String ruta, Collection<EntradaRanking> entradas) {
+        if (entradas.isEmpty()) return true;
+        try (BufferedWriter w = Files.newBufferedWriter(Path.of(ruta), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            for (EntradaRanking e : entradas) {
+                w.write(e.getInstanteRegistroMs() + ";" + e.getPuntaje() + ";" + e.getNombre());
+                w.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            return false; // best-effort: se reintenta en el próximo guardado
+        }
+    }
+}
@@ -47,6 +47,13 @@ public interface IParade extends IObservableRemoto {
     boolean esUltimaRonda() throws RemoteException;
     boolean esFinDePartida() throws RemoteException;
 
+    /**
+     * Todo lo que un cliente necesita para redibujar el tablero, en una sola llamada.
+     * @param idJugador id del jugador que consulta, o -1 si todavía no está unido (mano vacía)
+     * @return snapshot inmutable de la versión actual del estado
+     */
+    SnapshotJugador obtenerSnapshot(int idJugador) throws RemoteException;
+
     /**
      * Puntajes calculados según reglas (2 jugadores: mayoría por diferencia ≥ 2).
      * @return lista paralela a {@link #nombresJugadores()}.
@@ -56,6 +63,13 @@ public interface IParade extends IObservableRemoto {
     /** @return nombres en el orden de registro/turnos. */
     List<String> nombresJugadores() throws RemoteException;
 
+    /**
+     * Jugadores y estado de inicio, sólo si cambiaron.
+     * @param version versión del lobby que ya tiene el cliente (-1 si ninguna)
+     * @return null si {@code version} es la actual; si no, el lobby con su versión
+     */
+    EstadoLobby lobbySiCambio(long version) throws RemoteException;
+
     // -------- Persistencia de partida --------
 
     /** Guarda un snapshot serializado del {@code EstadoPartida}. */
@@ -71,6 +85,13 @@ public interface IParade extends IObservableRemoto {
 
     /** Devuelve el Top-5 ordenado (puntaje asc, y desempate por instante). */
     List<EntradaRanking> top5() throws RemoteException;
+
+    /**
+     * Top-5 sólo si cambió.
+     * @param version versión del ranking que ya tiene el cliente (-1 si ninguna)
+     * @return null si {@code version} es la actual; si no, el Top con su versión
+     */
+    EstadoRanking top5SiCambio(long version) throws RemoteException;
 }
 
 
@@ -0,0 +1,29 @@
+package modelo;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+
+/**
+ * (RMI) Registro de salas del servidor Parade.
+ * Cada sala es una partida independiente ({@link IParade}) con su propio estado y escritor,
+ * de modo que un único servidor puede alojar muchas mesas en paralelo.
+ */
+public interface ISalasParade extends Remote {
+
+    /**
+     * Devuelve la sala indicada, creándola si todavía no existe.
+     * @return stub remoto de la sala (las llamadas {@link IParade} quedan ruteadas a esa partida)
+     * @throws RemoteException en errores de red o si el id es inválido
+     */
+    IParade sala(String idSala) throws RemoteException;
+
+    /** @return ids de las salas abiertas (sin orden particular). */
+    List<String> salas() throws RemoteException;
+
+    /**
+     * Cierra la sala y la retira del registro (la sala principal no se puede cerrar).
+     * @return true si la sala existía y fue cerrada
+     */
+    boolean cerrarSala(String idSala) throws RemoteException;
+}
@@ -1,28 +1,57 @@
 package modelo;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
 /**
  * Entidad de dominio que representa a un jugador de Parade.
- * Mantiene su mano actual y las cartas recolectadas durante la partida.
+ * Mantiene su mano actual y las cartas recolectadas durante la partida,
+ * ambas como {@link ConjuntoCartas} (bitset por ordinal de carta).
+ * Junto a las recogidas lleva los conteos por color y la suma de valores,
+ * actualizados al recoger, para que el puntaje no tenga que recorrer la pila.
  *
  * Invariantes:
  * - {@code id} es único en la partida.
- * - {@code nombre} no es null ni vacío.
- * - Las listas {@code mano} y {@code recolectadas} no son null.
+ * - {@code nombre} no es null ni vacío y ocupa a lo sumo {@link #MAX_NOMBRE} bytes en UTF-8.
+ * - Los conjuntos {@code mano} y {@code recolectadas} no son null.
+ * - {@code conteoColor}/{@code sumaValores} coinciden con {@code recolectadas}
+ *   (por eso las recogidas sólo se mutan con los métodos de esta clase).
+ *
+ * La forma serializada sigue siendo la original (mano y recogidas como {@code List<Carta>}), así
+ * que partidas viejas y pares RMI de la versión anterior se leen y se escriben sin cambios.
  */
 public class Jugador implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    private final int id;
-    private final String nombre;
-    private final List<Carta> mano = new ArrayList<>();
-    private final List<Carta> recolectadas = new ArrayList<>();
+    /** Largo máximo del nombre en bytes UTF-8: lo que guardan la partida binaria y la bitácora. */
+    public static final int MAX_NOMBRE = 255;
+
+    /** Forma serializada: la de la versión con listas (ver {@link #writeObject}/{@link #readObject}). */
+    @Serial
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("id", int.class),
+            new ObjectStreamField("nombre", String.class),
+            new ObjectStreamField("mano", List.class),
+            new ObjectStreamField("recolectadas", List.class),
+    };
+
+    // No son final: al deserializar los asigna readObject
+    private int id;
+    private String nombre;
+    private ConjuntoCartas mano = new ConjuntoCartas();
+    private ConjuntoCartas recolectadas = new ConjuntoCartas();
+    private transient int[] conteoColor = new int[ColorCarta.values().length];
+    private transient int sumaValores;
 
     public Jugador(int id, String nombre) {
         this.id = id;
@@ -34,28 +63,81 @@ public class Jugador implements Serializable {
     public String getNombre() { return nombre; }
 
     // --- Estado de juego ---
-    /** Mano actual del jugador (lista viva; el modelo expone copias al exterior). */
-    public List<Carta> getMano() { return mano; }
+    /** Mano actual del jugador (conjunto vivo; el modelo expone copias al exterior). */
+    public ConjuntoCartas getMano() { return mano; }
+
+    /** Pila de cartas recolectadas por el jugador (sólo lectura: mutar con los métodos de abajo). */
+    public ConjuntoCartas getRecolectadas() { return recolectadas; }
 
-    /** Pila de cartas recolectadas por el jugador. */
-    public List<Carta> getRecolectadas() { return recolectadas; }
+    /** Cartas recogidas del color (índice {@link ColorCarta#ordinal()}). */
+    public int cantidadColor(int color) { return conteoColor[color]; }
+
+    /** Suma de valores de las cartas recogidas. */
+    public int getSumaValores() { return sumaValores; }
 
     // --- Alias para compatibilidad histórica (preferir getRecolectadas) ---
     /** @deprecated Usar {@link #getRecolectadas()}. Se mantiene por compatibilidad. */
     @Deprecated
-    public List<Carta> getRecogidas() { return recolectadas; }
+    public ConjuntoCartas getRecogidas() { return recolectadas; }
 
     // --- Mutadores seguros del estado interno ---
     public void agregarRecogidas(Collection<Carta> cartas) {
-        if (cartas != null && !cartas.isEmpty()) {
-            recolectadas.addAll(cartas);
+        if (cartas != null) {
+            for (Carta c : cartas) agregarRecogida(c);
         }
     }
 
     public void agregarRecogida(Carta c) {
-        if (c != null) {
-            recolectadas.add(c);
+        if (c != null && recolectadas.agregar(c)) {
+            conteoColor[c.getColor().ordinal()]++;
+            sumaValores += c.getValor();
+        }
+    }
+
+    public void limpiarRecogidas() {
+        recolectadas.limpiar();
+        Arrays.fill(conteoColor, 0);
+        sumaValores = 0;
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField f = out.putFields();
+        f.put("id", id);
+        f.put("nombre", nombre);
+        f.put("mano", new ArrayList<>(mano.aLista()));
+        f.put("recolectadas", new ArrayList<>(recolectadas.aLista()));
+        out.writeFields();
+    }
+
+    /**
+     * Lee la forma con listas; también acepta conjuntos (lo que escribió la versión intermedia que
+     * serializaba los campos tal cual). Los conteos no se serializan: se reconstruyen desde la pila.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField f = in.readFields();
+        id = f.get("id", 0);
+        nombre = (String) f.get("nombre", null);
+        mano = conjunto(f.get("mano", null));
+        recolectadas = conjunto(f.get("recolectadas", null));
+        conteoColor = new int[ColorCarta.values().length];
+        for (ColorCarta c : ColorCarta.values()) conteoColor[c.ordinal()] = recolectadas.cantidadColor(c);
+        sumaValores = recolectadas.sumaValores();
+    }
+
+    private static ConjuntoCartas conjunto(Object leido) throws InvalidObjectException {
+        if (leido == null) return new ConjuntoCartas();
+        if (leido instanceof ConjuntoCartas c) return c;
+        if (!(leido instanceof Collection<?> cartas)) {
+            throw new InvalidObjectException("cartas de jugador con tipo inesperado: " + leido.getClass().getName());
+        }
+        ConjuntoCartas c = new ConjuntoCartas();
+        for (Object o : cartas) {
+            if (!(o instanceof Carta carta)) throw new InvalidObjectException("no es una carta: " + o);
+            c.agregar(carta);
         }
+        return c;
     }
 
     @Override
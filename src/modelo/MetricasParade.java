@@ -0,0 +1,283 @@
+package modelo;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Métricas del servidor, compartidas por todas las salas:
+ * <ul>
+ *   <li>latencia de cada operación de {@link IParade} (incluye la espera en la cola de comandos de la sala);</li>
+ *   <li>tiempo de {@code notificarObservadores} por tipo de evento;</li>
+ *   <li>observadores activos y contadores del {@link DespachadorEventos} de cada sala;</li>
+ *   <li>partidas iniciadas y terminadas (totales y por minuto);</li>
+ *   <li>tiempos de disco: escritura del ranking, guardado y carga de partidas.</li>
+ * </ul>
+ * El camino caliente sólo toca {@link Histograma}s y {@link LongAdder}s; los agregados por sala se
+ * calculan al leer. Se publica como MBean ({@link #registrarJmx()}) y se vuelca al log cada
+ * tanto ({@link #volcarCada(long)}).
+ */
+public final class MetricasParade implements MetricasParadeMBean {
+    private static final Logger LOG = Logger.getLogger(MetricasParade.class.getName());
+
+    public static final String NOMBRE_JMX = "parade:type=Metricas";
+
+    /** Operaciones remotas medidas (las de {@link IParade} más alta/baja de observadores). */
+    enum Operacion {
+        UNIR_JUGADOR("unirJugador"), INICIAR_PARTIDA("iniciarPartida"), PARTIDA_INICIADA("partidaIniciada"),
+        JUGAR_CARTA("jugarCarta"), OBTENER_MANO("obtenerMano"), OBTENER_CARNAVAL("obtenerCarnaval"),
+        OBTENER_RECOLECTADAS("obtenerRecolectadas"), OBTENER_RECOLECTADAS_TODOS("obtenerRecolectadasTodos"),
+        OBTENER_TURNO_NOMBRE("obtenerTurnoNombre"), ES_ULTIMA_RONDA("esUltimaRonda"),
+        ES_FIN_DE_PARTIDA("esFinDePartida"), OBTENER_SNAPSHOT("obtenerSnapshot"),
+        PUNTAJES_POR_JUGADOR("puntajesPorJugador"), NOMBRES_JUGADORES("nombresJugadores"),
+        LOBBY_SI_CAMBIO("lobbySiCambio"), GUARDAR_PARTIDA("guardarPartida"), CARGAR_PARTIDA("cargarPartida"),
+        REGISTRAR_RESULTADO_EN_RANKING("registrarResultadoEnRanking"), TOP5("top5"),
+        TOP5_SI_CAMBIO("top5SiCambio"), AGREGAR_OBSERVADOR("agregarObservador"),
+        REMOVER_OBSERVADOR("removerObservador");
+
+        final String metodo;
+
+        Operacion(String metodo) { this.metodo = metodo; }
+    }
+
+    private static final Operacion[] OPERACIONES = Operacion.values();
+    private static final Evento[] EVENTOS = Evento.values();
+
+    private final Histograma[] operaciones = new Histograma[OPERACIONES.length];
+    private final Histograma[] eventos = new Histograma[EVENTOS.length];
+    private final Histograma escrituraRanking = new Histograma();
+    private final Histograma guardadoPartida = new Histograma();
+    private final Histograma cargaPartida = new Histograma();
+
+    private final LongAdder partidasIniciadas = new LongAdder();
+    private final LongAdder partidasTerminadas = new LongAdder();
+
+    // ---- Fuentes que se leen al informar ----
+    private volatile Supplier<? extends Collection<ModeloParade>> salas = List::of;
+    private volatile EscritorRanking escritorRanking;
+
+    // ---- Ventana para las tasas por minuto (la cierra el volcado periódico) ----
+    private final long inicioNanos = System.nanoTime();
+    private long ventanaNanos = inicioNanos;          // guardado por this
+    private long ventanaIniciadas, ventanaTerminadas; // guardado por this
+    private volatile double iniciadasPorMinuto = Double.NaN, terminadasPorMinuto = Double.NaN;
+
+    private ScheduledExecutorService volcador;        // guardado por this
+
+    public MetricasParade() {
+        for (int i = 0; i < operaciones.length; i++) operaciones[i] = new Histograma();
+        for (int i = 0; i < eventos.length; i++) eventos[i] = new Histograma();
+    }
+
+    /** Salas cuyos despachadores se suman para observadores y eventos. */
+    void observarSalas(Supplier<? extends Collection<ModeloParade>> salas) { this.salas = salas; }
+
+    /** Escritor de ranking del que se leen pendientes y fallidas (las duraciones llegan por {@link #registrarEscrituraRanking}). */
+    void observarRanking(EscritorRanking escritor) { this.escritorRanking = escritor; }
+
+    // ---------------- Registro (camino caliente) ----------------
+
+    void registrar(Operacion op, long inicioNanos) {
+        operaciones[op.ordinal()].registrar(System.nanoTime() - inicioNanos);
+    }
+
+    void registrarEvento(Object arg, long inicioNanos) {
+        if (arg instanceof EventoParade ev) eventos[ev.getTipo().ordinal()].registrar(System.nanoTime() - inicioNanos);
+    }
+
+    void registrarEscrituraRanking(long nanos) { escrituraRanking.registrar(nanos); }
+    void registrarGuardado(long nanos) { guardadoPartida.registrar(nanos); }
+    void registrarCarga(long nanos) { cargaPartida.registrar(nanos); }
+    void partidaIniciada() { partidasIniciadas.increment(); }
+    void partidaTerminada() { partidasTerminadas.increment(); }
+
+    // ---------------- Publicación ----------------
+
+    /** Registra el MBean en el servidor de plataforma; si no se puede, sólo lo anota en el log. */
+    public void registrarJmx() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(NOMBRE_JMX));
+        } catch (JMException e) {
+            LOG.log(Level.WARNING, "No se pudo registrar el MBean " + NOMBRE_JMX, e);
+        }
+    }
+
+    /** Vuelca {@link #getInforme()} al log cada {@code segundos} (hilo daemon). */
+    public synchronized void volcarCada(long segundos) {
+        if (volcador != null || segundos <= 0) return;
+        volcador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metricas-parade");
+            t.setDaemon(true);
+            return t;
+        });
+        volcador.scheduleAtFixedRate(() -> {
+            cerrarVentana();
+            LOG.info(getInforme());
+        }, segundos, segundos, TimeUnit.SECONDS);
+    }
+
+    public synchronized void cerrar() {
+        if (volcador != null) volcador.shutdownNow();
+        volcador = null;
+    }
+
+    private synchronized void cerrarVentana() {
+        long ahora = System.nanoTime();
+        long ini = partidasIniciadas.sum(), fin = partidasTerminadas.sum();
+        double minutos = (ahora - ventanaNanos) / 60e9;
+        if (minutos > 0) {
+            iniciadasPorMinuto = (ini - ventanaIniciadas) / minutos;
+            terminadasPorMinuto = (fin - ventanaTerminadas) / minutos;
+        }
+        ventanaNanos = ahora;
+        ventanaIniciadas = ini;
+        ventanaTerminadas = fin;
+    }
+
+    private double desdeInicio(long total) {
+        double minutos = (System.nanoTime() - inicioNanos) / 60e9;
+        return minutos <= 0 ? 0 : total / minutos;
+    }
+
+    // ---------------- MBean ----------------
+
+    @Override public int getSalas() { return salas.get().size(); }
+
+    @Override
+    public int getObservadoresActivos() {
+        int n = 0;
+        for (ModeloParade m : salas.get()) n += m.eventos().getObservadores();
+        return n;
+    }
+
+    @Override
+    public int getEspectadores() {
+        int n = 0;
+        for (ModeloParade m : salas.get()) n += m.transmision().getEspectadores();
+        return n;
+    }
+
+    @Override public long getPartidasIniciadas() { return partidasIniciadas.sum(); }
+    @Override public long getPartidasTerminadas() { return partidasTerminadas.sum(); }
+
+    @Override
+    public double getPartidasIniciadasPorMinuto() {
+        double t = iniciadasPorMinuto;
+        return Double.isNaN(t) ? desdeInicio(partidasIniciadas.sum()) : t;
+    }
+
+    @Override
+    public double getPartidasTerminadasPorMinuto() {
+        double t = terminadasPorMinuto;
+        return Double.isNaN(t) ? desdeInicio(partidasTerminadas.sum()) : t;
+    }
+
+    @Override
+    public long getEventosEnviados() {
+        long n = 0;
+        for (ModeloParade m : salas.get()) n += m.eventos().getEnviados();
+        return n;
+    }
+
+    @Override
+    public long getEventosDescartados() {
+        long n = 0;
+        for (ModeloParade m : salas.get()) n += m.eventos().getDescartados();
+        return n;
+    }
+
+    @Override
+    public long getObservadoresExpulsados() {
+        long n = 0;
+        for (ModeloParade m : salas.get()) n += m.eventos().getExpulsados();
+        return n;
+    }
+
+    @Override public long getRankingEscrituras() { return escrituraRanking.instantanea().cuenta; }
+
+    @Override
+    public long getRankingEscriturasPendientes() {
+        EscritorRanking e = escritorRanking;
+        return e == null ? 0 : e.getEscriturasPendientes();
+    }
+
+    @Override
+    public long getRankingEscriturasFallidas() {
+        EscritorRanking e = escritorRanking;
+        return e == null ? 0 : e.getEscriturasFallidas();
+    }
+
+    @Override
+    public String[] getOperaciones() {
+        List<String> res = new ArrayList<>();
+        for (Operacion op : OPERACIONES) agregarLinea(res, op.metodo, operaciones[op.ordinal()]);
+        return res.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getEventos() {
+        List<String> res = new ArrayList<>();
+        for (Evento ev : EVENTOS) agregarLinea(res, ev.name(), eventos[ev.ordinal()]);
+        return res.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getDisco() {
+        List<String> res = new ArrayList<>();
+        agregarLinea(res, "escrituraRanking", escrituraRanking);
+        agregarLinea(res, "guardadoPartida", guardadoPartida);
+        agregarLinea(res, "cargaPartida", cargaPartida);
+        return res.toArray(new String[0]);
+    }
+
+    private static void agregarLinea(List<String> res, String nombre, Histograma h) {
+        Histograma.Instantanea s = h.instantanea();
+        if (s.cuenta == 0) return;
+        res.add(String.format("%-28s %9d %10.1f %10.1f %10.1f %10.1f", nombre, s.cuenta,
+                s.promedio() / 1e3, s.percentil(0.50) / 1e3, s.percentil(0.99) / 1e3, s.max / 1e3));
+    }
+
+    @Override
+    public String getInforme() {
+        var sb = new StringBuilder("Métricas Parade\n");
+        sb.append(String.format("Salas: %d  observadores activos: %d  espectadores: %d%n",
+                getSalas(), getObservadoresActivos(), getEspectadores()));
+        sb.append(String.format("Partidas: iniciadas %d (%.1f/min)  terminadas %d (%.1f/min)%n",
+                getPartidasIniciadas(), getPartidasIniciadasPorMinuto(),
+                getPartidasTerminadas(), getPartidasTerminadasPorMinuto()));
+        sb.append(String.format("Eventos: enviados %d  descartados %d  observadores expulsados %d%n",
+                getEventosEnviados(), getEventosDescartados(), getObservadoresExpulsados()));
+        sb.append(String.format("Ranking: escrituras %d  pendientes %d  fallidas %d%n",
+                getRankingEscrituras(), getRankingEscriturasPendientes(), getRankingEscriturasFallidas()));
+        String columnas = String.format("%9s %10s %10s %10s %10s", "n", "prom µs", "p50 µs", "p99 µs", "max µs");
+        seccion(sb, "Operación", columnas, getOperaciones());
+        seccion(sb, "Evento (notificar)", columnas, getEventos());
+        seccion(sb, "Disco", columnas, getDisco());
+        return sb.toString();
+    }
+
+    private static void seccion(StringBuilder sb, String titulo, String columnas, String[] lineas) {
+        if (lineas.length == 0) return;
+        sb.append(String.format("%-28s %s%n", titulo, columnas));
+        for (String l : lineas) sb.append(l).append('\n');
+    }
+
+    @Override
+    public void reiniciarHistogramas() {
+        for (Histograma h : operaciones) h.reiniciar();
+        for (Histograma h : eventos) h.reiniciar();
+        escrituraRanking.reiniciar();
+        guardadoPartida.reiniciar();
+        cargaPartida.reiniciar();
+    }
+}
@@ -0,0 +1,39 @@
+package modelo;
+
+/**
+ * Vista JMX de {@link MetricasParade} ({@code parade:type=Metricas}).
+ * Las latencias van en microsegundos; los percentiles son aproximados (cubetas en potencias de 2).
+ */
+public interface MetricasParadeMBean {
+    int getSalas();
+    int getObservadoresActivos();
+    /** Conexiones binarias que miran una sala (la transmisión de cada sala cuenta como un observador). */
+    int getEspectadores();
+
+    long getPartidasIniciadas();
+    long getPartidasTerminadas();
+    /** Tasa del último intervalo de volcado (o desde el arranque si todavía no hubo uno). */
+    double getPartidasIniciadasPorMinuto();
+    double getPartidasTerminadasPorMinuto();
+
+    long getEventosEnviados();
+    long getEventosDescartados();
+    long getObservadoresExpulsados();
+
+    long getRankingEscrituras();
+    long getRankingEscriturasPendientes();
+    long getRankingEscriturasFallidas();
+
+    /** Una línea por operación de {@link IParade} con llamadas: n, promedio, p50, p99 y máximo. */
+    String[] getOperaciones();
+    /** Una línea por tipo de evento: tiempo en {@code notificarObservadores} (encolar en el despachador). */
+    String[] getEventos();
+    /** Una línea por medición de disco: escritura de ranking, guardado y carga de partida. */
+    String[] getDisco();
+
+    /** El mismo texto que se vuelca periódicamente al log. */
+    String getInforme();
+
+    /** Vacía los histogramas (los contadores de partidas y eventos no se tocan). */
+    void reiniciarHistogramas();
+}
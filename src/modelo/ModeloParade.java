@@ -1,8 +1,11 @@
 package modelo;
 
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
 import ar.edu.unlu.rmimvc.observer.ObservableRemoto;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.rmi.RemoteException;
 import java.util.*;
 import java.util.logging.Level;
@@ -17,8 +20,11 @@ import java.io.Serial;
  * - Encadenar jugadas y transición a última ronda / fin de partida.
  * - Persistir/leer ranking y guardar/cargar estado de partida en disco.
  * - Exponer consultas de lectura (manos, carnaval, recogidas, puntajes, ranking).
+ * Concurrencia: las operaciones que modifican la sala se encolan en su {@link ColaComandos} y las
+ * aplica un único hilo escritor; al cerrar cada lote se publica un {@link EstadoSala} inmutable del
+ * que leen las consultas sin locks, y recién después salen los eventos del lote.
  */
-public class ModeloParade extends ObservableRemoto implements IParade, Serializable {
+public final class ModeloParade extends ObservableRemoto implements IParade, Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
     private static final Logger LOG = Logger.getLogger(ModeloParade.class.getName());
@@ -27,44 +33,209 @@ public class ModeloParade extends ObservableRemoto implements IParade, Serializa
     private static final String RANK_FILE = "ranking.dat";
 
     // ---- Estado de dominio (partida en curso) ----
+    // Cada instancia es una sala: sólo su escritor (ver {@link ColaComandos}) toca estos objetos.
     private final EstadoPartida estado = new EstadoPartida();
+    private final transient MotorPartida motor = new MotorPartida(estado);
     private final Random rng = new Random();
 
-    // ---- Ranking persistente ----
-    private final TablaClasificacion tablaRanking = new TablaClasificacion();
+    // ---- Versiones del estado; el escritor publica una foto nueva cuando cambian ----
+    private long version = 0;
+    /** Versión de jugadores/inicio de partida (ver {@link #lobbySiCambio}). */
+    private long versionLobby = 0;
+    /** Hubo cambios desde la última {@link EstadoSala} publicada. */
+    private boolean sucio;
+    /** Última foto publicada: todas las consultas leen de acá. */
+    private transient volatile EstadoSala actual;
+    /** Eventos del lote en curso; salen después de publicar la foto que los refleja. */
+    private final transient List<Object> pendientes = new ArrayList<>();
+    /** Escritor único de la sala. */
+    private final transient ColaComandos comandos;
+    /** Buffer reutilizable para el cálculo de puntajes (crece con la cantidad de jugadores). */
+    private int[] bufferPuntajes = new int[2];
+
+    /** Colas y emisores por observador (ver {@link #notificarObservadores}). Se crean al final del constructor. */
+    private final transient DespachadorEventos despachador;
+    private final transient TransmisionSala transmision;
+
+    // ---- Secuencia de eventos emitidos por esta sala (detecta huecos en los clientes) ----
+    private long secuencia = 0;
+
+    // ---- Ranking persistente (compartido entre salas) ----
+    private final TablaClasificacion tablaRanking;
+    private final transient EscritorRanking escritorRanking;
+    // ---- Bitácora de jugadas para recuperar la sala si el servidor cae (opcional) ----
+    private final transient BitacoraPartida bitacora;
+
+    // ---- Grabación de la partida en curso (semilla + jugadas) para reproducirla ----
+    private final transient GrabadorPartidas grabador;
+    private long semillaPartida;
+    private int mesaPartida, porJugadorPartida;
+    private int[] jugadasPartida = new int[Carta.TOTAL];
+    private int cantJugadas;
+    /** false si la partida no empezó con iniciarPartida (p. ej. se cargó de disco): no hay semilla que grabar. */
+    private boolean grabando;
+
+    /** Evita registrar dos veces el resultado de la misma partida. */
+    private boolean resultadoRegistrado;
+
+    /** Latencias por operación y evento (compartidas entre salas; ver {@link MetricasParade}). */
+    private final transient MetricasParade metricas;
 
     public ModeloParade() throws RemoteException {
-        // Carga “best effort”: si falla/ no existe, queda vacío sin romper el server.
-        tablaRanking.cargarDe(RANK_FILE);
+        this(cargarRanking());
+    }
+
+    private ModeloParade(TablaClasificacion tablaRanking) throws RemoteException {
+        this("local", tablaRanking, escritorPara(tablaRanking), null, null, new MetricasParade());
+    }
+
+    /**
+     * Sala que comparte la tabla de ranking (y su escritor) con otras salas del mismo servidor.
+     * @param id       id de la sala (nombra al hilo escritor)
+     * @param bitacora bitácora de recuperación ante caídas; null para una sala sin persistencia
+     * @param grabador destino de las partidas terminadas (semilla + jugadas); null para no grabarlas
+     * @param metricas métricas del servidor donde se registran las operaciones de esta sala
+     */
+    ModeloParade(String id, TablaClasificacion tablaRanking, EscritorRanking escritorRanking,
+                 BitacoraPartida bitacora, GrabadorPartidas grabador, MetricasParade metricas) throws RemoteException {
+        this.tablaRanking = tablaRanking;
+        this.escritorRanking = escritorRanking;
+        this.bitacora = bitacora;
+        this.grabador = grabador;
+        this.metricas = metricas;
+        this.comandos = new ColaComandos(id, this::publicar);
+        this.actual = EstadoSala.de(estado, false, calcularPuntajes(), version, versionLobby, null);
+        this.despachador = new DespachadorEventos(this); // la sala ya está completa
+        this.transmision = new TransmisionSala(despachador);
+    }
+
+    /** Carga “best effort”: si falla/ no existe, queda vacío sin romper el server. */
+    static TablaClasificacion cargarRanking() {
+        TablaClasificacion t = new TablaClasificacion();
+        t.cargarDe(RANK_FILE);
+        return t;
+    }
+
+    /** Escritor en segundo plano para el archivo de ranking por defecto. */
+    static EscritorRanking escritorPara(TablaClasificacion t) {
+        return new EscritorRanking(t, RANK_FILE);
+    }
+
+    /** Puntajes actuales en el buffer reutilizable (válidos en las primeras n posiciones). */
+    private int[] calcularPuntajes() {
+        int n = estado.getJugadores().size();
+        if (bufferPuntajes.length < n) bufferPuntajes = new int[n];
+        motor.puntajes(bufferPuntajes);
+        return bufferPuntajes;
+    }
+
+    /** Toma un checkpoint si la bitácora lo pide (sólo serializa a memoria; el disco es del volcador). */
+    private void checkpointSiCorresponde() {
+        if (bitacora != null && bitacora.requiereCheckpoint()) bitacora.checkpoint(estado);
+    }
+
+    /**
+     * Reconstruye la sala desde su último checkpoint más la cola de la bitácora.
+     * Si falla (IOException) la sala queda como estaba, vacía, y la bitácora ilegible queda apartada.
+     * @return true si había una partida (o lobby) que recuperar
+     */
+    boolean recuperar() throws IOException {
+        try {
+            return comandos.ejecutar(() -> {
+                try {
+                    if (bitacora == null || !bitacora.recuperar(estado)) return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                versionLobby++;
+                cambioDeEstado();
+                return true;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Descarta la bitácora de la sala (al cerrarla). */
+    void descartarBitacora() {
+        try {
+            comandos.ejecutar(() -> {
+                if (bitacora != null) bitacora.borrar();
+                return null;
+            });
+        } catch (RemoteException e) {
+            LOG.log(Level.WARNING, "No se pudo descartar la bitácora de la sala", e);
+        }
+    }
+
+    /** Deja de aceptar operaciones y corta los emisores de eventos (al cerrar la sala). */
+    void cerrar() {
+        comandos.cerrar();
+        despachador.cerrar();
+        transmision.cerrar();
+    }
+
+    /** Despachador de la sala (observadores activos y contadores para {@link MetricasParade}). */
+    DespachadorEventos eventos() { return despachador; }
+
+    /** Difusión a los espectadores del transporte binario (un solo observador del despachador). */
+    TransmisionSala transmision() { return transmision; }
+
+    /** Registra el resultado de la partida actual una sola vez y encola su persistencia. */
+    private void registrarResultado() {
+        if (resultadoRegistrado) return;
+        resultadoRegistrado = true;
+        tablaRanking.registrarResultado(puntajesFinales());
+        escritorRanking.solicitar(); // el disco queda fuera de la llamada remota
     }
 
     // ---------------- Helpers internos ----------------
 
-    /** Construye y mezcla el mazo de Parade. */
-    private List<Carta> generarMazo() {
-        List<Carta> mazo = new ArrayList<>();
-        for (ColorCarta c : ColorCarta.values()) {
-            for (int v = 0; v <= 10; v++) {
-                mazo.add(new Carta(c, v));
-            }
+    /** Marca un cambio de estado: nueva versión, que se publica al cerrar el lote. */
+    private void cambioDeEstado() {
+        version++;
+        sucio = true;
+    }
+
+    /**
+     * Fin de lote (en el escritor): publica la foto si hubo cambios y después despacha los eventos
+     * del lote, así un cliente que reacciona a un evento ya lee el estado que lo produjo.
+     */
+    private void publicar() {
+        if (sucio) {
+            actual = EstadoSala.de(estado, motor.esFinDePartida(), calcularPuntajes(), version, versionLobby, actual);
+            sucio = false;
         }
-        Collections.shuffle(mazo, rng);
-        return mazo;
+        for (Object ev : pendientes) despachar(ev);
+        pendientes.clear();
+    }
+
+    private void despachar(Object arg) {
+        long t0 = System.nanoTime();
+        despachador.publicar(arg);
+        metricas.registrarEvento(arg, t0);
     }
 
-    /** ¿El jugador recolectó al menos una carta de los seis colores? */
-    private boolean jugadorTieneSeisColores(Jugador j) {
-        EnumSet<ColorCarta> colores = EnumSet.noneOf(ColorCarta.class);
-        for (Carta c : j.getRecolectadas()) colores.add(c.getColor());
-        return colores.size() == ColorCarta.values().length;
+    /** Emite un evento sin delta con la secuencia/versión actuales. */
+    private void emitir(Evento tipo) throws RemoteException {
+        notificarObservadores(EventoParade.simple(tipo, ++secuencia, version, estado.getMazo().size(),
+                versionLobby, tablaRanking.getVersion()));
     }
 
-    /** Toma un snapshot de puntajes actuales y los mapea a nombres. */
+    /** Puntajes de la última foto publicada, mapeados a nombres. */
     public Map<String, Integer> calcularPuntajesFinales() {
+        EstadoSala a = actual;
+        Map<String, Integer> pts = new LinkedHashMap<>();
+        for (int i = 0; i < a.nombres.size(); i++) pts.put(a.nombres.get(i), a.puntajes.get(i));
+        return pts;
+    }
+
+    /** Como {@link #calcularPuntajesFinales()} pero sobre el estado vivo (sólo desde el escritor). */
+    private Map<String, Integer> puntajesFinales() {
         Map<String, Integer> pts = new LinkedHashMap<>();
-        List<String> nombres = nombresJugadores();
-        List<Integer> valores = puntajesPorJugador();
-        for (int i = 0; i < nombres.size(); i++) pts.put(nombres.get(i), valores.get(i));
+        List<Jugador> js = estado.getJugadores();
+        int[] valores = calcularPuntajes();
+        for (int i = 0; i < js.size(); i++) pts.put(js.get(i).getNombre(), valores[i]);
         return pts;
     }
 
@@ -73,26 +244,71 @@ public class ModeloParade extends ObservableRemoto implements IParade, Serializa
      * Emite: PUNTAJES_FINALES y RANKING_ACTUALIZADO.
      */
     public void finalizarPartidaSiCorresponde() throws RemoteException {
+        comandos.ejecutar(() -> {
+            finalizarSiCorresponde();
+            return null;
+        });
+    }
+
+    private void finalizarSiCorresponde() throws RemoteException {
         boolean sinMazo = estado.getMazo().isEmpty();
-        boolean manosVacias = estado.getJugadores().stream().allMatch(j -> j.getMano().isEmpty());
-        if (sinMazo || manosVacias || esFinDePartida()) {
-            Map<String, Integer> puntajes = calcularPuntajesFinales();
-            tablaRanking.registrarResultado(puntajes);
-            tablaRanking.guardarEn(RANK_FILE); // persistencia best-effort
-
-            notificarObservadores(Evento.PUNTAJES_FINALES);
-            notificarObservadores(Evento.RANKING_ACTUALIZADO);
+        boolean manosVacias = estado.getJugadores().stream().allMatch(j -> j.getMano().estaVacio());
+        if (sinMazo || manosVacias || motor.esFinDePartida()) {
+            registrarResultado();
+
+            emitir(Evento.PUNTAJES_FINALES);
+            emitir(Evento.RANKING_ACTUALIZADO);
         }
     }
 
+    // ---------------- Observadores (lista compartida por hilos RMI) ----------------
+
+    /**
+     * Los observadores no se notifican en línea: cada uno tiene su cola y su emisor en el
+     * {@link DespachadorEventos}, así que un cliente lento o caído no frena la jugada.
+     */
+    @Override
+    public void agregarObservador(IObservadorRemoto o) throws RemoteException {
+        long t0 = System.nanoTime();
+        try { despachador.agregar(o); } finally { metricas.registrar(MetricasParade.Operacion.AGREGAR_OBSERVADOR, t0); }
+    }
+
+    @Override
+    public void removerObservador(IObservadorRemoto o) throws RemoteException {
+        long t0 = System.nanoTime();
+        try { despachador.quitar(o); } finally { metricas.registrar(MetricasParade.Operacion.REMOVER_OBSERVADOR, t0); }
+    }
+
+    /** Desde el escritor el evento espera al fin del lote (ver {@link #publicar()}); si no, sale ya. */
+    @Override
+    public void notificarObservadores(Object arg) throws RemoteException {
+        if (comandos.enEscritor()) pendientes.add(arg);
+        else despachar(arg);
+    }
+
+    @Override
+    public void notificarObservadores() throws RemoteException {
+        despachador.publicar(null);
+    }
+
     // ---------------- Implementación IParade ----------------
+    // Cada operación remota se mide de punta a punta. Las que escriben pasan por el escritor de la sala
+    // (la medición incluye la espera en su cola); las consultas leen la última EstadoSala publicada.
 
     /** Alta de jugador. No se permite si la partida ya inició. */
     @Override
     public int unirJugador(String nombre) throws RemoteException {
+        long t0 = System.nanoTime();
+        try { return comandos.ejecutar(() -> unir(nombre)); } finally { metricas.registrar(MetricasParade.Operacion.UNIR_JUGADOR, t0); }
+    }
+
+    private int unir(String nombre) throws RemoteException {
         if (estado.isIniciada()) {
             throw new RemoteException("La partida ya está iniciada. No se pueden unir jugadores nuevos.");
         }
+        if (nombre.getBytes(StandardCharsets.UTF_8).length > Jugador.MAX_NOMBRE) {
+            throw new RemoteException("El nombre es demasiado largo (máximo " + Jugador.MAX_NOMBRE + " bytes).");
+        }
         for (Jugador j : estado.getJugadores()) {
             if (j.getNombre().equalsIgnoreCase(nombre)) {
                 throw new RemoteException("Ya existe un jugador con ese nombre.");
@@ -100,215 +316,197 @@ public class ModeloParade extends ObservableRemoto implements IParade, Serializa
         }
         int id = estado.getJugadores().size();
         estado.getJugadores().add(new Jugador(id, nombre));
+        if (bitacora != null) bitacora.unir(nombre);
+        versionLobby++;
+        cambioDeEstado();
 
-        notificarObservadores(Evento.JUGADOR_UNIDO); // UI: refrescar lobby
+        notificarObservadores(EventoParade.jugadorUnido(++secuencia, version, estado.getMazo().size(),
+                versionLobby, tablaRanking.getVersion(), id, nombre)); // UI: refrescar lobby
         return id;
     }
 
     /** Inicializa mazo/mesa/manos y marca inicio de partida. */
     @Override
     public void iniciarPartida(int cartasInicialMesa, int cartasPorJugador) throws RemoteException {
-        estado.getMazo().clear();
-        estado.getMazo().addAll(generarMazo());
-        estado.getCarnaval().clear();
-        estado.setUltimaRonda(false);
-        estado.setTurnoActual(0);
+        long t0 = System.nanoTime();
+        try {
+            comandos.ejecutar(() -> {
+                iniciar(cartasInicialMesa, cartasPorJugador);
+                return null;
+            });
+        } finally { metricas.registrar(MetricasParade.Operacion.INICIAR_PARTIDA, t0); }
+    }
 
-        for (Jugador j : estado.getJugadores()) {
-            j.getMano().clear();
-            j.getRecolectadas().clear();
-            for (int k = 0; k < cartasPorJugador && !estado.getMazo().isEmpty(); k++) {
-                j.getMano().add(estado.getMazo().pop());
-            }
-        }
-        for (int i = 0; i < cartasInicialMesa && !estado.getMazo().isEmpty(); i++) {
-            estado.getCarnaval().add(estado.getMazo().pop());
+    private void iniciar(int cartasInicialMesa, int cartasPorJugador) throws RemoteException {
+        long semilla = rng.nextLong(); // la semilla reproduce el reparto (recuperación y grabación)
+        motor.iniciar(cartasInicialMesa, cartasPorJugador, new Random(semilla));
+        semillaPartida = semilla;
+        mesaPartida = cartasInicialMesa;
+        porJugadorPartida = cartasPorJugador;
+        cantJugadas = 0;
+        grabando = true;
+        if (bitacora != null) {
+            bitacora.iniciar(cartasInicialMesa, cartasPorJugador, semilla);
+            checkpointSiCorresponde();
         }
-
-        estado.setIniciada(true);
-        notificarObservadores(Evento.INICIO_PARTIDA); // UI: render manos/carnaval/turno
+        resultadoRegistrado = false;
+        versionLobby++;
+        cambioDeEstado();
+        metricas.partidaIniciada();
+        emitir(Evento.INICIO_PARTIDA); // UI: render manos/carnaval/turno
     }
 
-    @Override public boolean partidaIniciada() { return estado.isIniciada(); }
+    @Override
+    public boolean partidaIniciada() {
+        long t0 = System.nanoTime();
+        try { return actual.iniciada; }
+        finally { metricas.registrar(MetricasParade.Operacion.PARTIDA_INICIADA, t0); }
+    }
 
     /**
-     * Orquesta la jugada: valida con simulación, aplica cambios reales,
-     * roba carta si corresponde, puede disparar última ronda y avanza turno.
+     * Orquesta la jugada sobre el {@link MotorPartida}: aplica reglas, roba si corresponde,
+     * puede disparar última ronda y avanza turno; después notifica.
      * Emite: CARTA_JUGADA, ULTIMA_RONDA (si aplica) y FIN_PARTIDA (si cierra).
      */
     @Override
     public void jugarCarta(int idJugador, int indiceEnMano) throws RemoteException {
-        if (estado.getJugadores().isEmpty()) return;
-        if (estado.getTurnoActual() != idJugador) return;
-
-        Jugador j = estado.getJugadores().get(idJugador);
-        if (indiceEnMano < 0 || indiceEnMano >= j.getMano().size()) return;
-
-        // --- Validación por simulación (no muta estado real) ---
-        List<Carta> carnavalAntes = new ArrayList<>(estado.getCarnaval());
-        Carta jugada = j.getMano().get(indiceEnMano);
-
-        List<Carta> carnavalSim = new ArrayList<>(carnavalAntes);
-        carnavalSim.add(jugada);
-
-        List<Carta> retiradasSim = calcularRetiradas(carnavalSim, jugada);
-        List<Carta> carnavalDespuesSim = new ArrayList<>(carnavalSim);
-        carnavalDespuesSim.removeAll(retiradasSim);
-
-        assertJugadaValida(carnavalAntes, jugada, retiradasSim, carnavalDespuesSim);
-
-        // --- Commit real ---
-        j.getMano().remove(indiceEnMano);
-        recoger(j, jugada);
+        long t0 = System.nanoTime();
+        try {
+            comandos.ejecutar(() -> {
+                jugar(idJugador, indiceEnMano);
+                return null;
+            });
+        } finally { metricas.registrar(MetricasParade.Operacion.JUGAR_CARTA, t0); }
+    }
 
-        // Robo sólo si NO estamos en última ronda y queda mazo
-        if (!estado.isUltimaRonda() && !estado.getMazo().isEmpty()) {
-            j.getMano().add(estado.getMazo().pop());
+    private void jugar(int idJugador, int indiceEnMano) throws RemoteException {
+        int r = motor.jugar(idJugador, indiceEnMano);
+        if (r == MotorPartida.INVALIDA) return;
+        if (cantJugadas == jugadasPartida.length) jugadasPartida = Arrays.copyOf(jugadasPartida, cantJugadas * 2);
+        jugadasPartida[cantJugadas++] = indiceEnMano;
+        if (bitacora != null) {
+            bitacora.jugar(idJugador, indiceEnMano);
+            checkpointSiCorresponde();
         }
 
-        // Disparo “última ronda” en el momento exacto en que el jugador toca 6 colores
-        // o cuando el mazo se agota.
-        if (!estado.isUltimaRonda() && (jugadorTieneSeisColores(j) || estado.getMazo().isEmpty())) {
-            estado.setUltimaRonda(true);
-            notificarObservadores(Evento.ULTIMA_RONDA);
+        if ((r & MotorPartida.ULTIMA_RONDA) != 0) {
+            emitir(Evento.ULTIMA_RONDA);
         }
 
-        // Avanza turno y notifica jugada
-        estado.setTurnoActual((estado.getTurnoActual() + 1) % estado.getJugadores().size());
-        notificarObservadores(Evento.CARTA_JUGADA);
+        // Notifica jugada (el turno ya avanzó)
+        cambioDeEstado();
+        notificarObservadores(EventoParade.cartaJugada(++secuencia, version, estado.getMazo().size(),
+                versionLobby, tablaRanking.getVersion(), idJugador, estado.getJugadores().get(idJugador).getNombre(), motor.getUltimaJugada(),
+                motor.getRetiradas(), motor.getCantRetiradas(), motor.isUltimoRobo(),
+                estado.getTurnoActual(), turnoNombre(), estado.isUltimaRonda()));
 
         // Cierre de partida
-        if (esFinDePartida()) {
-            finalizarPartidaSiCorresponde();
-            notificarObservadores(Evento.FIN_PARTIDA);
+        if ((r & MotorPartida.FIN) != 0) {
+            if (grabador != null && grabando) {
+                grabador.grabar(PartidaGrabada.de(semillaPartida, mesaPartida, porJugadorPartida,
+                        jugadasPartida, cantJugadas, estado, calcularPuntajes()));
+                grabando = false;
+            }
+            metricas.partidaTerminada();
+            finalizarSiCorresponde();
+            emitir(Evento.FIN_PARTIDA);
         }
     }
 
-    // ---------------- Reglas internas (dominio) ----------------
-    /** Calcula las cartas a retirar según reglas de Parade para una jugada dada. */
-    private List<Carta> calcularRetiradas(List<Carta> carnavalConJugada, Carta jugada) {
-        final int prev = carnavalConJugada.size() - 1; // cantidad previa a la jugada
-        final int v = jugada.getValor();
-
-        if (prev <= v) return List.of(); // no se retira nada
+    // ---------------- Consultas / utilidades ----------------
 
-        final int evaluadas = prev - v; // se evalúan SOLO las primeras (prev - v)
-        List<Carta> retiradas = new ArrayList<>(evaluadas);
-        for (int i = 0; i < evaluadas; i++) {
-            Carta c = carnavalConJugada.get(i);
-            if (c.getColor() == jugada.getColor() || c.getValor() <= v) {
-                retiradas.add(c);
-            }
-        }
-        return retiradas;
+    @Override
+    public List<Carta> obtenerMano(int idJugador) {
+        long t0 = System.nanoTime();
+        try { return actual.manos.get(idJugador); }
+        finally { metricas.registrar(MetricasParade.Operacion.OBTENER_MANO, t0); }
     }
 
+    @Override
+    public List<Carta> obtenerCarnaval() {
+        long t0 = System.nanoTime();
+        try { return actual.carnaval; }
+        finally { metricas.registrar(MetricasParade.Operacion.OBTENER_CARNAVAL, t0); }
+    }
 
-    /** Aplica la jugada real: agrega la carta al carnaval y mueve retiradas al jugador. */
-    private void recoger(Jugador jugador, Carta jugada) {
-        estado.getCarnaval().add(jugada);
-        List<Carta> carnavalSim = new ArrayList<>(estado.getCarnaval());
-        List<Carta> retiradas = calcularRetiradas(carnavalSim, jugada);
-        aplicarRetiradas(estado.getCarnaval(), jugador, retiradas);
+    @Override
+    public String obtenerTurnoNombre() {
+        long t0 = System.nanoTime();
+        try { return actual.turnoNombre; }
+        finally { metricas.registrar(MetricasParade.Operacion.OBTENER_TURNO_NOMBRE, t0); }
     }
 
-    private void aplicarRetiradas(List<Carta> carnavalReal, Jugador jugador, List<Carta> retiradas) {
-        if (retiradas == null || retiradas.isEmpty()) return;
-        carnavalReal.removeAll(retiradas);
-        jugador.agregarRecogidas(retiradas);
+    private String turnoNombre() { return estado.getJugadores().get(estado.getTurnoActual()).getNombre(); }
+
+    @Override
+    public List<Carta> obtenerRecolectadas(int idJugador) {
+        long t0 = System.nanoTime();
+        try { return actual.pilas.get(idJugador); }
+        finally { metricas.registrar(MetricasParade.Operacion.OBTENER_RECOLECTADAS, t0); }
     }
 
-    /** Invariantes de seguridad para la jugada. */
-    private void assertJugadaValida(List<Carta> carnavalAntes,
-                                    Carta jugada,
-                                    List<Carta> retiradas,
-                                    List<Carta> carnavalDespues) {
-        int expectedSize = carnavalAntes.size() + 1 - retiradas.size();
-        if (carnavalDespues.size() != expectedSize) {
-            throw new IllegalStateException("Cardinalidad inválida tras la jugada.");
-        }
-        for (Carta c : retiradas) {
-            if (!carnavalAntes.contains(c)) {
-                throw new IllegalStateException("Se retira una carta que no estaba en el carnaval.");
-            }
-        }
-        List<Carta> recomputeBase = new ArrayList<>(carnavalAntes);
-        recomputeBase.add(jugada);
-        List<Carta> check = calcularRetiradas(recomputeBase, jugada);
-        if (check.size() != retiradas.size() || !new HashSet<>(check).equals(new HashSet<>(retiradas))) {
-            throw new IllegalStateException("Retiradas no coinciden con el cálculo de reglas.");
-        }
+    @Override
+    public List<List<Carta>> obtenerRecolectadasTodos() {
+        long t0 = System.nanoTime();
+        try { return actual.pilas; }
+        finally { metricas.registrar(MetricasParade.Operacion.OBTENER_RECOLECTADAS_TODOS, t0); }
     }
 
-    // ---------------- Consultas / utilidades ----------------
+    @Override
+    public boolean esUltimaRonda() {
+        long t0 = System.nanoTime();
+        try { return actual.ultimaRonda; }
+        finally { metricas.registrar(MetricasParade.Operacion.ES_ULTIMA_RONDA, t0); }
+    }
 
-    @Override public List<Carta> obtenerMano(int idJugador) { return List.copyOf(estado.getJugadores().get(idJugador).getMano()); }
-    @Override public List<Carta> obtenerCarnaval() { return List.copyOf(estado.getCarnaval()); }
-    @Override public String obtenerTurnoNombre() { return estado.getJugadores().get(estado.getTurnoActual()).getNombre(); }
-    @Override public List<Carta> obtenerRecolectadas(int idJugador) { return List.copyOf(estado.getJugadores().get(idJugador).getRecolectadas()); }
-    @Override public List<List<Carta>> obtenerRecolectadasTodos() {
-        List<List<Carta>> res = new ArrayList<>();
-        for (Jugador j : estado.getJugadores()) res.add(List.copyOf(j.getRecolectadas()));
-        return res;
+    @Override
+    public SnapshotJugador obtenerSnapshot(int idJugador) {
+        long t0 = System.nanoTime();
+        try { return actual.snapshot(idJugador); }
+        finally { metricas.registrar(MetricasParade.Operacion.OBTENER_SNAPSHOT, t0); }
     }
-    @Override public boolean esUltimaRonda() { return estado.isUltimaRonda(); }
 
     /** Fin de partida: última ronda activada y todas las manos en 4. */
     @Override
     public boolean esFinDePartida() {
-        boolean manosEn4 = estado.getJugadores().stream().allMatch(j -> j.getMano().size() == 4);
-        return estado.isUltimaRonda() && manosEn4;
+        long t0 = System.nanoTime();
+        try { return actual.finDePartida; }
+        finally { metricas.registrar(MetricasParade.Operacion.ES_FIN_DE_PARTIDA, t0); }
     }
 
-    /** Cálculo de puntajes siguiendo reglas de 2 jugadores. */
+    /**
+     * Puntajes actuales con {@link ReglasParade#puntajes}: usa los conteos por color que cada
+     * jugador mantiene al recoger, sin recorrer las pilas.
+     */
     @Override
     public List<Integer> puntajesPorJugador() {
-        Map<ColorCarta, List<Integer>> conteo = new EnumMap<>(ColorCarta.class);
-        for (ColorCarta c : ColorCarta.values()) {
-            conteo.put(c, new ArrayList<>(Collections.nCopies(estado.getJugadores().size(), 0)));
-        }
-        List<Integer> sumaValores = new ArrayList<>(Collections.nCopies(estado.getJugadores().size(), 0));
-
-        for (int i = 0; i < estado.getJugadores().size(); i++) {
-            for (Carta k : estado.getJugadores().get(i).getRecolectadas()) {
-                conteo.get(k.getColor()).set(i, conteo.get(k.getColor()).get(i) + 1);
-                sumaValores.set(i, sumaValores.get(i) + k.getValor());
-            }
-        }
-
-        List<Integer> puntos = new ArrayList<>(Collections.nCopies(estado.getJugadores().size(), 0));
-        for (ColorCarta c : ColorCarta.values()) {
-            List<Integer> xs = conteo.get(c);
-            int max = xs.stream().mapToInt(Integer::intValue).max().orElse(0);
-
-            if (estado.getJugadores().size() == 2) { // regla especial 2p
-                int a = xs.get(0), b = xs.get(1);
-                if (a >= b + 2) puntos.set(0, puntos.get(0) + a);
-                else if (b >= a + 2) puntos.set(1, puntos.get(1) + b);
-            } else { // (no usamos, pero queda correcto para >2)
-                for (int i = 0; i < xs.size(); i++) if (xs.get(i) == max && max > 0) {
-                    puntos.set(i, puntos.get(i) + xs.get(i));
-                }
-            }
-        }
-        for (int i = 0; i < puntos.size(); i++) puntos.set(i, puntos.get(i) + sumaValores.get(i));
-        return puntos;
+        long t0 = System.nanoTime();
+        try { return actual.puntajes; }
+        finally { metricas.registrar(MetricasParade.Operacion.PUNTAJES_POR_JUGADOR, t0); }
     }
 
-    @Override public List<String> nombresJugadores() {
-        List<String> n = new ArrayList<>();
-        for (Jugador j : estado.getJugadores()) n.add(j.getNombre());
-        return n;
+    @Override
+    public List<String> nombresJugadores() {
+        long t0 = System.nanoTime();
+        try { return actual.nombres; }
+        finally { metricas.registrar(MetricasParade.Operacion.NOMBRES_JUGADORES, t0); }
     }
 
     // ---------------- Guardar/Cargar partida (simple) ----------------
 
-    /** Serializa el {@link EstadoPartida} a disco. No valida jugadores conectados. */
+    /** Guarda el {@link EstadoPartida} en el formato binario de {@link FormatoPartida}. No valida jugadores conectados. */
     @Override
-    public boolean guardarPartida(String archivo) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(archivo))) {
-            oos.writeObject(estado);
-            notificarObservadores(Evento.MENSAJE);
+    public boolean guardarPartida(String archivo) throws RemoteException {
+        long t0 = System.nanoTime();
+        try { return comandos.ejecutar(() -> guardar(archivo)); } finally { metricas.registrar(MetricasParade.Operacion.GUARDAR_PARTIDA, t0); }
+    }
+
+    private boolean guardar(String archivo) throws RemoteException {
+        try {
+            long t0 = System.nanoTime();
+            FormatoPartida.escribir(estado, Path.of(archivo));
+            metricas.registrarGuardado(System.nanoTime() - t0);
+            emitir(Evento.MENSAJE);
             return true;
         } catch (IOException e) {
             LOG.log(Level.SEVERE, "Error guardando partida en " + archivo, e);
@@ -316,21 +514,36 @@ public class ModeloParade extends ObservableRemoto implements IParade, Serializa
         }
     }
 
-    /** Carga el {@link EstadoPartida} desde disco y notifica inicio para que la UI reconstruya. */
+    /**
+     * Carga el {@link EstadoPartida} desde disco (formato binario o .ser viejo) y notifica inicio
+     * para que la UI reconstruya.
+     */
     @Override
-    public boolean cargarPartida(String archivo) {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(archivo))) {
-            EstadoPartida e = (EstadoPartida) ois.readObject();
+    public boolean cargarPartida(String archivo) throws RemoteException {
+        long t0 = System.nanoTime();
+        try { return comandos.ejecutar(() -> cargar(archivo)); } finally { metricas.registrar(MetricasParade.Operacion.CARGAR_PARTIDA, t0); }
+    }
+
+    private boolean cargar(String archivo) throws RemoteException {
+        try {
+            long t0 = System.nanoTime();
+            EstadoPartida e = FormatoPartida.leer(Path.of(archivo));
+            metricas.registrarCarga(System.nanoTime() - t0);
             estado.getJugadores().clear(); estado.getJugadores().addAll(e.getJugadores());
             estado.getMazo().clear();      estado.getMazo().addAll(e.getMazo());
             estado.getCarnaval().clear();  estado.getCarnaval().addAll(e.getCarnaval());
             estado.setTurnoActual(e.getTurnoActual());
             estado.setUltimaRonda(e.isUltimaRonda());
             estado.setIniciada(true);
+            if (bitacora != null) bitacora.checkpoint(estado); // la bitácora no puede describir una carga
+            grabando = false;
+            resultadoRegistrado = false;
+            versionLobby++;
+            cambioDeEstado();
 
-            notificarObservadores(Evento.INICIO_PARTIDA); // UI: reconstruir vistas con el snapshot
+            emitir(Evento.INICIO_PARTIDA); // UI: reconstruir vistas con el snapshot
             return true;
-        } catch (IOException | ClassNotFoundException ex) {
+        } catch (IOException ex) {
             LOG.log(Level.SEVERE, "Error cargando partida desde " + archivo, ex);
             return false;
         }
@@ -338,14 +551,57 @@ public class ModeloParade extends ObservableRemoto implements IParade, Serializa
 
     // ---------------- Ranking ----------------
 
-    /** Registra snapshot de resultados y persiste Top-5. */
+    /** Registra snapshot de resultados y persiste Top-5 (no duplica si la partida ya se registró al terminar). */
     @Override
     public void registrarResultadoEnRanking() throws RemoteException {
-        Map<String, Integer> puntajes = calcularPuntajesFinales();
-        tablaRanking.registrarResultado(puntajes);
-        tablaRanking.guardarEn(RANK_FILE);
-        notificarObservadores(Evento.RANKING_ACTUALIZADO);
+        long t0 = System.nanoTime();
+        try {
+            comandos.ejecutar(() -> {
+                registrarEnRanking();
+                return null;
+            });
+        }
+        finally { metricas.registrar(MetricasParade.Operacion.REGISTRAR_RESULTADO_EN_RANKING, t0); }
+    }
+
+    private void registrarEnRanking() throws RemoteException {
+        if (resultadoRegistrado) return;
+        registrarResultado();
+        emitir(Evento.RANKING_ACTUALIZADO);
+    }
+
+    @Override
+    public List<EntradaRanking> top5() {
+        long t0 = System.nanoTime();
+        try { return tablaRanking.top5(); } finally { metricas.registrar(MetricasParade.Operacion.TOP5, t0); }
     }
 
-    @Override public List<EntradaRanking> top5() { return tablaRanking.top5(); }
+    @Override
+    public EstadoLobby lobbySiCambio(long versionCliente) {
+        long t0 = System.nanoTime();
+        try {
+            EstadoSala a = actual;
+            if (versionCliente == a.versionLobby) return null;
+            return new EstadoLobby(a.versionLobby, a.nombres, a.iniciada);
+        } finally {
+            metricas.registrar(MetricasParade.Operacion.LOBBY_SI_CAMBIO, t0);
+        }
+    }
+
+    /** Sin lock de sala: versión y Top se leen de la tabla (ver {@link TablaClasificacion#getVersion()}). */
+    @Override
+    public EstadoRanking top5SiCambio(long versionCliente) {
+        long t0 = System.nanoTime();
+        try {
+            long v;
+            List<EntradaRanking> top;
+            do { // versión y Top consistentes aunque otra sala publique en el medio
+                v = tablaRanking.getVersion();
+                top = tablaRanking.top5();
+            } while (v != tablaRanking.getVersion());
+            return v == versionCliente ? null : new EstadoRanking(v, top);
+        } finally {
+            metricas.registrar(MetricasParade.Operacion.TOP5_SI_CAMBIO, t0);
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor de una partida sin RMI, observadores ni disco: reparte, resuelve jugadas,
+ * dispara la última ronda y detecta el fin sobre un {@link EstadoPartida}.
+ * {@link ModeloParade} delega acá toda la mecánica; los simuladores y herramientas
+ * offline usan el mismo motor, así que las reglas son exactamente las del servidor.
+ * No es thread-safe: cada partida (o cada hilo de simulación) usa su propio motor.
+ */
+public final class MotorPartida {
+
+    // --- Resultado de jugar(): combinación de bits ---
+    /** La jugada no se aplicó (no hay jugadores, no es su turno o índice fuera de la mano). */
+    public static final int INVALIDA = 0;
+    /** La jugada se aplicó. */
+    public static final int JUGADA = 1;
+    /** Esta jugada activó la última ronda. */
+    public static final int ULTIMA_RONDA = 1 << 1;
+    /** Con esta jugada terminó la partida. */
+    public static final int FIN = 1 << 2;
+
+    private final EstadoPartida estado;
+
+    // Datos de la última jugada aplicada (para eventos y herramientas)
+    private final Carta[] retiradas = new Carta[Carta.TOTAL];
+    private int cantRetiradas;
+    private Carta ultimaJugada;
+    private boolean ultimoRobo;
+
+    public MotorPartida(EstadoPartida estado) {
+        this.estado = estado;
+    }
+
+    public EstadoPartida getEstado() { return estado; }
+
+    /**
+     * Mezcla el mazo, reparte las manos, coloca el carnaval inicial y marca la partida como iniciada.
+     * Con un {@link java.util.Random} mezcla igual que {@code Collections.shuffle(lista, rng)}.
+     */
+    public void iniciar(int cartasInicialMesa, int cartasPorJugador, RandomGenerator rng) {
+        List<Carta> mazo = new ArrayList<>(Carta.todas());
+        for (int i = mazo.size(); i > 1; i--) {
+            int k = rng.nextInt(i);
+            mazo.set(k, mazo.set(i - 1, mazo.get(k)));
+        }
+
+        estado.getMazo().clear();
+        estado.getMazo().addAll(mazo);
+        estado.getCarnaval().clear();
+        estado.setUltimaRonda(false);
+        estado.setTurnoActual(0);
+
+        for (Jugador j : estado.getJugadores()) {
+            j.getMano().limpiar();
+            j.limpiarRecogidas();
+            for (int k = 0; k < cartasPorJugador && !estado.getMazo().isEmpty(); k++) {
+                j.getMano().agregar(estado.getMazo().pop());
+            }
+        }
+        for (int i = 0; i < cartasInicialMesa && !estado.getMazo().isEmpty(); i++) {
+            estado.getCarnaval().add(estado.getMazo().pop());
+        }
+        estado.setIniciada(true);
+    }
+
+    /**
+     * Aplica la jugada del jugador en turno: resuelve retiradas, roba si corresponde,
+     * puede disparar la última ronda y avanza el turno.
+     * @return {@link #INVALIDA} o {@link #JUGADA} combinado con {@link #ULTIMA_RONDA} / {@link #FIN}
+     */
+    public int jugar(int idJugador, int indiceEnMano) {
+        if (estado.getJugadores().isEmpty()) return INVALIDA;
+        if (estado.getTurnoActual() != idJugador) return INVALIDA;
+
+        Jugador j = estado.getJugadores().get(idJugador);
+        if (indiceEnMano < 0 || indiceEnMano >= j.getMano().tamano()) return INVALIDA;
+
+        Carta jugada = j.getMano().obtener(indiceEnMano);
+        int resultado = JUGADA;
+
+        // --- Commit: las retiradas se calculan una sola vez y se aplican en el lugar ---
+        int carnavalAntes = estado.getCarnaval().size();
+        j.getMano().quitar(jugada);
+        int n = recoger(j, jugada);
+        if (estado.getCarnaval().size() != carnavalAntes + 1 - n) {
+            throw new IllegalStateException("Cardinalidad inválida tras la jugada.");
+        }
+
+        // Robo sólo si NO estamos en última ronda y queda mazo
+        boolean robo = !estado.isUltimaRonda() && !estado.getMazo().isEmpty();
+        if (robo) {
+            j.getMano().agregar(estado.getMazo().pop());
+        }
+
+        // Disparo “última ronda” en el momento exacto en que el jugador toca 6 colores
+        // o cuando el mazo se agota.
+        if (!estado.isUltimaRonda() && (j.getRecolectadas().tieneTodosLosColores() || estado.getMazo().isEmpty())) {
+            estado.setUltimaRonda(true);
+            resultado |= ULTIMA_RONDA;
+        }
+
+        estado.setTurnoActual((estado.getTurnoActual() + 1) % estado.getJugadores().size());
+
+        ultimaJugada = jugada;
+        cantRetiradas = n;
+        ultimoRobo = robo;
+        if (esFinDePartida()) resultado |= FIN;
+        return resultado;
+    }
+
+    /** Aplica la jugada real con {@link ReglasParade#resolverJugada} y mueve las retiradas al jugador. */
+    private int recoger(Jugador jugador, Carta jugada) {
+        int n = ReglasParade.resolverJugada(estado.getCarnaval(), jugada, retiradas);
+        for (int i = 0; i < n; i++) jugador.agregarRecogida(retiradas[i]);
+        return n;
+    }
+
+    /** Fin de partida: última ronda activada y todas las manos en 4. */
+    public boolean esFinDePartida() {
+        if (!estado.isUltimaRonda()) return false;
+        for (Jugador j : estado.getJugadores()) if (j.getMano().tamano() != 4) return false;
+        return true;
+    }
+
+    /** Puntajes actuales ({@link ReglasParade#puntajes}) en {@code salida}, paralelo a los jugadores. */
+    public void puntajes(int[] salida) {
+        ReglasParade.puntajes(estado.getJugadores(), salida);
+    }
+
+    // --- Datos de la última jugada (válidos hasta la próxima llamada a jugar) ---
+    public Carta getUltimaJugada() { return ultimaJugada; }
+    /** Buffer interno: las primeras {@link #getCantRetiradas()} posiciones son las retiradas. */
+    public Carta[] getRetiradas() { return retiradas; }
+    public int getCantRetiradas() { return cantRetiradas; }
+    public boolean isUltimoRobo() { return ultimoRobo; }
+}
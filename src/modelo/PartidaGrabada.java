@@ -0,0 +1,126 @@
+package modelo;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Grabación inmutable de una partida terminada: la semilla del reparto, la configuración,
+ * los índices jugados en orden y el resultado esperado (carnaval final, pilas y puntajes).
+ * Con la semilla y las jugadas la partida se puede volver a ejecutar y comparar.
+ * <p>
+ * Se guarda como una línea de texto:
+ * {@code v1|semilla|mesa|porJugador|nombres|jugadas|carnaval|pila0/pila1/...|puntajes},
+ * con listas separadas por comas, cartas como {@link Carta#ordinal()} y nombres codificados como URL.
+ */
+public final class PartidaGrabada {
+    private static final String VERSION = "v1";
+
+    private final long semilla;
+    private final int cartasInicialMesa;
+    private final int cartasPorJugador;
+    private final List<String> nombres;
+    private final int[] jugadas;     // índice en mano de cada jugada (el jugador lo da el turno)
+    private final int[] carnaval;    // ordinales, en orden de mesa
+    private final int[][] pilas;     // ordinales recogidos por asiento
+    private final int[] puntajes;
+
+    public PartidaGrabada(long semilla, int cartasInicialMesa, int cartasPorJugador, List<String> nombres,
+                          int[] jugadas, int[] carnaval, int[][] pilas, int[] puntajes) {
+        this.semilla = semilla;
+        this.cartasInicialMesa = cartasInicialMesa;
+        this.cartasPorJugador = cartasPorJugador;
+        this.nombres = List.copyOf(nombres);
+        this.jugadas = jugadas.clone();
+        this.carnaval = carnaval.clone();
+        this.pilas = new int[pilas.length][];
+        for (int i = 0; i < pilas.length; i++) this.pilas[i] = pilas[i].clone();
+        this.puntajes = puntajes.clone();
+    }
+
+    /** Graba el resultado de una partida recién terminada en {@code estado}. */
+    static PartidaGrabada de(long semilla, int cartasInicialMesa, int cartasPorJugador, int[] jugadas, int cantJugadas,
+                             EstadoPartida estado, int[] puntajes) {
+        List<Jugador> js = estado.getJugadores();
+        List<String> nombres = new ArrayList<>(js.size());
+        int[][] pilas = new int[js.size()][];
+        for (int i = 0; i < js.size(); i++) {
+            nombres.add(js.get(i).getNombre());
+            pilas[i] = ordinales(js.get(i).getRecolectadas().aLista());
+        }
+        return new PartidaGrabada(semilla, cartasInicialMesa, cartasPorJugador, nombres,
+                Arrays.copyOf(jugadas, cantJugadas), ordinales(estado.getCarnaval()), pilas,
+                Arrays.copyOf(puntajes, js.size()));
+    }
+
+    static int[] ordinales(List<Carta> cartas) {
+        int[] o = new int[cartas.size()];
+        for (int i = 0; i < o.length; i++) o[i] = cartas.get(i).ordinal();
+        return o;
+    }
+
+    public long getSemilla() { return semilla; }
+    public int getCartasInicialMesa() { return cartasInicialMesa; }
+    public int getCartasPorJugador() { return cartasPorJugador; }
+    public List<String> getNombres() { return nombres; }
+    public int getCantidadJugadas() { return jugadas.length; }
+    public int getJugada(int i) { return jugadas[i]; }
+    public int[] getCarnaval() { return carnaval.clone(); }
+    public int[] getPila(int asiento) { return pilas[asiento].clone(); }
+    public int[] getPuntajes() { return puntajes.clone(); }
+
+    // ---------------- Formato de línea ----------------
+
+    public String aLinea() {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(VERSION).append('|').append(semilla).append('|').append(cartasInicialMesa).append('|')
+          .append(cartasPorJugador).append('|');
+        sb.append(nombres.stream().map(n -> URLEncoder.encode(n, StandardCharsets.UTF_8)).collect(Collectors.joining(",")));
+        sb.append('|');
+        lista(sb, jugadas).append('|');
+        lista(sb, carnaval).append('|');
+        for (int i = 0; i < pilas.length; i++) {
+            if (i > 0) sb.append('/');
+            lista(sb, pilas[i]);
+        }
+        sb.append('|');
+        return lista(sb, puntajes).toString();
+    }
+
+    /** @throws IllegalArgumentException si la línea no es una grabación válida */
+    public static PartidaGrabada deLinea(String linea) {
+        String[] c = linea.split("\\|", -1);
+        if (c.length != 9 || !VERSION.equals(c[0])) throw new IllegalArgumentException("grabación inválida: " + linea);
+        try {
+            List<String> nombres = new ArrayList<>();
+            for (String n : c[4].split(",")) nombres.add(URLDecoder.decode(n, StandardCharsets.UTF_8));
+            String[] ps = c[7].split("/", -1);
+            int[][] pilas = new int[ps.length][];
+            for (int i = 0; i < ps.length; i++) pilas[i] = enteros(ps[i]);
+            return new PartidaGrabada(Long.parseLong(c[1]), Integer.parseInt(c[2]), Integer.parseInt(c[3]), nombres,
+                    enteros(c[5]), enteros(c[6]), pilas, enteros(c[8]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("grabación inválida: " + linea, e);
+        }
+    }
+
+    private static StringBuilder lista(StringBuilder sb, int[] v) {
+        for (int i = 0; i < v.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(v[i]);
+        }
+        return sb;
+    }
+
+    private static int[] enteros(String s) {
+        if (s.isEmpty()) return new int[0];
+        String[] p = s.split(",");
+        int[] v = new int[p.length];
+        for (int i = 0; i < p.length; i++) v[i] = Integer.parseInt(p[i]);
+        return v;
+    }
+}
@@ -0,0 +1,396 @@
+package modelo;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Protocolo binario de {@link ServidorBinario} y {@link ClienteBinario} (versión {@value #VERSION}):
+ * las mismas operaciones de {@link IParade} y los mismos {@link EventoParade} que por RMI, sin
+ * serialización Java ni un puerto por cliente.
+ * <pre>
+ * trama:     int largo (sin contar estos 4 bytes) | byte tipo | cuerpo
+ * pedido:    tipo = OP_* | int id | argumentos
+ * respuesta: tipo RESPUESTA | int id | byte OK + resultado, o byte clase de error + texto
+ * evento:    tipo EVENTO | evento (ver {@link #ponerEvento})
+ * </pre>
+ * El primer pedido de cada conexión es {@link #OP_HOLA} (magia, versión e id de sala). Los pedidos
+ * de una conexión se responden en orden; los eventos se intercalan entre respuestas. Después del
+ * saludo, {@link #OP_ESPECTAR} deja la conexión como espectadora: sólo lectura del estado público.
+ * Textos: short largo + UTF-8 (-1 = null). Cartas: un byte ({@link Carta#ordinal()});
+ * listas de cartas: byte n + n cartas. Ninguna trama supera {@value #MAX_TRAMA} bytes.
+ * <p>
+ * Los buffers de trama se prestan de un pozo compartido ({@link #tomar}/{@link #devolver}) sólo
+ * mientras se arma o se procesa una trama: una conexión inactiva retiene apenas los 4 bytes de la
+ * cabecera que está esperando.
+ */
+final class ProtocoloParade {
+
+    static final int MAGIA = 0x50524450; // "PRDP"
+    static final short VERSION = 2;
+    static final int MAX_TRAMA = 64 * 1024;
+
+    // ---- Pedidos (cliente -> servidor) ----
+    static final byte OP_HOLA = 1;
+    static final byte OP_UNIR = 2;
+    static final byte OP_INICIAR = 3;
+    static final byte OP_PARTIDA_INICIADA = 4;
+    static final byte OP_JUGAR = 5;
+    static final byte OP_MANO = 6;
+    static final byte OP_CARNAVAL = 7;
+    static final byte OP_RECOLECTADAS = 8;
+    static final byte OP_RECOLECTADAS_TODOS = 9;
+    static final byte OP_TURNO_NOMBRE = 10;
+    static final byte OP_ULTIMA_RONDA = 11;
+    static final byte OP_FIN_DE_PARTIDA = 12;
+    static final byte OP_SNAPSHOT = 13;
+    static final byte OP_PUNTAJES = 14;
+    static final byte OP_NOMBRES = 15;
+    static final byte OP_LOBBY_SI_CAMBIO = 16;
+    static final byte OP_GUARDAR = 17;
+    static final byte OP_CARGAR = 18;
+    static final byte OP_REGISTRAR_RANKING = 19;
+    static final byte OP_TOP5 = 20;
+    static final byte OP_TOP5_SI_CAMBIO = 21;
+    static final byte OP_SUSCRIBIR = 22;
+    static final byte OP_DESUSCRIBIR = 23;
+    static final byte OP_ESPECTAR = 24;
+
+    // ---- Servidor -> cliente ----
+    static final byte RESPUESTA = (byte) 0x80;
+    static final byte EVENTO = (byte) 0x81;
+
+    // ---- Estado de una respuesta ----
+    static final byte OK = 0;
+    static final byte ERROR_REMOTO = 1;        // RemoteException (nombre repetido, partida iniciada, ...)
+    static final byte ERROR_ESTADO = 2;        // IllegalStateException (jugada inválida)
+    static final byte ERROR_ARGUMENTO = 3;     // IllegalArgumentException
+    static final byte ERROR_SERVIDOR = 4;      // cualquier otra falla
+
+    private static final Evento[] EVENTOS = Evento.values();
+
+    /** Buffers libres; lo que exceda este tope queda para el GC. */
+    private static final ArrayBlockingQueue<ByteBuffer> LIBRES = new ArrayBlockingQueue<>(256);
+
+    private ProtocoloParade() { }
+
+    /** Buffer de {@value #MAX_TRAMA} bytes para una trama; devolverlo con {@link #devolver}. */
+    static ByteBuffer tomar() {
+        ByteBuffer b = LIBRES.poll();
+        return b != null ? b.clear() : ByteBuffer.allocate(MAX_TRAMA);
+    }
+
+    static void devolver(ByteBuffer b) {
+        LIBRES.offer(b);
+    }
+
+    // ---------------- Tramas ----------------
+
+    /** Deja {@code buf} listo para escribir una trama: reserva el largo y pone el tipo. */
+    static ByteBuffer comenzar(ByteBuffer buf, byte tipo) {
+        buf.clear();
+        return buf.putInt(0).put(tipo);
+    }
+
+    /** Completa el largo de la trama armada en {@code buf} y la deja lista para leer (flip). */
+    static ByteBuffer cerrar(ByteBuffer buf) {
+        buf.putInt(0, buf.position() - 4);
+        return buf.flip();
+    }
+
+    /** Cierra y escribe la trama completa. */
+    static void enviar(WritableByteChannel canal, ByteBuffer buf) throws IOException {
+        cerrar(buf);
+        while (buf.hasRemaining()) canal.write(buf);
+    }
+
+    /**
+     * Trama de evento completa en un buffer directo propio y de sólo lectura, para escribirla tal cual
+     * en varios sockets (cada uno con su {@link ByteBuffer#duplicate()}).
+     */
+    static ByteBuffer tramaEvento(EventoParade ev) {
+        ByteBuffer buf = tomar();
+        try {
+            comenzar(buf, EVENTO);
+            ponerEvento(buf, ev);
+            cerrar(buf);
+            return ByteBuffer.allocateDirect(buf.remaining()).put(buf).flip().asReadOnlyBuffer();
+        } finally {
+            devolver(buf);
+        }
+    }
+
+    /**
+     * Espera la próxima trama con {@code cabecera} (4 bytes, propia de la conexión) y la lee entera
+     * en un buffer del pozo, que el llamador devuelve al terminar.
+     * @return el buffer posicionado en el tipo, o null si el otro extremo cerró entre tramas
+     */
+    static ByteBuffer recibir(ReadableByteChannel canal, ByteBuffer cabecera) throws IOException {
+        cabecera.clear();
+        if (!llenar(canal, cabecera, true)) return null;
+        int largo = cabecera.getInt(0);
+        if (largo < 1 || largo > MAX_TRAMA - 4) throw new IOException("trama inválida: " + largo + " bytes");
+        ByteBuffer buf = tomar().limit(largo);
+        try {
+            llenar(canal, buf, false);
+        } catch (IOException e) {
+            devolver(buf);
+            throw e;
+        }
+        return buf.flip();
+    }
+
+    private static boolean llenar(ReadableByteChannel canal, ByteBuffer buf, boolean alInicio) throws IOException {
+        while (buf.hasRemaining()) {
+            if (canal.read(buf) < 0) {
+                if (alInicio && buf.position() == 0) return false;
+                throw new EOFException("conexión cerrada a mitad de una trama");
+            }
+        }
+        return true;
+    }
+
+    // ---------------- Errores ----------------
+
+    static void ponerError(ByteBuffer buf, Throwable e) {
+        byte clase = e instanceof RemoteException ? ERROR_REMOTO
+                : e instanceof IllegalStateException ? ERROR_ESTADO
+                : e instanceof IllegalArgumentException ? ERROR_ARGUMENTO
+                : ERROR_SERVIDOR;
+        String msg = e instanceof RemoteException re ? mensajeSinCausa(re)
+                : clase == ERROR_SERVIDOR ? e.toString() : e.getMessage();
+        buf.put(clase);
+        ponerTexto(buf, msg);
+    }
+
+    /** {@link RemoteException#getMessage()} agrega la causa; al cliente le sirve sólo el texto. */
+    private static String mensajeSinCausa(RemoteException e) {
+        String m = e.getMessage();
+        int i = m == null ? -1 : m.indexOf("; nested exception is");
+        return i < 0 ? m : m.substring(0, i);
+    }
+
+    /** Consume el estado de la respuesta; si es un error, lo relanza como lo hubiera hecho RMI. */
+    static void verificar(ByteBuffer buf) throws RemoteException {
+        byte estado = buf.get();
+        if (estado == OK) return;
+        String msg = leerTexto(buf);
+        switch (estado) {
+            case ERROR_REMOTO -> throw new RemoteException(msg);
+            case ERROR_ESTADO -> throw new IllegalStateException(msg);
+            case ERROR_ARGUMENTO -> throw new IllegalArgumentException(msg);
+            default -> throw new RemoteException("Error en el servidor: " + msg);
+        }
+    }
+
+    // ---------------- Valores ----------------
+
+    static void ponerTexto(ByteBuffer buf, String s) {
+        if (s == null) {
+            buf.putShort((short) -1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (b.length > Short.MAX_VALUE) throw new IllegalArgumentException("texto demasiado largo");
+        buf.putShort((short) b.length).put(b);
+    }
+
+    static String leerTexto(ByteBuffer buf) {
+        int n = buf.getShort();
+        if (n < 0) return null;
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), n, StandardCharsets.UTF_8);
+        buf.position(buf.position() + n);
+        return s;
+    }
+
+    static void ponerCarta(ByteBuffer buf, Carta c) { buf.put((byte) (c == null ? -1 : c.ordinal())); }
+
+    static Carta leerCarta(ByteBuffer buf) {
+        int o = buf.get();
+        return o < 0 ? null : Carta.deOrdinal(o);
+    }
+
+    static void ponerCartas(ByteBuffer buf, List<Carta> cs) {
+        buf.put((byte) cs.size());
+        for (Carta c : cs) buf.put((byte) c.ordinal());
+    }
+
+    static List<Carta> leerCartas(ByteBuffer buf) {
+        int n = buf.get() & 0xFF;
+        Carta[] cs = new Carta[n];
+        for (int i = 0; i < n; i++) cs[i] = Carta.deOrdinal(buf.get());
+        return List.of(cs);
+    }
+
+    static void ponerPilas(ByteBuffer buf, List<List<Carta>> pilas) {
+        buf.put((byte) pilas.size());
+        for (List<Carta> p : pilas) ponerCartas(buf, p);
+    }
+
+    static List<List<Carta>> leerPilas(ByteBuffer buf) {
+        int n = buf.get() & 0xFF;
+        List<List<Carta>> res = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) res.add(leerCartas(buf));
+        return List.copyOf(res);
+    }
+
+    static void ponerTextos(ByteBuffer buf, List<String> ts) {
+        buf.put((byte) ts.size());
+        for (String t : ts) ponerTexto(buf, t);
+    }
+
+    static List<String> leerTextos(ByteBuffer buf) {
+        int n = buf.get() & 0xFF;
+        String[] ts = new String[n];
+        for (int i = 0; i < n; i++) ts[i] = leerTexto(buf);
+        return List.of(ts);
+    }
+
+    static void ponerEnteros(ByteBuffer buf, List<Integer> xs) {
+        buf.put((byte) xs.size());
+        for (int x : xs) buf.putInt(x);
+    }
+
+    static List<Integer> leerEnteros(ByteBuffer buf) {
+        int n = buf.get() & 0xFF;
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = buf.getInt();
+        return List.of(xs);
+    }
+
+    static void ponerBooleano(ByteBuffer buf, boolean b) { buf.put((byte) (b ? 1 : 0)); }
+
+    static boolean leerBooleano(ByteBuffer buf) { return buf.get() != 0; }
+
+    // ---------------- Tipos del modelo ----------------
+
+    static void ponerSnapshot(ByteBuffer buf, SnapshotJugador s) {
+        buf.putLong(s.getVersion()).putInt(s.getIdJugador());
+        ponerCartas(buf, s.getMano());
+        ponerCartas(buf, s.getCarnaval());
+        ponerTexto(buf, s.getTurnoNombre());
+        ponerTextos(buf, s.getNombres());
+        ponerPilas(buf, s.getRecolectadasTodos());
+        ponerBooleano(buf, s.isUltimaRonda());
+        buf.putShort((short) s.getCartasEnMazo());
+    }
+
+    static SnapshotJugador leerSnapshot(ByteBuffer buf) {
+        long version = buf.getLong();
+        int id = buf.getInt();
+        List<Carta> mano = leerCartas(buf);
+        List<Carta> carnaval = leerCartas(buf);
+        String turno = leerTexto(buf);
+        List<String> nombres = leerTextos(buf);
+        List<List<Carta>> pilas = leerPilas(buf);
+        boolean ultimaRonda = leerBooleano(buf);
+        int mazo = buf.getShort();
+        return new SnapshotJugador(version, id, mano, carnaval, turno, nombres, pilas, ultimaRonda, mazo);
+    }
+
+    /** Lobby o null (byte de presencia). */
+    static void ponerLobby(ByteBuffer buf, EstadoLobby l) {
+        ponerBooleano(buf, l != null);
+        if (l == null) return;
+        buf.putLong(l.getVersion());
+        ponerTextos(buf, l.getNombres());
+        ponerBooleano(buf, l.isPartidaIniciada());
+    }
+
+    static EstadoLobby leerLobby(ByteBuffer buf) {
+        if (!leerBooleano(buf)) return null;
+        long version = buf.getLong();
+        List<String> nombres = leerTextos(buf);
+        return new EstadoLobby(version, nombres, leerBooleano(buf));
+    }
+
+    static void ponerEntradas(ByteBuffer buf, List<EntradaRanking> es) {
+        buf.put((byte) es.size());
+        for (EntradaRanking e : es) {
+            ponerTexto(buf, e.getNombre());
+            buf.putInt(e.getPuntaje()).putLong(e.getInstanteRegistroMs());
+        }
+    }
+
+    static List<EntradaRanking> leerEntradas(ByteBuffer buf) {
+        int n = buf.get() & 0xFF;
+        List<EntradaRanking> res = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) res.add(new EntradaRanking(leerTexto(buf), buf.getInt(), buf.getLong()));
+        return res;
+    }
+
+    /** Ranking o null (byte de presencia). */
+    static void ponerRanking(ByteBuffer buf, EstadoRanking r) {
+        ponerBooleano(buf, r != null);
+        if (r == null) return;
+        buf.putLong(r.getVersion());
+        ponerEntradas(buf, r.getTop());
+    }
+
+    static EstadoRanking leerRanking(ByteBuffer buf) {
+        if (!leerBooleano(buf)) return null;
+        long version = buf.getLong();
+        return new EstadoRanking(version, leerEntradas(buf));
+    }
+
+    /**
+     * byte tipo | long secuencia | long versión | short cartas en mazo | long versión lobby
+     * | long versión ranking, y el delta según el tipo:
+     * JUGADOR_UNIDO: byte id | nombre;
+     * CARTA_JUGADA: byte id | nombre | carta | cartas retiradas | bool robo | byte turno | nombre del turno
+     * | bool última ronda;
+     * el resto: int eventos previos que reemplaza (ver {@link EventoParade#getSecuenciaDesde()}).
+     */
+    static void ponerEvento(ByteBuffer buf, EventoParade ev) {
+        buf.put((byte) ev.getTipo().ordinal()).putLong(ev.getSecuencia()).putLong(ev.getVersion())
+                .putShort((short) ev.getCartasEnMazo()).putLong(ev.getVersionLobby()).putLong(ev.getVersionRanking());
+        switch (ev.getTipo()) {
+            case JUGADOR_UNIDO -> {
+                buf.put((byte) ev.getIdJugador());
+                ponerTexto(buf, ev.getNombreJugador());
+            }
+            case CARTA_JUGADA -> {
+                buf.put((byte) ev.getIdJugador());
+                ponerTexto(buf, ev.getNombreJugador());
+                ponerCarta(buf, ev.getJugada());
+                ponerCartas(buf, ev.getRetiradas());
+                ponerBooleano(buf, ev.isRobo());
+                buf.put((byte) ev.getTurnoActual());
+                ponerTexto(buf, ev.getTurnoNombre());
+                ponerBooleano(buf, ev.isUltimaRonda());
+            }
+            default -> buf.putInt((int) (ev.getSecuencia() - ev.getSecuenciaDesde()));
+        }
+    }
+
+    static EventoParade leerEvento(ByteBuffer buf) {
+        Evento tipo = EVENTOS[buf.get()];
+        long secuencia = buf.getLong(), version = buf.getLong();
+        int mazo = buf.getShort();
+        long versionLobby = buf.getLong(), versionRanking = buf.getLong();
+        return switch (tipo) {
+            case JUGADOR_UNIDO -> EventoParade.jugadorUnido(secuencia, version, mazo, versionLobby, versionRanking,
+                    buf.get(), leerTexto(buf));
+            case CARTA_JUGADA -> {
+                int id = buf.get();
+                String nombre = leerTexto(buf);
+                Carta jugada = leerCarta(buf);
+                Carta[] retiradas = leerCartas(buf).toArray(new Carta[0]);
+                boolean robo = leerBooleano(buf);
+                int turno = buf.get();
+                String turnoNombre = leerTexto(buf);
+                yield EventoParade.cartaJugada(secuencia, version, mazo, versionLobby, versionRanking, id, nombre,
+                        jugada, retiradas, retiradas.length, robo, turno, turnoNombre, leerBooleano(buf));
+            }
+            default -> EventoParade.simple(tipo, secuencia, version, mazo, versionLobby, versionRanking)
+                    .cubriendoDesde(secuencia - buf.getInt());
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.RemoteObject;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registro de salas del lado servidor: crea, busca y cierra instancias de {@link ModeloParade}.
+ * Cada sala tiene su propio {@link EstadoPartida} y su propio escritor, así que las partidas
+ * no se bloquean entre sí. El ranking es uno solo y se comparte entre todas las salas.
+ */
+public class RegistroSalas implements ISalasParade {
+    private static final Logger LOG = Logger.getLogger(RegistroSalas.class.getName());
+
+    /** Nombre con el que se publica el registro en el RMI registry. */
+    public static final String NOMBRE_RMI = "MVCRMI/Salas";
+    /** Sala por defecto; también se publica como "MVCRMI/Modelo" para clientes sin salas. */
+    public static final String SALA_PRINCIPAL = "principal";
+
+    private final ConcurrentMap<String, ModeloParade> salas = new ConcurrentHashMap<>();
+    private final TablaClasificacion tablaRanking;
+    private final EscritorRanking escritorRanking;
+
+    private final Path dirBitacoras = Path.of(BitacoraPartida.DIRECTORIO);
+    private final GrabadorPartidas grabador = new GrabadorPartidas(Path.of(GrabadorPartidas.ARCHIVO));
+    private final MetricasParade metricas = new MetricasParade();
+
+    /** Carga el ranking y recupera las salas que estaban en curso cuando el servidor se detuvo. */
+    public RegistroSalas() throws RemoteException {
+        this.tablaRanking = ModeloParade.cargarRanking();
+        this.escritorRanking = ModeloParade.escritorPara(tablaRanking);
+        escritorRanking.medirCon(metricas);
+        metricas.observarSalas(salas::values);
+        salas.put(SALA_PRINCIPAL, nuevaSala(SALA_PRINCIPAL));
+        for (String id : BitacoraPartida.salasGuardadas(dirBitacoras)) {
+            ModeloParade m = salas.get(id);
+            if (m == null) {
+                m = nuevaSala(id);
+                salas.put(id, m);
+            }
+            try {
+                if (m.recuperar()) LOG.info("Sala recuperada: " + id);
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "No se pudo recuperar la sala " + id + "; arranca vacía", e);
+            }
+        }
+    }
+
+    private ModeloParade nuevaSala(String id) throws RemoteException {
+        return new ModeloParade(id, tablaRanking, escritorRanking, BitacoraPartida.abrir(dirBitacoras, id), grabador,
+                metricas);
+    }
+
+    /** Escritor de ranking compartido (métricas de escrituras pendientes y duraciones). */
+    public EscritorRanking escritorRanking() { return escritorRanking; }
+
+    /** Métricas compartidas por todas las salas (MBean y volcado periódico). */
+    public MetricasParade metricas() { return metricas; }
+
+    /** Hook de apagado: vuelca bitácoras y partidas grabadas, y persiste lo que quede pendiente del ranking. */
+    public void cerrar() {
+        metricas.cerrar();
+        BitacoraPartida.volcarTodas();
+        grabador.cerrar();
+        escritorRanking.cerrar();
+        LOG.info(() -> "Escritor de ranking cerrado: " + escritorRanking.getEscrituras() + " escrituras, "
+                + escritorRanking.getPedidos() + " pedidos");
+    }
+
+    /** Modelo local de la sala principal (para exportarlo con el {@code Servidor} de la librería). */
+    public ModeloParade principal() { return salas.get(SALA_PRINCIPAL); }
+
+    @Override
+    public IParade sala(String idSala) throws RemoteException {
+        return exportar(salaLocal(idSala));
+    }
+
+    /** Como {@link #sala} pero sin exportarla por RMI (la usa {@link ServidorBinario}). */
+    ModeloParade salaLocal(String idSala) throws RemoteException {
+        if (idSala == null || idSala.isBlank()) {
+            throw new RemoteException("El id de sala no puede ser vacío.");
+        }
+        String id = idSala.trim();
+        ModeloParade m = salas.get(id);
+        if (m == null) {
+            ModeloParade nueva = nuevaSala(id);
+            m = salas.putIfAbsent(id, nueva);
+            if (m == null) {
+                m = nueva;
+                LOG.info("Sala creada: " + id);
+            }
+        }
+        return m;
+    }
+
+    @Override
+    public List<String> salas() { return List.copyOf(salas.keySet()); }
+
+    @Override
+    public boolean cerrarSala(String idSala) {
+        if (idSala == null || SALA_PRINCIPAL.equals(idSala.trim())) return false;
+        ModeloParade m = salas.remove(idSala.trim());
+        if (m == null) return false;
+        m.descartarBitacora();
+        m.cerrar();
+        try {
+            UnicastRemoteObject.unexportObject(m, true);
+        } catch (NoSuchObjectException e) {
+            // nunca se exportó: nada que liberar
+        }
+        LOG.log(Level.INFO, "Sala cerrada: {0}", idSala);
+        return true;
+    }
+
+    /** Devuelve el stub de la sala, exportándola la primera vez que se pide. */
+    private static IParade exportar(ModeloParade m) throws RemoteException {
+        synchronized (m) {
+            try {
+                return (IParade) RemoteObject.toStub(m);
+            } catch (NoSuchObjectException e) {
+                return (IParade) UnicastRemoteObject.exportObject(m, 0);
+            }
+        }
+    }
+}
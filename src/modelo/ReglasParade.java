@@ -0,0 +1,94 @@
+package modelo;
+
+import java.util.List;
+
+/**
+ * Reglas puras de Parade: sin estado propio, sin RMI ni I/O.
+ * Las usa {@link ModeloParade}; cualquier otro motor que resuelva jugadas debe pasar por acá
+ * para que los resultados sean idénticos a los del servidor.
+ */
+public final class ReglasParade {
+
+    private ReglasParade() { }
+
+    /**
+     * Resuelve una jugada sobre el carnaval real, en un solo recorrido y sin asignar memoria:
+     * agrega la carta al final, retira de las primeras {@code prev - valor} cartas las que
+     * tienen el mismo color o valor menor o igual, y compacta el resto en el lugar.
+     *
+     * @param carnaval  carnaval en orden de mesa; queda con la jugada agregada y sin las retiradas
+     * @param jugada    carta jugada
+     * @param retiradas buffer de salida (capacidad ≥ tamaño del carnaval); recibe las retiradas en orden de mesa
+     * @return cantidad de cartas retiradas (las primeras posiciones de {@code retiradas})
+     */
+    public static int resolverJugada(List<Carta> carnaval, Carta jugada, Carta[] retiradas) {
+        final int prev = carnaval.size(); // cantidad previa a la jugada
+        final int v = jugada.getValor();
+        carnaval.add(jugada);
+
+        if (prev <= v) return 0; // no se retira nada
+
+        final int evaluadas = prev - v; // se evalúan SOLO las primeras (prev - v)
+        int n = 0;
+        int w = 0;
+        for (int i = 0; i < evaluadas; i++) {
+            Carta c = carnaval.get(i);
+            if (seRetira(c, jugada)) retiradas[n++] = c;
+            else carnaval.set(w++, c);
+        }
+        if (n == 0) return 0;
+
+        for (int i = evaluadas; i <= prev; i++) carnaval.set(w++, carnaval.get(i));
+        for (int i = carnaval.size() - 1; i >= w; i--) carnaval.remove(i); // quitar del final no copia
+        return n;
+    }
+
+    /** Criterio de retiro para las cartas evaluadas: mismo color que la jugada o valor menor o igual. */
+    public static boolean seRetira(Carta enMesa, Carta jugada) {
+        return enMesa.getColor() == jugada.getColor() || enMesa.getValor() <= jugada.getValor();
+    }
+
+    /**
+     * Evalúa una jugada sin modificar el carnaval (útil para bots y simulaciones).
+     * @return suma de valores de las cartas que se retirarían
+     */
+    public static int valorRetirado(List<Carta> carnaval, Carta jugada) {
+        final int evaluadas = carnaval.size() - jugada.getValor();
+        int suma = 0;
+        for (int i = 0; i < evaluadas; i++) {
+            Carta c = carnaval.get(i);
+            if (seRetira(c, jugada)) suma += c.getValor();
+        }
+        return suma;
+    }
+
+    /**
+     * Puntajes de la partida a partir de los conteos que cada {@link Jugador} mantiene al recoger:
+     * O(jugadores × colores) y sin asignar memoria.
+     * Puntaje = suma de valores recogidos + cantidad de cartas de cada color en que el jugador tiene mayoría.
+     * <ul>
+     *   <li>2 jugadores: la mayoría cuenta sólo con diferencia de 2 o más.</li>
+     *   <li>otro número: cuentan todos los que empatan en el máximo (si es mayor que 0).</li>
+     * </ul>
+     * @param salida arreglo de al menos {@code jugadores.size()} posiciones (se sobrescribe)
+     */
+    public static void puntajes(List<Jugador> jugadores, int[] salida) {
+        final int n = jugadores.size();
+        for (int i = 0; i < n; i++) salida[i] = jugadores.get(i).getSumaValores();
+
+        for (int c = 0; c < COLORES; c++) {
+            if (n == 2) { // regla especial 2p
+                int a = jugadores.get(0).cantidadColor(c), b = jugadores.get(1).cantidadColor(c);
+                if (a >= b + 2) salida[0] += a;
+                else if (b >= a + 2) salida[1] += b;
+            } else { // mayoría general: todos los empatados en el máximo
+                int max = 0;
+                for (int i = 0; i < n; i++) max = Math.max(max, jugadores.get(i).cantidadColor(c));
+                if (max == 0) continue;
+                for (int i = 0; i < n; i++) if (jugadores.get(i).cantidadColor(c) == max) salida[i] += max;
+            }
+        }
+    }
+
+    private static final int COLORES = ColorCarta.values().length;
+}
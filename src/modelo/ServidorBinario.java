@@ -0,0 +1,274 @@
+package modelo;
+
+import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.rmi.RemoteException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static modelo.ProtocoloParade.*;
+
+/**
+ * Transporte alternativo a RMI: atiende {@link ProtocoloParade} en un único puerto con un hilo
+ * virtual por conexión. Una conexión inactiva cuesta un par de hilos virtuales estacionados (el
+ * lector y el emisor del despachador) y ningún buffer de trama, así que el servidor aguanta miles
+ * sin el puerto de callback que RMI necesita en cada cliente.
+ * <p>
+ * Cada conexión se ata a una sala del {@link RegistroSalas} en el saludo y, al suscribirse, queda
+ * como un observador más de su {@link DespachadorEventos}: los eventos le llegan igual que a un
+ * cliente RMI (cola propia, timeout y expulsión incluidos) y se escriben en el socket.
+ * <p>
+ * Una conexión que pide {@link ProtocoloParade#OP_ESPECTAR} no juega: no puede unirse ni tocar la
+ * partida, no ve manos y su snapshot es siempre el de quien no está unido. Al suscribirse entra en la
+ * {@link TransmisionSala} de la sala en lugar del despachador, así que recibe tramas ya codificadas
+ * y compartidas con los demás espectadores.
+ */
+public final class ServidorBinario {
+    private static final Logger LOG = Logger.getLogger(ServidorBinario.class.getName());
+
+    /** Puerto por defecto (el registry de RMI usa el 8888). */
+    public static final int PUERTO = 8889;
+
+    private final RegistroSalas salas;
+    private final InetSocketAddress direccion;
+    private final Set<Conexion> conexiones = ConcurrentHashMap.newKeySet();
+    private ServerSocketChannel canal;
+
+    public ServidorBinario(RegistroSalas salas, String host, int puerto) {
+        this.salas = salas;
+        this.direccion = new InetSocketAddress(host, puerto);
+    }
+
+    /** Abre el puerto y empieza a aceptar conexiones en un hilo virtual. */
+    public synchronized void iniciar() throws IOException {
+        if (canal != null) return;
+        canal = ServerSocketChannel.open().bind(direccion, 1024);
+        Thread.ofVirtual().name("binario-aceptador").start(this::aceptar);
+    }
+
+    /** Puerto efectivo (útil si se pidió el 0). */
+    public synchronized int puerto() throws IOException {
+        return ((InetSocketAddress) canal.getLocalAddress()).getPort();
+    }
+
+    /** Conexiones abiertas en este momento. */
+    public int getConexiones() { return conexiones.size(); }
+
+    /** Deja de aceptar y corta todas las conexiones. */
+    public synchronized void cerrar() {
+        try {
+            if (canal != null) canal.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Cerrando el puerto binario", e);
+        }
+        for (Conexion c : conexiones) c.cerrar();
+    }
+
+    private void aceptar() {
+        while (true) {
+            SocketChannel s;
+            try {
+                s = canal.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Fallo aceptando una conexión binaria", e);
+                continue;
+            }
+            try {
+                s.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "Sin TCP_NODELAY", e);
+            }
+            Conexion c = new Conexion(s);
+            conexiones.add(c);
+            Thread.ofVirtual().name("binario-" + s.socket().getPort()).start(c);
+        }
+    }
+
+    /**
+     * Un cliente. Su hilo lee un pedido, lo ejecuta sobre la sala y responde; los eventos los escribe
+     * el emisor del despachador. Las dos escrituras comparten el socket, así que van con
+     * {@code escritura} (un lock y no {@code synchronized}: el hilo virtual no queda fijado a su
+     * portador mientras espera el socket).
+     */
+    private final class Conexion implements IObservadorRemoto, Runnable {
+        private final SocketChannel socket;
+        private final ByteBuffer cabecera = ByteBuffer.allocate(4);
+        private final ReentrantLock escritura = new ReentrantLock();
+        private volatile ModeloParade sala;
+        private volatile boolean espectador;
+        private volatile TransmisionSala.Espectador salida; // suscripción como espectador
+
+        Conexion(SocketChannel socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try {
+                ByteBuffer in;
+                while ((in = recibir(socket, cabecera)) != null) {
+                    try {
+                        atender(in.get(), in);
+                    } finally {
+                        devolver(in);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "Conexión binaria terminada", e);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Pedido binario mal formado; se corta la conexión", e);
+            } finally {
+                cerrar();
+            }
+        }
+
+        private void atender(byte op, ByteBuffer in) throws IOException {
+            int id = in.getInt();
+            ByteBuffer respuesta = tomar();
+            try {
+                comenzar(respuesta, RESPUESTA).putInt(id).put(OK);
+                try {
+                    ejecutar(op, in, respuesta);
+                } catch (RemoteException | RuntimeException e) {
+                    comenzar(respuesta, RESPUESTA).putInt(id);
+                    ponerError(respuesta, e);
+                }
+                escritura.lock();
+                try {
+                    enviar(socket, respuesta);
+                } finally {
+                    escritura.unlock();
+                }
+            } finally {
+                devolver(respuesta);
+            }
+        }
+
+        /** Ejecuta el pedido y pone el resultado a continuación del OK. */
+        private void ejecutar(byte op, ByteBuffer in, ByteBuffer out) throws RemoteException {
+            if (op == OP_HOLA) {
+                if (in.getInt() != MAGIA || in.getShort() != VERSION) throw new RemoteException("Protocolo incompatible.");
+                sala = salas.salaLocal(leerTexto(in));
+                return;
+            }
+            ModeloParade m = sala;
+            if (m == null) throw new RemoteException("Falta el saludo con la sala.");
+            if (espectador) soloLectura(op);
+            switch (op) {
+                case OP_UNIR -> out.putInt(m.unirJugador(leerTexto(in)));
+                case OP_INICIAR -> m.iniciarPartida(in.getInt(), in.getInt());
+                case OP_PARTIDA_INICIADA -> ponerBooleano(out, m.partidaIniciada());
+                case OP_JUGAR -> m.jugarCarta(in.getInt(), in.getInt());
+                case OP_MANO -> ponerCartas(out, m.obtenerMano(in.getInt()));
+                case OP_CARNAVAL -> ponerCartas(out, m.obtenerCarnaval());
+                case OP_RECOLECTADAS -> ponerCartas(out, m.obtenerRecolectadas(in.getInt()));
+                case OP_RECOLECTADAS_TODOS -> ponerPilas(out, m.obtenerRecolectadasTodos());
+                case OP_TURNO_NOMBRE -> ponerTexto(out, m.obtenerTurnoNombre());
+                case OP_ULTIMA_RONDA -> ponerBooleano(out, m.esUltimaRonda());
+                case OP_FIN_DE_PARTIDA -> ponerBooleano(out, m.esFinDePartida());
+                case OP_SNAPSHOT -> {
+                    int id = in.getInt();
+                    ponerSnapshot(out, m.obtenerSnapshot(espectador ? -1 : id));
+                }
+                case OP_PUNTAJES -> ponerEnteros(out, m.puntajesPorJugador());
+                case OP_NOMBRES -> ponerTextos(out, m.nombresJugadores());
+                case OP_LOBBY_SI_CAMBIO -> ponerLobby(out, m.lobbySiCambio(in.getLong()));
+                case OP_GUARDAR -> ponerBooleano(out, m.guardarPartida(leerTexto(in)));
+                case OP_CARGAR -> ponerBooleano(out, m.cargarPartida(leerTexto(in)));
+                case OP_REGISTRAR_RANKING -> m.registrarResultadoEnRanking();
+                case OP_TOP5 -> ponerEntradas(out, m.top5());
+                case OP_TOP5_SI_CAMBIO -> ponerRanking(out, m.top5SiCambio(in.getLong()));
+                case OP_SUSCRIBIR -> suscribir(m);
+                case OP_DESUSCRIBIR -> desuscribir(m);
+                case OP_ESPECTAR -> {
+                    m.removerObservador(this); // se suscribe de nuevo, ya como espectador
+                    espectador = true;
+                }
+                default -> throw new RemoteException("Operación desconocida: " + op);
+            }
+        }
+
+        private void soloLectura(byte op) throws RemoteException {
+            switch (op) {
+                case OP_UNIR, OP_INICIAR, OP_JUGAR, OP_MANO, OP_GUARDAR, OP_CARGAR, OP_REGISTRAR_RANKING ->
+                        throw new RemoteException("Un espectador sólo puede mirar la partida.");
+                default -> { }
+            }
+        }
+
+        private void suscribir(ModeloParade m) throws RemoteException {
+            if (!espectador) m.agregarObservador(this);
+            else if (salida == null) salida = m.transmision().agregar(this::escribir, String.valueOf(socket.socket().getPort()));
+        }
+
+        private void desuscribir(ModeloParade m) throws RemoteException {
+            TransmisionSala.Espectador e = salida;
+            if (e != null) {
+                salida = null;
+                e.cerrar();
+            } else {
+                m.removerObservador(this);
+            }
+        }
+
+        /** Trama ya armada de la {@link TransmisionSala}. */
+        private void escribir(ByteBuffer trama) throws IOException {
+            escritura.lock();
+            try {
+                while (trama.hasRemaining()) socket.write(trama);
+            } finally {
+                escritura.unlock();
+            }
+        }
+
+        /** Llamado por el emisor del despachador de la sala: escribe el evento en el socket. */
+        @Override
+        public void actualizar(IObservableRemoto origen, Object arg) throws RemoteException {
+            if (!(arg instanceof EventoParade ev)) return;
+            ByteBuffer trama = tomar();
+            escritura.lock();
+            try {
+                comenzar(trama, EVENTO);
+                ponerEvento(trama, ev);
+                enviar(socket, trama);
+            } catch (IOException e) {
+                throw new RemoteException("No se pudo enviar el evento", e);
+            } finally {
+                escritura.unlock();
+                devolver(trama);
+            }
+        }
+
+        void cerrar() {
+            conexiones.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "Cerrando una conexión binaria", e);
+            }
+            TransmisionSala.Espectador s = salida;
+            if (s != null) s.cerrar();
+            ModeloParade m = sala;
+            if (m != null) {
+                try {
+                    m.removerObservador(this);
+                } catch (RemoteException e) {
+                    LOG.log(Level.FINE, "Quitando un observador binario", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package modelo;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista inmutable de la partida desde el punto de vista de un jugador.
+ * Reúne en un solo objeto lo que antes requería seis consultas remotas:
+ * mano propia, carnaval, turno, recogidas propias y de todos, y bandera de última ronda.
+ * El modelo la construye una vez por cambio de estado y reutiliza las partes comunes
+ * (carnaval, nombres, pilas) entre los snapshots de todos los jugadores.
+ */
+public final class SnapshotJugador implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    private final int idJugador;            // -1 si quien consulta no está unido
+    // Las listas son copias inmutables (List.copyOf/List.of), que sí son serializables
+    @SuppressWarnings("serial") private final List<Carta> mano;
+    @SuppressWarnings("serial") private final List<Carta> carnaval;
+    private final String turnoNombre;
+    @SuppressWarnings("serial") private final List<String> nombres;
+    @SuppressWarnings("serial") private final List<List<Carta>> recolectadasTodos;
+    private final boolean ultimaRonda;
+    private final int cartasEnMazo;
+
+    SnapshotJugador(long version, int idJugador, List<Carta> mano, List<Carta> carnaval,
+                    String turnoNombre, List<String> nombres, List<List<Carta>> recolectadasTodos,
+                    boolean ultimaRonda, int cartasEnMazo) {
+        this.version = version;
+        this.idJugador = idJugador;
+        this.mano = List.copyOf(mano);         // no copia si ya es inmutable
+        this.carnaval = List.copyOf(carnaval);
+        this.turnoNombre = turnoNombre;
+        this.nombres = List.copyOf(nombres);
+        this.recolectadasTodos = List.copyOf(recolectadasTodos);
+        this.ultimaRonda = ultimaRonda;
+        this.cartasEnMazo = cartasEnMazo;
+    }
+
+    /** Versión del estado de la sala con la que se construyó este snapshot. */
+    public long getVersion() { return version; }
+    public int getIdJugador() { return idJugador; }
+    public List<Carta> getMano() { return mano; }
+    public List<Carta> getCarnaval() { return carnaval; }
+    public String getTurnoNombre() { return turnoNombre; }
+
+    /** @return nombres en el orden de registro/turnos. */
+    public List<String> getNombres() { return nombres; }
+
+    /** @return pilas de recogidas, paralelas a {@link #getNombres()}. */
+    public List<List<Carta>> getRecolectadasTodos() { return recolectadasTodos; }
+
+    /** @return recogidas propias (vacía si quien consulta no está unido). */
+    public List<Carta> getRecolectadasPropias() {
+        return (idJugador >= 0 && idJugador < recolectadasTodos.size()) ? recolectadasTodos.get(idJugador) : List.of();
+    }
+
+    public boolean isUltimaRonda() { return ultimaRonda; }
+    public int getCartasEnMazo() { return cartasEnMazo; }
+
+    /**
+     * Avanza este snapshot aplicando el delta de una jugada, sin consultar al servidor.
+     * @return el snapshot resultante, o null si el delta no se puede aplicar localmente
+     *         (no es la versión siguiente, o quien consulta jugó y robó una carta desconocida):
+     *         en ese caso hay que pedir un snapshot completo.
+     */
+    public SnapshotJugador aplicar(EventoParade ev) {
+        if (ev.getTipo() != Evento.CARTA_JUGADA || ev.getVersion() != version + 1) return null;
+        int actor = ev.getIdJugador();
+        if (actor < 0 || actor >= recolectadasTodos.size()) return null;
+
+        List<Carta> nuevaMano = mano;
+        if (actor == idJugador) {
+            if (ev.isRobo()) return null;
+            nuevaMano = new ArrayList<>(mano);
+            if (!nuevaMano.remove(ev.getJugada())) return null;
+        }
+
+        List<Carta> nuevoCarnaval = new ArrayList<>(carnaval.size() + 1);
+        nuevoCarnaval.addAll(carnaval);
+        nuevoCarnaval.add(ev.getJugada());
+        nuevoCarnaval.removeAll(ev.getRetiradas());
+
+        List<List<Carta>> nuevasPilas = recolectadasTodos;
+        if (!ev.getRetiradas().isEmpty()) {
+            ConjuntoCartas pila = new ConjuntoCartas(recolectadasTodos.get(actor));
+            pila.agregarTodas(ev.getRetiradas());
+            List<List<Carta>> pilas = new ArrayList<>(recolectadasTodos);
+            pilas.set(actor, pila.aLista());
+            nuevasPilas = pilas;
+        }
+
+        return new SnapshotJugador(ev.getVersion(), idJugador, nuevaMano, nuevoCarnaval,
+                ev.getTurnoNombre(), nombres, nuevasPilas, ev.isUltimaRonda(), ev.getCartasEnMazo());
+    }
+}
@@ -3,61 +3,165 @@ package modelo;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.io.ObjectOutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.io.ObjectInputStream;
-import java.io.FileOutputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
 
+/**
+ * Ranking persistente: mantiene en memoria sólo los mejores K resultados (arreglo ordenado acotado)
+ * y publica un snapshot inmutable del Top que se lee sin tomar el lock.
+ * El historial completo no vive en el heap: los resultados se escriben en un diario binario
+ * ({@link DiarioRanking}) que al compactarse pasa al {@link HistorialRanking} en disco.
+ */
 public final class TablaClasificacion implements Serializable {
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+    private static final Logger LOG = Logger.getLogger(TablaClasificacion.class.getName());
 
-    private final List<EntradaRanking> entradas = new ArrayList<>();
+    /** Tamaño por defecto del Top. */
+    public static final int TOP = 5;
+
+    private final int capacidad;
+    private final EntradaRanking[] mejores; // ordenado por compareTo; sólo las primeras "cantidad" posiciones
+    private int cantidad;
+    private long totalRegistradas;
+
+    /** Top publicado (inmutable); se reemplaza sólo cuando cambia. */
+    private transient volatile List<EntradaRanking> snapshotTop = List.of();
+    /** Crece cada vez que se publica un Top distinto. */
+    private transient volatile long version;
+    /** Resultados todavía no escritos en el diario. */
+    private transient List<EntradaRanking> pendientes = new ArrayList<>();
+    /** Serializa el acceso al disco, separado del lock de la tabla. */
+    private transient Object persistencia = new Object();
+    private transient DiarioRanking diario;
+    private transient String rutaDiario;
+
+    public TablaClasificacion() { this(TOP); }
+
+    public TablaClasificacion(int capacidad) {
+        if (capacidad <= 0) throw new IllegalArgumentException("capacidad debe ser > 0");
+        this.capacidad = capacidad;
+        this.mejores = new EntradaRanking[capacidad];
+    }
 
     /** Registra un resultado completo: mapa nombre -> puntaje final. */
     public synchronized void registrarResultado(Map<String, Integer> puntajes) {
         if (puntajes == null || puntajes.isEmpty()) return;
         final long ahora = System.currentTimeMillis();
+        boolean cambio = false;
         for (var e : puntajes.entrySet()) {
             final String nombre = e.getKey();
             final Integer puntaje = e.getValue();
             if (nombre == null || puntaje == null || puntaje < 0) continue;
-            entradas.add(new EntradaRanking(nombre, puntaje, ahora));
+            EntradaRanking entrada = new EntradaRanking(nombre, puntaje, ahora);
+            pendientes.add(entrada);
+            totalRegistradas++;
+            cambio |= insertarEnTop(entrada);
         }
+        if (cambio) publicarTop();
+    }
+
+    /**
+     * Inserción ordenada en el arreglo acotado: búsqueda binaria O(log K) y corrimiento de a lo sumo K.
+     * @return true si la entrada quedó dentro del Top
+     */
+    private boolean insertarEnTop(EntradaRanking e) {
+        if (cantidad == capacidad && e.compareTo(mejores[capacidad - 1]) >= 0) return false;
+        int pos = Arrays.binarySearch(mejores, 0, cantidad, e);
+        if (pos < 0) pos = -pos - 1;
+        else while (pos < cantidad && mejores[pos].compareTo(e) == 0) pos++; // empates: después de los existentes
+        int mover = Math.min(cantidad, capacidad - 1) - pos;
+        if (mover > 0) System.arraycopy(mejores, pos, mejores, pos + 1, mover);
+        mejores[pos] = e;
+        if (cantidad < capacidad) cantidad++;
+        return true;
+    }
+
+    private void publicarTop() {
+        snapshotTop = List.of(Arrays.copyOf(mejores, cantidad));
+        version++; // sólo bajo el lock de la tabla
     }
 
-    /** Devuelve el Top-5 ordenado por compareTo (puntaje asc, empate por instante). */
-    public synchronized List<EntradaRanking> top5() {
-        var copia = new ArrayList<>(entradas);
-        Collections.sort(copia);
-        if (copia.size() > 5) copia = new ArrayList<>(copia.subList(0, 5));
-        return List.copyOf(copia);
+    /** Devuelve el Top-5 ordenado por compareTo (puntaje asc, empate por instante). Sin lock: O(1). */
+    public List<EntradaRanking> top5() {
+        return snapshotTop;
     }
 
-    // === Persistencia simple a disco ===
-    public synchronized boolean guardarEn(String path) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(path))) {
-            oos.writeObject(new ArrayList<>(entradas)); // guardo una copia
-            return true;
-        } catch (IOException e) {
-            return false; // si falla, no interrumpe el juego
+    /** Versión del Top: cambia sólo cuando cambia {@link #top5()}. Sin lock. */
+    public long getVersion() { return version; }
+
+    /** Cantidad de resultados registrados desde que se creó/cargó la tabla (incluye los que no entran en el Top). */
+    public synchronized long getTotalRegistradas() { return totalRegistradas; }
+
+    // === Persistencia a disco (snapshot + diario, ver DiarioRanking) ===
+
+    /**
+     * Agrega al diario los resultados nuevos desde el último guardado (un registro chico por resultado,
+     * un fsync por lote) y compacta cuando el diario crece. El costo no depende del tamaño del historial.
+     */
+    public boolean guardarEn(String path) {
+        synchronized (persistencia) { // el disco no toma el lock de la tabla: registrar/top5 no esperan la escritura
+            List<EntradaRanking> lote;
+            List<EntradaRanking> top;
+            synchronized (this) {
+                lote = pendientes;
+                pendientes = new ArrayList<>();
+                top = snapshotTop;
+            }
+            try {
+                DiarioRanking d = diarioPara(path);
+                d.agregar(lote);
+                if (d.requiereCompactar()) d.compactar(top);
+                return true;
+            } catch (IOException e) {
+                synchronized (this) { pendientes.addAll(0, lote); } // se reintentan en el próximo guardado
+                LOG.log(Level.WARNING, "No se pudo guardar el ranking en " + path, e);
+                return false; // si falla, no interrumpe el juego
+            }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    public synchronized void cargarDe(String path) {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(path))) {
-            var data = (List<EntradaRanking>) ois.readObject();
-            entradas.clear();
-            if (data != null) entradas.addAll(data);
-        } catch (Exception ignore) {
-            // si no existe o hay error, arrancamos vacío
+    /**
+     * Carga el Top desde snapshot + diario. Acepta también el ranking.dat viejo (lista serializada),
+     * que se migra al formato nuevo. Si algo está corrupto se registra en el log y se conserva lo válido.
+     */
+    public void cargarDe(String path) {
+        synchronized (persistencia) {
+            synchronized (this) {
+                Arrays.fill(mejores, null);
+                cantidad = 0;
+                try {
+                    DiarioRanking d = diarioPara(path);
+                    for (EntradaRanking e : d.cargar()) insertarEnTop(e);
+                    publicarTop();
+                    if (d.requiereCompactar()) d.compactar(snapshotTop);
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "No se pudo cargar el ranking de " + path + "; se arranca con lo leído", e);
+                    publicarTop();
+                }
+            }
         }
     }
 
-}
+    private DiarioRanking diarioPara(String path) {
+        if (diario == null || !path.equals(rutaDiario)) {
+            if (diario != null) diario.close();
+            diario = new DiarioRanking(path);
+            rutaDiario = path;
+        }
+        return diario;
+    }
 
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        pendientes = new ArrayList<>();
+        persistencia = new Object();
+        publicarTop();
+    }
+}
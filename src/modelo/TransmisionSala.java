@@ -0,0 +1,142 @@
+package modelo;
+
+import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Difusión de una sala a sus espectadores del transporte binario. Para el {@link DespachadorEventos}
+ * es un único observador, sin importar cuántos espectadores haya: cada evento se codifica una sola
+ * vez ({@link ProtocoloParade#tramaEvento}) y la misma trama, de sólo lectura, se encola en la salida
+ * de cada espectador. Un espectador más cuesta su escritura en el socket y nada más: ni consultas a
+ * la sala ni serialización.
+ * <p>
+ * Los eventos no llevan cartas de ninguna mano (la carta robada no viaja), así que lo que se
+ * difunde es sólo estado público.
+ */
+final class TransmisionSala implements IObservadorRemoto {
+    private static final Logger LOG = Logger.getLogger(TransmisionSala.class.getName());
+
+    /** Tramas pendientes por espectador; al llenarse se descartan como en {@link DespachadorEventos}. */
+    static final int CAPACIDAD = 64;
+
+    /** Escribe una trama completa en el socket de un espectador. */
+    interface Destino {
+        void escribir(ByteBuffer trama) throws IOException;
+    }
+
+    private final DespachadorEventos despachador;
+    private final List<Espectador> espectadores = new CopyOnWriteArrayList<>();
+    private final AtomicLong tramas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    TransmisionSala(DespachadorEventos despachador) {
+        this.despachador = despachador;
+    }
+
+    /** Suma un espectador; su hilo escribe las tramas hasta {@link Espectador#cerrar()} o un error de socket. */
+    Espectador agregar(Destino destino, String nombre) {
+        Espectador e = new Espectador(destino);
+        espectadores.add(e);
+        despachador.agregar(this); // atómico e idempotente: la transmisión es un solo observador de la sala
+        Thread.ofVirtual().name("espectador-" + nombre).start(e);
+        return e;
+    }
+
+    /** Corta a todos los espectadores (la sala se descarta). */
+    void cerrar() {
+        for (Espectador e : espectadores) e.cerrar();
+    }
+
+    int getEspectadores() { return espectadores.size(); }
+    /** Eventos codificados (una vez cada uno, para todos los espectadores). */
+    long getTramas() { return tramas.get(); }
+    long getDescartadas() { return descartadas.get(); }
+
+    /** Llamado por el emisor del despachador: codifica una vez y reparte la misma trama. */
+    @Override
+    public void actualizar(IObservableRemoto origen, Object arg) {
+        if (!(arg instanceof EventoParade ev) || espectadores.isEmpty()) return;
+        ByteBuffer trama = ProtocoloParade.tramaEvento(ev);
+        tramas.incrementAndGet();
+        for (Espectador e : espectadores) e.encolar(trama);
+    }
+
+    /**
+     * Salida de un espectador: cola acotada de tramas compartidas y un hilo virtual que las escribe
+     * con su propio {@link ByteBuffer#duplicate()}. Un socket lento sólo atrasa a su espectador; si
+     * su cola se llena pierde lo pendiente y se resincroniza con un snapshot al ver el salto de
+     * secuencia.
+     */
+    final class Espectador implements Runnable {
+        private final Destino destino;
+        private final ArrayDeque<ByteBuffer> cola = new ArrayDeque<>();  // guardado por lock
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition hayTramas = lock.newCondition();
+        private boolean activo = true;                                    // guardado por lock
+
+        private Espectador(Destino destino) {
+            this.destino = destino;
+        }
+
+        private void encolar(ByteBuffer trama) {
+            lock.lock();
+            try {
+                if (!activo) return;
+                if (cola.size() >= CAPACIDAD) {
+                    descartadas.addAndGet(cola.size());
+                    cola.clear();
+                }
+                cola.addLast(trama);
+                hayTramas.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private ByteBuffer siguiente() throws InterruptedException {
+            lock.lock();
+            try {
+                while (activo && cola.isEmpty()) hayTramas.await();
+                return activo ? cola.pollFirst() : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Deja de escribir y sale de la transmisión; no cierra el socket. */
+        void cerrar() {
+            espectadores.remove(this);
+            lock.lock();
+            try {
+                activo = false;
+                cola.clear();
+                hayTramas.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                ByteBuffer trama;
+                while ((trama = siguiente()) != null) destino.escribir(trama.duplicate());
+            } catch (IOException | InterruptedException e) {
+                LOG.log(Level.FINE, "Espectador desconectado", e);
+            } finally {
+                cerrar();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package simulacion;
+
+import ar.edu.unlu.rmimvc.cliente.IControladorRemoto;
+import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+import modelo.EventoParade;
+import modelo.IParade;
+
+import java.rmi.RemoteException;
+
+/**
+ * Cliente sin vista para pruebas de carga: se registra como observador de su sala igual que
+ * {@code ControladorParade}, cuenta los eventos que recibe y se los pasa a su {@link MesaCarga}.
+ * Las jugadas no se hacen desde {@link #actualizar}: ese hilo es el del emisor del servidor.
+ */
+public final class BotRemoto implements IControladorRemoto {
+    private final MesaCarga mesa;
+    private final int asiento;
+    private final String nombre;
+    private IParade modelo;
+    private int idJugador = -1;
+    private IObservadorRemoto exportado;   // stub con el que se registró en la sala
+
+    BotRemoto(MesaCarga mesa, int asiento, String nombre) {
+        this.mesa = mesa;
+        this.asiento = asiento;
+        this.nombre = nombre;
+    }
+
+    @Override
+    public <T extends IObservableRemoto> void setModeloRemoto(T modeloRemoto) {
+        this.modelo = (IParade) modeloRemoto;
+    }
+
+    @Override
+    public void actualizar(IObservableRemoto o, Object arg) throws RemoteException {
+        if (arg instanceof EventoParade ev) mesa.recibido(asiento, ev);
+    }
+
+    IParade modelo() { return modelo; }
+    String nombre() { return nombre; }
+    int idJugador() { return idJugador; }
+    void setIdJugador(int id) { this.idJugador = id; }
+    IObservadorRemoto exportado() { return exportado; }
+    void setExportado(IObservadorRemoto stub) { this.exportado = stub; }
+}
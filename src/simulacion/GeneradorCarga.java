@@ -0,0 +1,130 @@
+package simulacion;
+
+import modelo.ISalasParade;
+import modelo.RegistroSalas;
+
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generador de carga contra un servidor Parade por RMI: agrega mesas de {@link BotRemoto}s en
+ * escalones ({@code paso}, {@code 2*paso}, ... hasta {@code maxClientes}) y en cada escalón mide
+ * la latencia de las jugadas de punta a punta, las llamadas RMI por segundo que hacen los bots y
+ * los eventos por segundo que les entrega el servidor. Los bots de un escalón siguen jugando en
+ * los siguientes.
+ */
+public final class GeneradorCarga {
+    private static final Logger LOG = Logger.getLogger(GeneradorCarga.class.getName());
+
+    private final String host;
+    private final int puerto;
+    private final int jugadoresPorMesa;
+    private final int puertoBinario;
+    private final List<MesaCarga> mesas = new ArrayList<>();
+
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder eventos = new LongAdder();
+    private final LongAdder sinConfirmar = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+
+    private long[] latencias = new long[1024];   // ventana del escalón en curso (guardado por this)
+    private int cantLatencias;
+
+    public GeneradorCarga(String host, int puerto, int jugadoresPorMesa) {
+        this(host, puerto, jugadoresPorMesa, 0);
+    }
+
+    /**
+     * @param puertoBinario si es mayor que 0, los bots juegan por el transporte binario en ese puerto
+     *                      (RMI sólo se usa para esperar al registro de salas)
+     */
+    public GeneradorCarga(String host, int puerto, int jugadoresPorMesa, int puertoBinario) {
+        if (jugadoresPorMesa < 2) throw new IllegalArgumentException("Se necesitan al menos 2 jugadores por mesa");
+        this.host = host;
+        this.puerto = puerto;
+        this.jugadoresPorMesa = jugadoresPorMesa;
+        this.puertoBinario = puertoBinario;
+    }
+
+    /**
+     * Corre todos los escalones.
+     * @param alTerminarEscalon recibe cada resultado apenas se mide (para ir imprimiendo)
+     */
+    public List<ResultadoCarga> escalonar(int maxClientes, int paso, long msPorEscalon,
+                                          Consumer<ResultadoCarga> alTerminarEscalon)
+            throws RemoteException, InterruptedException {
+        ISalasParade salas;
+        try {
+            salas = (ISalasParade) LocateRegistry.getRegistry(host, puerto).lookup(RegistroSalas.NOMBRE_RMI);
+        } catch (NotBoundException e) {
+            throw new RemoteException("No se encontró el registro de salas en " + host + ":" + puerto, e);
+        }
+
+        List<ResultadoCarga> res = new ArrayList<>();
+        try {
+            for (int objetivo = paso; objetivo <= maxClientes; objetivo += paso) {
+                while (clientes() < objetivo) {
+                    MesaCarga m = new MesaCarga(this, "carga-" + mesas.size(), jugadoresPorMesa, mesas.size());
+                    mesas.add(m);
+                    m.arrancar(salas);
+                }
+                ResultadoCarga r = medir(msPorEscalon);
+                res.add(r);
+                if (alTerminarEscalon != null) alTerminarEscalon.accept(r);
+            }
+        } finally {
+            detener();
+        }
+        return res;
+    }
+
+    private int clientes() { return mesas.size() * jugadoresPorMesa; }
+
+    String host() { return host; }
+    int puertoBinario() { return puertoBinario; }
+
+    private ResultadoCarga medir(long ms) throws InterruptedException {
+        synchronized (this) { cantLatencias = 0; }
+        long llamadas0 = llamadas.sum(), eventos0 = eventos.sum();
+        long sinConfirmar0 = sinConfirmar.sum(), errores0 = errores.sum();
+        long t0 = System.nanoTime();
+        Thread.sleep(ms);
+        long nanos = System.nanoTime() - t0;
+        long[] lat;
+        synchronized (this) { lat = Arrays.copyOf(latencias, cantLatencias); }
+        return new ResultadoCarga(clientes(), mesas.size(), nanos, lat,
+                llamadas.sum() - llamadas0, eventos.sum() - eventos0,
+                sinConfirmar.sum() - sinConfirmar0, errores.sum() - errores0);
+    }
+
+    /** Detiene todas las mesas y des-exporta (o desconecta) sus bots. */
+    public void detener() throws InterruptedException {
+        for (MesaCarga m : mesas) m.detener();
+        for (MesaCarga m : mesas) m.cerrar();
+        mesas.clear();
+    }
+
+    // ---- Contadores (los llaman las mesas y los bots desde sus hilos) ----
+
+    void contarLlamada() { llamadas.increment(); }
+    void contarEvento() { eventos.increment(); }
+    void contarSinConfirmar() { sinConfirmar.increment(); }
+
+    void contarError(String idSala, Exception e) {
+        errores.increment();
+        LOG.log(Level.WARNING, "Mesa " + idSala + " detenida por error", e);
+    }
+
+    synchronized void registrarLatencia(long nanos) {
+        if (cantLatencias == latencias.length) latencias = Arrays.copyOf(latencias, cantLatencias * 2);
+        latencias[cantLatencias++] = nanos;
+    }
+}
@@ -0,0 +1,163 @@
+package simulacion;
+
+import ar.edu.unlu.rmimvc.observer.IObservadorRemoto;
+import modelo.Carta;
+import modelo.ClienteBinario;
+import modelo.EventoParade;
+import modelo.ISalasParade;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Una sala del servidor ocupada por {@link BotRemoto}s. Un hilo virtual por mesa juega por el bot
+ * en turno (índice al azar de su mano: toda carta es legal en Parade) y mide cada jugada desde que
+ * se llama a {@code jugarCarta} hasta que el evento llegó a todos los observadores de la sala.
+ * Al terminar una partida la vuelve a iniciar, hasta que el generador la detenga.
+ */
+final class MesaCarga {
+    private static final long ESPERA_MS = 10_000;
+
+    /** Jugada en vuelo: la sala tiene una sola a la vez, así que cualquier CARTA_JUGADA es de ésta. */
+    private static final class Jugada {
+        final long inicio = System.nanoTime();
+        final AtomicInteger faltan;
+        final CountDownLatch confirmada = new CountDownLatch(1);
+        volatile long llegada;
+        volatile boolean ultimaRonda;
+
+        Jugada(int observadores) { faltan = new AtomicInteger(observadores); }
+    }
+
+    private final GeneradorCarga generador;
+    private final String idSala;
+    private final BotRemoto[] bots;
+    private final Semaphore finPartida = new Semaphore(0);
+    private final SplittableRandom rng;
+    private volatile Jugada enCurso;
+    private volatile boolean activa = true;
+    private Thread hilo;
+
+    MesaCarga(GeneradorCarga generador, String idSala, int jugadores, long semilla) {
+        this.generador = generador;
+        this.idSala = idSala;
+        this.rng = new SplittableRandom(semilla);
+        this.bots = new BotRemoto[jugadores];
+        for (int i = 0; i < jugadores; i++) bots[i] = new BotRemoto(this, i, idSala + "-bot" + i);
+    }
+
+    int jugadores() { return bots.length; }
+
+    /**
+     * Exporta los bots (o les abre una conexión binaria cada uno), los registra como observadores,
+     * los une a la sala y arranca el hilo de juego.
+     */
+    void arrancar(ISalasParade salas) throws RemoteException {
+        for (BotRemoto b : bots) {
+            if (generador.puertoBinario() > 0) {
+                b.setModeloRemoto(ClienteBinario.conectar(generador.host(), generador.puertoBinario(), idSala));
+                b.setExportado(b); // sin stub: el cliente binario notifica al bot directamente
+            } else {
+                b.setModeloRemoto(salas.sala(idSala));
+                b.setExportado((IObservadorRemoto) UnicastRemoteObject.exportObject(b, 0));
+            }
+            generador.contarLlamada();
+            b.modelo().agregarObservador(b.exportado());
+            generador.contarLlamada();
+            b.setIdJugador(b.modelo().unirJugador(b.nombre()));
+            generador.contarLlamada();
+        }
+        hilo = Thread.ofVirtual().name("carga-" + idSala).start(this::jugar);
+    }
+
+    void detener() {
+        activa = false;
+        if (hilo != null) hilo.interrupt();
+    }
+
+    /** Espera al hilo de juego y des-exporta (o desconecta) los bots. */
+    void cerrar() throws InterruptedException {
+        if (hilo != null) hilo.join(ESPERA_MS);
+        for (BotRemoto b : bots) {
+            try {
+                if (b.exportado() != null) b.modelo().removerObservador(b.exportado());
+            } catch (RemoteException ignored) {
+                // servidor ya caído: nada que avisar
+            }
+            if (b.modelo() instanceof ClienteBinario cli) cli.cerrar();
+            try {
+                UnicastRemoteObject.unexportObject(b, true);
+            } catch (NoSuchObjectException ignored) {
+                // nunca se exportó
+            }
+        }
+    }
+
+    /** Llamado desde {@link BotRemoto#actualizar} (hilo del emisor de cada observador). */
+    void recibido(int asiento, EventoParade ev) {
+        generador.contarEvento();
+        switch (ev.getTipo()) {
+            case CARTA_JUGADA -> {
+                Jugada j = enCurso;
+                if (j == null) return;
+                if (ev.isUltimaRonda()) j.ultimaRonda = true;
+                if (j.faltan.decrementAndGet() == 0) {
+                    j.llegada = System.nanoTime();
+                    j.confirmada.countDown();
+                }
+            }
+            case FIN_PARTIDA -> { if (asiento == 0) finPartida.release(); }
+            default -> { }
+        }
+    }
+
+    /**
+     * Partidas seguidas. El fin se deduce de las reglas para no jugar de más: la jugada que activa la
+     * última ronda deja todas las manos en 5 y después cada jugador juega una vez más sin robar.
+     */
+    private void jugar() {
+        try {
+            while (activa) {
+                finPartida.drainPermits();
+                bots[0].modelo().iniciarPartida(6, 5);
+                generador.contarLlamada();
+                int turno = 0, restantes = -1;
+                while (restantes != 0) {
+                    if (!activa) return;
+                    BotRemoto b = bots[turno];
+                    List<Carta> mano = b.modelo().obtenerMano(b.idJugador());
+                    generador.contarLlamada();
+
+                    Jugada j = new Jugada(bots.length);
+                    enCurso = j;
+                    b.modelo().jugarCarta(b.idJugador(), rng.nextInt(mano.size()));
+                    generador.contarLlamada();
+                    if (j.confirmada.await(ESPERA_MS, TimeUnit.MILLISECONDS)) {
+                        generador.registrarLatencia(j.llegada - j.inicio);
+                    } else {
+                        generador.contarSinConfirmar();
+                    }
+                    enCurso = null;
+
+                    if (restantes > 0) restantes--;
+                    else if (j.ultimaRonda) restantes = bots.length;
+                    turno = (turno + 1) % bots.length;
+                }
+                finPartida.tryAcquire(ESPERA_MS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RemoteException | RuntimeException e) {
+            // p. ej. IllegalStateException si la partida se reinició en el medio: la mesa deja de
+            // jugar, así que se cuenta como error en vez de perder el hilo en silencio
+            if (activa) generador.contarError(idSala, e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package simulacion;
+
+import modelo.Carta;
+import modelo.ConjuntoCartas;
+import modelo.Jugador;
+import modelo.ReglasParade;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategia de un jugador simulado: elige qué carta de la mano jugar.
+ * Las políticas no deben guardar estado mutable compartido: el simulador
+ * las invoca desde varios hilos a la vez, cada uno con su propio generador.
+ */
+@FunctionalInterface
+public interface PoliticaJugada {
+
+    /**
+     * @param jugador  jugador en turno (mano y recogidas; no modificar)
+     * @param carnaval carnaval actual en orden de mesa (no modificar)
+     * @param rng      generador del hilo que simula esta partida
+     * @return índice de la carta a jugar dentro de la mano (orden de {@link ConjuntoCartas#obtener})
+     */
+    int elegir(Jugador jugador, List<Carta> carnaval, RandomGenerator rng);
+
+    /** Juega una carta cualquiera de la mano. */
+    PoliticaJugada ALEATORIA = (j, carnaval, rng) -> rng.nextInt(j.getMano().tamano());
+
+    /** Juega la carta que menos puntos retira del carnaval (empate: la de mayor valor). */
+    PoliticaJugada MINIMO_RETIRO = (j, carnaval, rng) -> {
+        ConjuntoCartas mano = j.getMano();
+        int mejor = 0;
+        int mejorValor = Integer.MAX_VALUE;
+        for (int i = 0; i < mano.tamano(); i++) {
+            Carta c = mano.obtener(i);
+            int valor = ReglasParade.valorRetirado(carnaval, c) * 16 - c.getValor();
+            if (valor < mejorValor) { mejorValor = valor; mejor = i; }
+        }
+        return mejor;
+    };
+
+    /** Busca la política por nombre ("aleatoria" o "minimo"). */
+    static PoliticaJugada porNombre(String nombre) {
+        return switch (nombre.trim().toLowerCase()) {
+            case "aleatoria" -> ALEATORIA;
+            case "minimo", "minimo_retiro" -> MINIMO_RETIRO;
+            default -> throw new IllegalArgumentException("Política desconocida: " + nombre);
+        };
+    }
+}
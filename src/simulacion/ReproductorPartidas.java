@@ -0,0 +1,114 @@
+package simulacion;
+
+import modelo.Carta;
+import modelo.EstadoPartida;
+import modelo.Jugador;
+import modelo.MotorPartida;
+import modelo.PartidaGrabada;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Vuelve a ejecutar partidas grabadas ({@link PartidaGrabada}) sobre un {@link MotorPartida}
+ * (sin RMI, observadores ni disco) y compara carnaval final, pilas y puntajes con lo grabado.
+ * Sirve para reproducir una partida reportada y para pasar tráfico real por una versión nueva
+ * de las reglas: cualquier diferencia se informa como {@link Divergencia}.
+ */
+public final class ReproductorPartidas {
+
+    /** Diferencia entre lo grabado y lo obtenido al reproducir. */
+    public static final class Divergencia {
+        private final int partida;
+        private final String campo;
+        private final String esperado;
+        private final String obtenido;
+
+        Divergencia(int partida, String campo, String esperado, String obtenido) {
+            this.partida = partida;
+            this.campo = campo;
+            this.esperado = esperado;
+            this.obtenido = obtenido;
+        }
+
+        /** Posición de la partida en la lista reproducida. */
+        public int getPartida() { return partida; }
+        public String getCampo() { return campo; }
+        public String getEsperado() { return esperado; }
+        public String getObtenido() { return obtenido; }
+
+        @Override
+        public String toString() {
+            return "partida " + partida + ": " + campo + " esperado " + esperado + ", obtenido " + obtenido;
+        }
+    }
+
+    /** Lee un archivo de grabaciones (una por línea; se ignoran las vacías). */
+    public static List<PartidaGrabada> leer(Path archivo) throws IOException {
+        try (Stream<String> lineas = Files.lines(archivo)) {
+            return lineas.filter(l -> !l.isBlank()).map(PartidaGrabada::deLinea).toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Reproduce todas las partidas y devuelve las divergencias encontradas. */
+    public ResultadoReproduccion reproducir(List<PartidaGrabada> partidas) {
+        long t0 = System.nanoTime();
+        List<Divergencia> divergencias = new ArrayList<>();
+        long jugadas = 0;
+        for (int i = 0; i < partidas.size(); i++) {
+            jugadas += reproducir(i, partidas.get(i), divergencias);
+        }
+        return new ResultadoReproduccion(partidas.size(), jugadas, divergencias, System.nanoTime() - t0);
+    }
+
+    /** @return cantidad de jugadas ejecutadas */
+    private int reproducir(int idx, PartidaGrabada p, List<Divergencia> salida) {
+        EstadoPartida estado = new EstadoPartida();
+        List<String> nombres = p.getNombres();
+        for (int i = 0; i < nombres.size(); i++) estado.getJugadores().add(new Jugador(i, nombres.get(i)));
+        MotorPartida motor = new MotorPartida(estado);
+        motor.iniciar(p.getCartasInicialMesa(), p.getCartasPorJugador(), new Random(p.getSemilla()));
+
+        int k = 0;
+        for (; k < p.getCantidadJugadas(); k++) {
+            int id = estado.getTurnoActual();
+            if (motor.jugar(id, p.getJugada(k)) == MotorPartida.INVALIDA) {
+                salida.add(new Divergencia(idx, "jugada " + k, "válida (índice " + p.getJugada(k) + ")",
+                        "inválida para el jugador " + id));
+                return k;
+            }
+        }
+        if (!motor.esFinDePartida()) salida.add(new Divergencia(idx, "fin de partida", "sí", "no"));
+
+        comparar(idx, "carnaval", p.getCarnaval(), ordinales(estado.getCarnaval()), salida);
+        for (int i = 0; i < nombres.size(); i++) {
+            comparar(idx, "pila de " + nombres.get(i), p.getPila(i),
+                    ordinales(estado.getJugadores().get(i).getRecolectadas().aLista()), salida);
+        }
+        int[] puntajes = new int[nombres.size()];
+        motor.puntajes(puntajes);
+        comparar(idx, "puntajes", p.getPuntajes(), puntajes, salida);
+        return k;
+    }
+
+    private static void comparar(int idx, String campo, int[] esperado, int[] obtenido, List<Divergencia> salida) {
+        if (!Arrays.equals(esperado, obtenido)) {
+            salida.add(new Divergencia(idx, campo, Arrays.toString(esperado), Arrays.toString(obtenido)));
+        }
+    }
+
+    private static int[] ordinales(List<Carta> cartas) {
+        int[] o = new int[cartas.size()];
+        for (int i = 0; i < o.length; i++) o[i] = cartas.get(i).ordinal();
+        return o;
+    }
+}
@@ -0,0 +1,76 @@
+package simulacion;
+
+import java.util.Arrays;
+
+/**
+ * Resumen inmutable de un escalón del {@link GeneradorCarga}: percentiles de latencia de jugada
+ * (de {@code jugarCarta} a que el evento llegó a todos los observadores de la sala) y tasas de
+ * llamadas RMI y eventos entregados.
+ */
+public final class ResultadoCarga {
+    private final int clientes;
+    private final int mesas;
+    private final long nanos;
+    private final long jugadas;
+    private final long p50, p90, p99, max;
+    private final long llamadas;
+    private final long eventos;
+    private final long sinConfirmar;
+    private final long errores;
+
+    ResultadoCarga(int clientes, int mesas, long nanos, long[] latencias,
+                   long llamadas, long eventos, long sinConfirmar, long errores) {
+        this.clientes = clientes;
+        this.mesas = mesas;
+        this.nanos = nanos;
+        this.llamadas = llamadas;
+        this.eventos = eventos;
+        this.sinConfirmar = sinConfirmar;
+        this.errores = errores;
+        Arrays.sort(latencias);
+        this.jugadas = latencias.length;
+        this.p50 = percentil(latencias, 0.50);
+        this.p90 = percentil(latencias, 0.90);
+        this.p99 = percentil(latencias, 0.99);
+        this.max = latencias.length == 0 ? 0 : latencias[latencias.length - 1];
+    }
+
+    private static long percentil(long[] ordenadas, double q) {
+        if (ordenadas.length == 0) return 0;
+        int i = (int) Math.ceil(q * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(i, ordenadas.length - 1))];
+    }
+
+    public int getClientes() { return clientes; }
+    public int getMesas() { return mesas; }
+    public double getSegundos() { return nanos / 1e9; }
+    public long getJugadas() { return jugadas; }
+    public double getJugadasPorSegundo() { return jugadas / getSegundos(); }
+    public long getLatenciaP50Nanos() { return p50; }
+    public long getLatenciaP90Nanos() { return p90; }
+    public long getLatenciaP99Nanos() { return p99; }
+    public long getLatenciaMaxNanos() { return max; }
+    public double getLlamadasPorSegundo() { return llamadas / getSegundos(); }
+    public double getEventosPorSegundo() { return eventos / getSegundos(); }
+    /** Jugadas cuyo evento no llegó a todos los observadores dentro de la espera. */
+    public long getSinConfirmar() { return sinConfirmar; }
+    /** Mesas detenidas por un error remoto durante el escalón. */
+    public long getErrores() { return errores; }
+
+    /** Encabezado de las columnas de {@link #informe()}. */
+    public static String encabezado() {
+        return String.format("%8s %6s %10s %8s %8s %8s %8s %11s %10s %6s%n",
+                "clientes", "mesas", "jugadas/s", "p50 ms", "p90 ms", "p99 ms", "max ms",
+                "llamadas/s", "eventos/s", "perd.");
+    }
+
+    /** Una línea de texto para consola. */
+    public String informe() {
+        return String.format("%8d %6d %,10.0f %8.2f %8.2f %8.2f %8.2f %,11.0f %,10.0f %6d%n",
+                clientes, mesas, getJugadasPorSegundo(), p50 / 1e6, p90 / 1e6, p99 / 1e6, max / 1e6,
+                getLlamadasPorSegundo(), getEventosPorSegundo(), sinConfirmar + errores);
+    }
+
+    @Override
+    public String toString() { return informe(); }
+}
@@ -0,0 +1,48 @@
+package simulacion;
+
+import java.util.List;
+
+/**
+ * Resumen inmutable de una corrida del {@link ReproductorPartidas}: rendimiento y divergencias.
+ */
+public final class ResultadoReproduccion {
+    /** Divergencias que se listan en el informe (el resto sólo se cuenta). */
+    private static final int MAX_INFORME = 20;
+
+    private final int partidas;
+    private final long jugadas;
+    private final List<ReproductorPartidas.Divergencia> divergencias;
+    private final long nanos;
+
+    ResultadoReproduccion(int partidas, long jugadas, List<ReproductorPartidas.Divergencia> divergencias, long nanos) {
+        this.partidas = partidas;
+        this.jugadas = jugadas;
+        this.divergencias = List.copyOf(divergencias);
+        this.nanos = nanos;
+    }
+
+    public int getPartidas() { return partidas; }
+    public long getJugadas() { return jugadas; }
+    public List<ReproductorPartidas.Divergencia> getDivergencias() { return divergencias; }
+    public boolean sinDivergencias() { return divergencias.isEmpty(); }
+    public double getSegundos() { return nanos / 1e9; }
+    public double getPartidasPorSegundo() { return nanos == 0 ? 0 : partidas / getSegundos(); }
+
+    /** Informe de texto para consola. */
+    public String informe() {
+        var sb = new StringBuilder();
+        sb.append(String.format("Partidas reproducidas: %,d (%,d jugadas) en %.3f s -> %,.0f partidas/s%n",
+                partidas, jugadas, getSegundos(), getPartidasPorSegundo()));
+        if (divergencias.isEmpty()) {
+            sb.append("Sin divergencias.\n");
+        } else {
+            sb.append(String.format("Divergencias: %,d%n", divergencias.size()));
+            divergencias.stream().limit(MAX_INFORME).forEach(d -> sb.append("  ").append(d).append('\n'));
+            if (divergencias.size() > MAX_INFORME) sb.append("  ...\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() { return informe(); }
+}
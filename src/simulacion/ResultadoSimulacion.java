@@ -0,0 +1,75 @@
+package simulacion;
+
+/**
+ * Resumen inmutable de una corrida del {@link SimuladorParade}:
+ * rendimiento (partidas/seg) y estadísticas de puntajes y duración por asiento.
+ */
+public final class ResultadoSimulacion {
+    private final long partidas;
+    private final long trabadas;
+    private final long nanos;
+    private final int hilos;
+    private final double jugadasPromedio;
+    private final long jugadasMin, jugadasMax;
+    private final double[] puntajePromedio, puntajeDesvio, tasaVictorias;
+    private final int[] puntajeMin, puntajeMax;
+
+    ResultadoSimulacion(SimuladorParade.Acumulador acc, long nanos, int hilos) {
+        this.partidas = acc.partidas;
+        this.trabadas = acc.trabadas;
+        this.nanos = nanos;
+        this.hilos = hilos;
+        long n = Math.max(1, acc.partidas);
+        this.jugadasPromedio = acc.jugadasTotal / (double) n;
+        this.jugadasMin = acc.partidas == 0 ? 0 : acc.jugadasMin;
+        this.jugadasMax = acc.jugadasMax;
+
+        int js = acc.jugadores;
+        puntajePromedio = new double[js];
+        puntajeDesvio = new double[js];
+        tasaVictorias = new double[js];
+        puntajeMin = new int[js];
+        puntajeMax = new int[js];
+        for (int i = 0; i < js; i++) {
+            double media = acc.sumaPuntos[i] / (double) n;
+            puntajePromedio[i] = media;
+            puntajeDesvio[i] = Math.sqrt(Math.max(0, acc.sumaCuadrados[i] / (double) n - media * media));
+            tasaVictorias[i] = acc.victorias[i] / n;
+            puntajeMin[i] = acc.partidas == 0 ? 0 : acc.minPuntos[i];
+            puntajeMax[i] = acc.maxPuntos[i];
+        }
+    }
+
+    public long getPartidas() { return partidas; }
+    /** Partidas que no pudieron cerrar (configuraciones de reparto sin fin posible). */
+    public long getTrabadas() { return trabadas; }
+    public double getSegundos() { return nanos / 1e9; }
+    public double getPartidasPorSegundo() { return nanos == 0 ? 0 : partidas / getSegundos(); }
+    public double getJugadasPromedio() { return jugadasPromedio; }
+    public long getJugadasMin() { return jugadasMin; }
+    public long getJugadasMax() { return jugadasMax; }
+    public double getPuntajePromedio(int asiento) { return puntajePromedio[asiento]; }
+    public double getPuntajeDesvio(int asiento) { return puntajeDesvio[asiento]; }
+    public int getPuntajeMin(int asiento) { return puntajeMin[asiento]; }
+    public int getPuntajeMax(int asiento) { return puntajeMax[asiento]; }
+    /** Fracción de partidas ganadas (menor puntaje; los empates reparten). */
+    public double getTasaVictorias(int asiento) { return tasaVictorias[asiento]; }
+
+    /** Informe de texto para consola. */
+    public String informe() {
+        var sb = new StringBuilder();
+        sb.append(String.format("Partidas: %,d en %.2f s con %d hilos -> %,.0f partidas/s%n",
+                partidas, getSegundos(), hilos, getPartidasPorSegundo()));
+        if (trabadas > 0) sb.append(String.format("Partidas sin cierre: %,d%n", trabadas));
+        sb.append(String.format("Jugadas por partida: prom %.2f  min %d  max %d%n", jugadasPromedio, jugadasMin, jugadasMax));
+        sb.append("Asiento  puntaje prom  desvío   min  max  victorias\n");
+        for (int i = 0; i < puntajePromedio.length; i++) {
+            sb.append(String.format("  %-5d  %12.2f  %6.2f  %4d %4d  %8.2f%%%n",
+                    i, puntajePromedio[i], puntajeDesvio[i], puntajeMin[i], puntajeMax[i], tasaVictorias[i] * 100));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() { return informe(); }
+}
@@ -0,0 +1,165 @@
+package simulacion;
+
+import modelo.EstadoPartida;
+import modelo.Jugador;
+import modelo.MotorPartida;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulador headless de partidas de Parade (sin RMI, observadores ni disco).
+ * Cada partida corre sobre un {@link MotorPartida}, es decir, con las mismas reglas que el servidor.
+ * Las partidas se reparten con fork/join entre todos los núcleos; cada tramo de partidas
+ * tiene su propio generador sembrado a partir de la semilla global, así que para la misma
+ * configuración y semilla los resultados son reproducibles sin importar la cantidad de hilos.
+ */
+public final class SimuladorParade {
+
+    /** Partidas por tramo secuencial (hoja del fork/join). */
+    private static final long TRAMO = 2_048;
+    /** Tope defensivo de jugadas por partida (una partida normal no llega a 70). */
+    private static final int MAX_JUGADAS = 1_000;
+
+    private final List<PoliticaJugada> politicas; // una por asiento
+    private final int cartasInicialMesa;
+    private final int cartasPorJugador;
+
+    /**
+     * @param politicas una política por asiento (define también la cantidad de jugadores)
+     */
+    public SimuladorParade(List<PoliticaJugada> politicas, int cartasInicialMesa, int cartasPorJugador) {
+        if (politicas == null || politicas.isEmpty()) throw new IllegalArgumentException("Se necesita al menos un jugador.");
+        this.politicas = List.copyOf(politicas);
+        this.cartasInicialMesa = cartasInicialMesa;
+        this.cartasPorJugador = cartasPorJugador;
+    }
+
+    /** Simula en el pool común de fork/join. */
+    public ResultadoSimulacion simular(long partidas, long semilla) {
+        return simular(partidas, semilla, ForkJoinPool.commonPool());
+    }
+
+    public ResultadoSimulacion simular(long partidas, long semilla, ForkJoinPool pool) {
+        long t0 = System.nanoTime();
+        Acumulador acc = pool.invoke(new Tramo(0, partidas, semilla));
+        return new ResultadoSimulacion(acc, System.nanoTime() - t0, pool.getParallelism());
+    }
+
+    // ---------------- Fork/join ----------------
+
+    private final class Tramo extends RecursiveTask<Acumulador> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final long desde, hasta, semilla;
+
+        Tramo(long desde, long hasta, long semilla) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.semilla = semilla;
+        }
+
+        @Override
+        protected Acumulador compute() {
+            if (hasta - desde <= TRAMO) return simularTramo(desde, hasta, semilla);
+            long medio = (desde + hasta) >>> 1;
+            Tramo izq = new Tramo(desde, medio, semilla);
+            izq.fork();
+            Acumulador der = new Tramo(medio, hasta, semilla).compute();
+            return izq.join().combinar(der);
+        }
+    }
+
+    /** Corre un tramo secuencial reutilizando estado, motor y buffers entre partidas. */
+    private Acumulador simularTramo(long desde, long hasta, long semilla) {
+        // El generador depende sólo de la semilla y del inicio del tramo: reproducible.
+        SplittableRandom rng = new SplittableRandom(semilla ^ (desde * 0x9E3779B97F4A7C15L));
+        int n = politicas.size();
+
+        EstadoPartida estado = new EstadoPartida();
+        for (int i = 0; i < n; i++) estado.getJugadores().add(new Jugador(i, "bot" + i));
+        MotorPartida motor = new MotorPartida(estado);
+        int[] puntos = new int[n];
+        Acumulador acc = new Acumulador(n);
+
+        for (long p = desde; p < hasta; p++) {
+            motor.iniciar(cartasInicialMesa, cartasPorJugador, rng);
+            int jugadas = 0;
+            boolean fin = false;
+            while (!fin && jugadas < MAX_JUGADAS) {
+                int turno = estado.getTurnoActual();
+                Jugador j = estado.getJugadores().get(turno);
+                if (j.getMano().estaVacio()) break; // configuración que no puede cerrar
+                int idx = politicas.get(turno).elegir(j, estado.getCarnaval(), rng);
+                int r = motor.jugar(turno, idx);
+                if (r == MotorPartida.INVALIDA) throw new IllegalStateException("La política devolvió un índice inválido: " + idx);
+                jugadas++;
+                fin = (r & MotorPartida.FIN) != 0;
+            }
+            if (!fin) { acc.trabadas++; continue; }
+            motor.puntajes(puntos);
+            acc.registrar(puntos, jugadas);
+        }
+        return acc;
+    }
+
+    // ---------------- Agregación ----------------
+
+    /** Estadísticas parciales de un tramo; se combinan al volver del fork/join. */
+    static final class Acumulador {
+        final int jugadores;
+        long partidas, trabadas;
+        long jugadasTotal, jugadasMin = Long.MAX_VALUE, jugadasMax;
+        final long[] sumaPuntos, sumaCuadrados;
+        final int[] minPuntos, maxPuntos;
+        final double[] victorias; // los empates reparten la victoria
+
+        Acumulador(int jugadores) {
+            this.jugadores = jugadores;
+            sumaPuntos = new long[jugadores];
+            sumaCuadrados = new long[jugadores];
+            minPuntos = new int[jugadores];
+            maxPuntos = new int[jugadores];
+            victorias = new double[jugadores];
+            java.util.Arrays.fill(minPuntos, Integer.MAX_VALUE);
+        }
+
+        void registrar(int[] puntos, int jugadas) {
+            partidas++;
+            jugadasTotal += jugadas;
+            jugadasMin = Math.min(jugadasMin, jugadas);
+            jugadasMax = Math.max(jugadasMax, jugadas);
+            int mejor = Integer.MAX_VALUE, ganadores = 0;
+            for (int i = 0; i < jugadores; i++) {
+                int p = puntos[i];
+                sumaPuntos[i] += p;
+                sumaCuadrados[i] += (long) p * p;
+                minPuntos[i] = Math.min(minPuntos[i], p);
+                maxPuntos[i] = Math.max(maxPuntos[i], p);
+                if (p < mejor) { mejor = p; ganadores = 1; }
+                else if (p == mejor) ganadores++;
+            }
+            for (int i = 0; i < jugadores; i++) if (puntos[i] == mejor) victorias[i] += 1.0 / ganadores;
+        }
+
+        Acumulador combinar(Acumulador o) {
+            partidas += o.partidas;
+            trabadas += o.trabadas;
+            jugadasTotal += o.jugadasTotal;
+            jugadasMin = Math.min(jugadasMin, o.jugadasMin);
+            jugadasMax = Math.max(jugadasMax, o.jugadasMax);
+            for (int i = 0; i < jugadores; i++) {
+                sumaPuntos[i] += o.sumaPuntos[i];
+                sumaCuadrados[i] += o.sumaCuadrados[i];
+                minPuntos[i] = Math.min(minPuntos[i], o.minPuntos[i]);
+                maxPuntos[i] = Math.max(maxPuntos[i], o.maxPuntos[i]);
+                victorias[i] += o.victorias[i];
+            }
+            return this;
+        }
+    }
+}
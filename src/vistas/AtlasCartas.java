@@ -0,0 +1,197 @@
+package vistas;
+
+import modelo.Carta;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Miniaturas de cartas guardadas en disco: un atlas por alto (cubeta de {@value #PASO} px) con las
+ * 66 cartas ya escaladas, sin comprimir, para no decodificar los JPEG en cada arranque.
+ * <p>
+ * Archivo {@code cartas-<hash>-<alto>.atlas}, donde {@code hash} es un CRC32 de los recursos de
+ * cartas (si cambian las imágenes, el atlas viejo simplemente deja de usarse):
+ * <pre>
+ * [int magic][int hash][int alto][int anchoCelda][int columnas][int filas]
+ * [int ancho] x 66        (ancho real de cada carta dentro de su celda)
+ * [int rgb] x (anchoCelda*columnas * alto*filas)
+ * </pre>
+ * Se lee con una sola lectura y se corta con {@link BufferedImage#getSubimage}, que comparte los píxeles.
+ */
+final class AtlasCartas {
+    private static final int MAGIC = 0x50524D31; // "PRM1"
+    private static final int COLUMNAS = 11;
+    private static final int FILAS = (Carta.TOTAL + COLUMNAS - 1) / COLUMNAS;
+    private static final int CABECERA = 4 * (6 + Carta.TOTAL);
+
+    /** Altos redondeados hacia arriba a múltiplos de PASO: pocos atlas y escalado final corto. */
+    static final int PASO = 32;
+    private static final int MINIMO = 64;
+
+    private AtlasCartas() {}
+
+    static int cubeta(int alto) {
+        return Math.max(MINIMO, (alto + PASO - 1) / PASO * PASO);
+    }
+
+    /** Directorio por defecto: {@code ~/.parade/miniaturas}. */
+    static Path directorioPorDefecto() {
+        return Path.of(System.getProperty("user.home"), ".parade", "miniaturas");
+    }
+
+    static Path archivo(Path dir, int hash, int alto) {
+        return dir.resolve(String.format("cartas-%08x-%d.atlas", hash, alto));
+    }
+
+    /** CRC32 de los bytes de cada recurso (en orden de ordinal) y sus largos; 0 si falta alguno. */
+    static int hashRecursos(URL[] recursos) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[64 * 1024];
+        for (URL url : recursos) {
+            if (url == null) return 0;
+            long largo = 0;
+            try (InputStream in = url.openStream()) {
+                for (int n; (n = in.read(buf)) > 0; largo += n) crc.update(buf, 0, n);
+            }
+            crc.update(ByteBuffer.allocate(8).putLong(0, largo));
+        }
+        return (int) crc.getValue();
+    }
+
+    /** Altos de los atlas presentes en {@code dir} para ese hash (sin validar el contenido). */
+    static int[] altosGuardados(Path dir, int hash) throws IOException {
+        if (!Files.isDirectory(dir)) return new int[0];
+        String prefijo = String.format("cartas-%08x-", hash);
+        int[] altos = new int[8];
+        int n = 0;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, prefijo + "*.atlas")) {
+            for (Path p : ds) {
+                String nombre = p.getFileName().toString();
+                try {
+                    int alto = Integer.parseInt(nombre.substring(prefijo.length(), nombre.length() - ".atlas".length()));
+                    if (n == altos.length) altos = Arrays.copyOf(altos, n * 2);
+                    altos[n++] = alto;
+                } catch (NumberFormatException ignored) {
+                    // nombre ajeno: se ignora
+                }
+            }
+        }
+        return Arrays.copyOf(altos, n);
+    }
+
+    /**
+     * Borra los atlas de otros hashes (imágenes que ya no están) y, de este hash, deja sólo los
+     * {@code conservar} usados más recientemente (ver {@link #marcarUso}).
+     */
+    static void podar(Path dir, int hash, int conservar) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        String propio = String.format("cartas-%08x-", hash);
+        List<Path> propios = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "cartas-*.atlas")) {
+            for (Path p : ds) {
+                if (p.getFileName().toString().startsWith(propio)) propios.add(p);
+                else Files.deleteIfExists(p);
+            }
+        }
+        if (propios.size() <= conservar) return;
+        Map<Path, FileTime> usos = new HashMap<>();
+        for (Path p : propios) usos.put(p, Files.getLastModifiedTime(p));
+        propios.sort(Comparator.comparing(usos::get, Comparator.reverseOrder()));
+        for (Path p : propios.subList(conservar, propios.size())) Files.deleteIfExists(p);
+    }
+
+    /** Anota que el atlas se usó (la fecha de modificación ordena la poda). */
+    static void marcarUso(Path archivo) {
+        try {
+            Files.setLastModifiedTime(archivo, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // sólo afecta qué atlas se poda primero
+        }
+    }
+
+    /**
+     * Lee el atlas y devuelve una imagen por carta (subimágenes del mismo raster).
+     * @throws IOException si el archivo no corresponde a este hash/alto o está incompleto
+     */
+    static BufferedImage[] leer(Path archivo, int hash, int alto) throws IOException {
+        try (FileChannel ch = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tam = ch.size();
+            if (tam < CABECERA || tam > Integer.MAX_VALUE) throw new IOException("atlas inválido: " + archivo);
+            ByteBuffer buf = ByteBuffer.allocate((int) tam);
+            while (buf.hasRemaining()) {
+                if (ch.read(buf) < 0) throw new IOException("atlas truncado: " + archivo);
+            }
+            buf.flip();
+            if (buf.getInt() != MAGIC || buf.getInt() != hash || buf.getInt() != alto)
+                throw new IOException("atlas ajeno: " + archivo);
+            int anchoCelda = buf.getInt(), columnas = buf.getInt(), filas = buf.getInt();
+            if (anchoCelda <= 0 || columnas != COLUMNAS || filas != FILAS)
+                throw new IOException("atlas con otra disposición: " + archivo);
+            int[] anchos = new int[Carta.TOTAL];
+            for (int i = 0; i < anchos.length; i++) {
+                anchos[i] = buf.getInt();
+                if (anchos[i] <= 0 || anchos[i] > anchoCelda) throw new IOException("atlas corrupto: " + archivo);
+            }
+            int w = anchoCelda * columnas, h = alto * filas;
+            if (buf.remaining() != 4L * w * h) throw new IOException("atlas truncado: " + archivo);
+
+            BufferedImage atlas = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            IntBuffer px = buf.asIntBuffer();
+            px.get(((DataBufferInt) atlas.getRaster().getDataBuffer()).getData());
+
+            BufferedImage[] cartas = new BufferedImage[Carta.TOTAL];
+            for (int i = 0; i < cartas.length; i++) {
+                cartas[i] = atlas.getSubimage((i % COLUMNAS) * anchoCelda, (i / COLUMNAS) * alto, anchos[i], alto);
+            }
+            return cartas;
+        }
+    }
+
+    /** Arma el atlas con las cartas ya escaladas a {@code alto} y lo escribe de forma atómica. */
+    static void escribir(Path archivo, int hash, int alto, BufferedImage[] cartas) throws IOException {
+        int anchoCelda = 1;
+        for (BufferedImage c : cartas) anchoCelda = Math.max(anchoCelda, c.getWidth());
+        int w = anchoCelda * COLUMNAS, h = alto * FILAS;
+
+        BufferedImage atlas = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = atlas.createGraphics();
+        for (int i = 0; i < cartas.length; i++) {
+            g.drawImage(cartas[i], (i % COLUMNAS) * anchoCelda, (i / COLUMNAS) * alto, null);
+        }
+        g.dispose();
+
+        ByteBuffer buf = ByteBuffer.allocate(CABECERA + 4 * w * h);
+        buf.putInt(MAGIC).putInt(hash).putInt(alto).putInt(anchoCelda).putInt(COLUMNAS).putInt(FILAS);
+        for (BufferedImage c : cartas) buf.putInt(c.getWidth());
+        buf.asIntBuffer().put(((DataBufferInt) atlas.getRaster().getDataBuffer()).getData());
+        buf.position(buf.capacity()).flip();
+
+        Files.createDirectories(archivo.getParent());
+        Path tmp = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+        Files.move(tmp, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -19,4 +19,10 @@ public interface IVistaParade {
     void mostrarJugadores(List<String> nombres, String yo);
     void mostrarRanking(List<EntradaRanking> top);
 
+    /**
+     * El controlador encierra cada refresco entre {@code comenzarLote()} y {@code terminarLote()}
+     * (pueden anidarse). Una vista puede acumular los cambios y dibujar una sola vez al cerrar el lote.
+     */
+    default void comenzarLote() {}
+    default void terminarLote() {}
 }
@@ -0,0 +1,420 @@
+package vistas;
+
+import modelo.Carta;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Imágenes de cartas compartidas por todas las listas de la vista.
+ * <ul>
+ *   <li>Las 66 imágenes originales se decodifican en paralelo fuera del EDT ({@link #precargar()}).</li>
+ *   <li>Los tamaños se escalan con {@link Graphics2D} (bilineal, reduciendo a la mitad mientras
+ *       sobre más del doble) en vez de {@code getScaledInstance}.</li>
+ *   <li>Los íconos escalados viven en un caché LRU por (carta, alto); los atlas en memoria, en otro
+ *       LRU por cubeta. Los dos cuentan contra el mismo tope de memoria.</li>
+ *   <li>{@link #iconoSinBloquear} nunca escala en el EDT: si falta el tamaño pedido lo encarga
+ *       en segundo plano y mientras tanto devuelve el último tamaño disponible de esa carta;
+ *       al terminar avisa a los oyentes para que repinten.</li>
+ *   <li>Con directorio de miniaturas, cada alto se escala desde el {@link AtlasCartas} de su cubeta
+ *       si existe; si no, desde la original, y se encarga en segundo plano el atlas de esa cubeta
+ *       para los próximos arranques. Al arrancar sólo se listan los atlas del disco: cada uno se lee
+ *       la primera vez que se pide un alto de su cubeta. Si hay alguno no se decodifica ningún JPEG
+ *       por adelantado. En disco quedan a lo sumo {@value #MAX_ATLAS_DISCO} atlas (los usados más
+ *       recientemente) y se borran los de otras versiones de las imágenes.</li>
+ * </ul>
+ */
+final class ImagenesCartas {
+    private static final Logger LOG = Logger.getLogger(ImagenesCartas.class.getName());
+
+    /** Tope de memoria de íconos escalados más atlas cargados (4 bytes por píxel). */
+    static final long MAX_BYTES = 48L * 1024 * 1024;
+    /** Atlas que se conservan en disco (cada uno pesa unos MB). */
+    static final int MAX_ATLAS_DISCO = 6;
+
+    private static final String[] CANDIDATOS = {
+            "/resources/cartas/%s_%d.jpeg", "/resources/cartas/%s_%d.jpg",
+            "/resources.cartas/%s_%d.jpeg", "/resources.cartas/%s_%d.jpg"
+    };
+
+    private static final ImagenesCartas COMPARTIDAS = new ImagenesCartas(MAX_BYTES, AtlasCartas.directorioPorDefecto());
+
+    private static final ExecutorService HILOS = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), new java.util.concurrent.ThreadFactory() {
+                private final AtomicInteger n = new AtomicInteger();
+                @Override public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "imagenes-cartas-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    private final long maxBytes;
+    private final BufferedImage[] originales = new BufferedImage[Carta.TOTAL];
+    private final boolean[] faltantes = new boolean[Carta.TOTAL];       // sin recurso: no se reintenta
+    private final int[] ultimoAlto = new int[Carta.TOTAL];              // último alto escalado por carta
+    private final Map<Long, ImageIcon> cache = new LinkedHashMap<>(256, 0.75f, true); // LRU (guardado por this)
+    private long bytes;                                                  // íconos + atlas; guardado por this
+    private final Set<Long> enCurso = ConcurrentHashMap.newKeySet();
+    private final List<Runnable> oyentes = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean repintePendiente = new AtomicBoolean();
+
+    private final Path dirMiniaturas;                                    // null: sin caché en disco
+    private volatile int hashRecursos;                                   // 0: todavía no calculado o sin recursos
+    private final Map<Integer, BufferedImage[]> miniaturas = new LinkedHashMap<>(8, 0.75f, true); // LRU por cubeta (guardado por this)
+    private final Set<Integer> atlasEnDisco = ConcurrentHashMap.newKeySet(); // cubetas con archivo, cargado o no
+    private final Object lecturaAtlas = new Object();                    // un atlas se lee de disco una sola vez
+    private final Set<Integer> atlasEnCurso = ConcurrentHashMap.newKeySet();
+    private volatile CompletableFuture<Void> miniaturasListas = CompletableFuture.completedFuture(null);
+
+    ImagenesCartas(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    ImagenesCartas(long maxBytes, Path dirMiniaturas) {
+        this.maxBytes = maxBytes;
+        this.dirMiniaturas = dirMiniaturas;
+    }
+
+    static ImagenesCartas compartidas() { return COMPARTIDAS; }
+
+    /**
+     * Busca los atlas guardados en disco (no los lee); si no hay ninguno, decodifica en paralelo todas
+     * las originales que falten. No bloquea.
+     */
+    CompletableFuture<Void> precargar() {
+        if (dirMiniaturas == null) return decodificarOriginales().whenComplete((r, e) -> avisar());
+        // Es la primera tarea del pool: los escalados que esperan a miniaturasListas nunca la bloquean
+        CompletableFuture<Void> listas = CompletableFuture.runAsync(this::cargarMiniaturas, HILOS);
+        miniaturasListas = listas;
+        return listas
+                .thenCompose(v -> atlasEnDisco.isEmpty() ? decodificarOriginales() : CompletableFuture.<Void>completedFuture(null))
+                .whenComplete((r, e) -> avisar());
+    }
+
+    private CompletableFuture<Void> decodificarOriginales() {
+        CompletableFuture<?>[] fs = new CompletableFuture<?>[Carta.TOTAL];
+        for (int i = 0; i < Carta.TOTAL; i++) {
+            Carta c = Carta.deOrdinal(i);
+            fs[i] = CompletableFuture.runAsync(() -> original(c), HILOS);
+        }
+        return CompletableFuture.allOf(fs);
+    }
+
+    private void cargarMiniaturas() {
+        try {
+            int hash = AtlasCartas.hashRecursos(recursos());
+            if (hash == 0) return; // falta alguna imagen: sin caché en disco
+            hashRecursos = hash;
+            podarDisco(hash);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudieron leer las miniaturas de " + dirMiniaturas, e);
+        }
+    }
+
+    /** Poda los atlas del disco y deja en {@link #atlasEnDisco} los que quedaron. */
+    private void podarDisco(int hash) throws IOException {
+        AtlasCartas.podar(dirMiniaturas, hash, MAX_ATLAS_DISCO);
+        Set<Integer> quedan = new HashSet<>();
+        for (int alto : AtlasCartas.altosGuardados(dirMiniaturas, hash)) quedan.add(alto);
+        atlasEnDisco.addAll(quedan);
+        atlasEnDisco.retainAll(quedan);
+    }
+
+    /** Bytes de íconos y atlas en memoria (nunca más que el tope). */
+    synchronized long bytesEnMemoria() { return bytes; }
+
+    /** Cubetas con el atlas en memoria. */
+    synchronized int atlasEnMemoria() { return miniaturas.size(); }
+
+    /** Se llama en el EDT cada vez que hay íconos nuevos (varios avisos seguidos se juntan en uno). */
+    void alActualizar(Runnable r) { oyentes.add(r); }
+
+    /**
+     * Ícono exacto si está en caché; si no, lo encarga en segundo plano y devuelve el último tamaño
+     * disponible de la carta (o null si todavía no hay ninguno).
+     */
+    ImageIcon iconoSinBloquear(Carta c, int alto) {
+        ImageIcon icon;
+        synchronized (this) {
+            icon = cache.get(clave(c, alto));
+        }
+        if (icon != null) return icon;
+        long k = clave(c, alto);
+        if (!faltante(c) && enCurso.add(k)) {
+            HILOS.execute(() -> {
+                try {
+                    icono(c, alto);
+                } finally {
+                    enCurso.remove(k);
+                    avisar();
+                }
+            });
+        }
+        int previo;
+        synchronized (this) {
+            previo = ultimoAlto[c.ordinal()];
+            return previo > 0 ? cache.get(clave(c, previo)) : null;
+        }
+    }
+
+    /** Ícono de {@code alto} píxeles; lo escala (y decodifica) en este hilo si hace falta. */
+    ImageIcon icono(Carta c, int alto) {
+        long k = clave(c, alto);
+        synchronized (this) {
+            ImageIcon icon = cache.get(k);
+            if (icon != null) return icon;
+        }
+        BufferedImage img = fuente(c, alto);
+        if (img == null) return null;
+        BufferedImage escalada = img.getHeight() == alto ? img : escalar(img, alto);
+        ImageIcon icon = new ImageIcon(escalada);
+        synchronized (this) {
+            ImageIcon previo = cache.put(k, icon);
+            if (previo == null) bytes += pesar(escalada);
+            ultimoAlto[c.ordinal()] = alto;
+            recortar();
+        }
+        return icon;
+    }
+
+    /**
+     * Vuelve al tope: primero los atlas menos usados salvo el último (se pueden releer del disco y
+     * pesan más), después los íconos menos usados y, si hace falta, también el último atlas.
+     */
+    private void recortar() {
+        recortarAtlas(1);
+        Iterator<Map.Entry<Long, ImageIcon>> it = cache.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Long, ImageIcon> e = it.next(); // el menos usado primero
+            bytes -= pesar((BufferedImage) e.getValue().getImage());
+            it.remove();
+            int ord = (int) (e.getKey() >>> 32);
+            if (ultimoAlto[ord] == (int) (long) e.getKey()) ultimoAlto[ord] = 0;
+        }
+        recortarAtlas(0);
+    }
+
+    private void recortarAtlas(int conservar) {
+        Iterator<BufferedImage[]> it = miniaturas.values().iterator();
+        while (bytes > maxBytes && miniaturas.size() > conservar && it.hasNext()) {
+            bytes -= pesarAtlas(it.next());
+            it.remove();
+        }
+    }
+
+    /** Deja el atlas de la cubeta en memoria, contado en el tope. */
+    private synchronized void guardarAtlas(int alto, BufferedImage[] cartas) {
+        BufferedImage[] previo = miniaturas.put(alto, cartas);
+        if (previo != null) bytes -= pesarAtlas(previo);
+        bytes += pesarAtlas(cartas);
+        recortar();
+    }
+
+    /** Atlas de la cubeta: el de memoria o, si hay archivo, lo lee (una vez aunque lo pidan varios hilos). */
+    private BufferedImage[] atlas(int alto) {
+        synchronized (this) {
+            BufferedImage[] a = miniaturas.get(alto);
+            if (a != null || !atlasEnDisco.contains(alto)) return a;
+        }
+        synchronized (lecturaAtlas) {
+            synchronized (this) {
+                BufferedImage[] a = miniaturas.get(alto);
+                if (a != null) return a;
+            }
+            Path archivo = AtlasCartas.archivo(dirMiniaturas, hashRecursos, alto);
+            try {
+                BufferedImage[] a = AtlasCartas.leer(archivo, hashRecursos, alto);
+                AtlasCartas.marcarUso(archivo);
+                guardarAtlas(alto, a);
+                return a;
+            } catch (IOException e) {
+                LOG.log(Level.INFO, "Atlas descartado: " + archivo, e);
+                atlasEnDisco.remove(alto);
+                atlasEnCurso.remove(alto); // se puede volver a armar
+                try {
+                    Files.deleteIfExists(archivo);
+                } catch (IOException ignored) {
+                    // se vuelve a intentar en el próximo arranque
+                }
+                return null;
+            }
+        }
+    }
+
+    /** Imagen desde la que escalar: la miniatura de la cubeta, otra más grande o, si no hay, la original. */
+    private BufferedImage fuente(Carta c, int alto) {
+        miniaturasListas.join();
+        int cubeta = AtlasCartas.cubeta(alto);
+        BufferedImage[] propia = dirMiniaturas == null ? null : atlas(cubeta);
+        if (propia != null) return propia[c.ordinal()];
+        encargarAtlas(cubeta);
+        BufferedImage mayor = miniaturaMayor(c, alto);
+        return mayor != null ? mayor : original(c);
+    }
+
+    /** La carta en el atlas más chico de alto >= {@code alto} ya en memoria, o null si no hay ninguno. */
+    private synchronized BufferedImage miniaturaMayor(Carta c, int alto) {
+        BufferedImage[] mejor = null;
+        int altoMejor = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, BufferedImage[]> e : miniaturas.entrySet()) {
+            if (e.getKey() >= alto && e.getKey() < altoMejor) { altoMejor = e.getKey(); mejor = e.getValue(); }
+        }
+        return mejor != null ? mejor[c.ordinal()] : null;
+    }
+
+    /**
+     * Escala las 66 cartas al alto de la cubeta (desde un atlas mayor si lo hay, para no decodificar
+     * JPEG), las deja en memoria y guarda el atlas para el próximo arranque.
+     */
+    private void encargarAtlas(int alto) {
+        int hash = hashRecursos;
+        if (dirMiniaturas == null || hash == 0 || !atlasEnCurso.add(alto)) return;
+        HILOS.execute(() -> {
+            try {
+                BufferedImage[] cartas = new BufferedImage[Carta.TOTAL];
+                for (int i = 0; i < cartas.length; i++) {
+                    Carta c = Carta.deOrdinal(i);
+                    BufferedImage img = miniaturaMayor(c, alto);
+                    if (img == null) img = original(c);
+                    if (img == null) return;
+                    cartas[i] = img.getHeight() == alto ? img : escalar(img, alto);
+                }
+                guardarAtlas(alto, cartas);
+                try {
+                    AtlasCartas.escribir(AtlasCartas.archivo(dirMiniaturas, hash, alto), hash, alto, cartas);
+                    atlasEnDisco.add(alto);
+                    podarDisco(hash);
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "No se pudo guardar el atlas de alto " + alto, e);
+                }
+            } finally {
+                atlasEnCurso.remove(alto); // si falla, o si sale de memoria, se vuelve a leer o armar
+            }
+        });
+    }
+
+    private BufferedImage original(Carta c) {
+        int ord = c.ordinal();
+        synchronized (originales) {
+            if (originales[ord] != null || faltantes[ord]) return originales[ord];
+        }
+        BufferedImage img = decodificar(c);
+        synchronized (originales) {
+            if (img == null) faltantes[ord] = true;
+            else if (originales[ord] == null) originales[ord] = img;
+            return originales[ord];
+        }
+    }
+
+    private boolean faltante(Carta c) {
+        synchronized (originales) { return faltantes[c.ordinal()]; }
+    }
+
+    private static URL recurso(Carta c) {
+        String color = c.getColor().name().toLowerCase();
+        for (String pat : CANDIDATOS) {
+            URL url = ImagenesCartas.class.getResource(String.format(pat, color, c.getValor()));
+            if (url != null) return url;
+        }
+        return null;
+    }
+
+    private static URL[] recursos() {
+        URL[] urls = new URL[Carta.TOTAL];
+        for (int i = 0; i < urls.length; i++) urls[i] = recurso(Carta.deOrdinal(i));
+        return urls;
+    }
+
+    private static BufferedImage decodificar(Carta c) {
+        URL url = recurso(c);
+        if (url != null) {
+            try {
+                BufferedImage img = ImageIO.read(url);
+                if (img != null) return comoIntRgb(img);
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "No se pudo leer " + url, e);
+            }
+        }
+        return null;
+    }
+
+    /** Pasa la imagen a píxeles int RGB: los JPEG vienen en 3 bytes BGR, que Java2D escala por el camino lento. */
+    static BufferedImage comoIntRgb(BufferedImage img) {
+        if (img.getType() == BufferedImage.TYPE_INT_RGB) return img;
+        BufferedImage rgb = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    /** Escalado con Graphics2D: mitades sucesivas (bilineal) hasta quedar a menos del doble y un paso final. */
+    static BufferedImage escalar(BufferedImage src, int alto) {
+        int anchoFinal = Math.max(1, (int) Math.round(src.getWidth() * (alto / (double) src.getHeight())));
+        BufferedImage actual = src;
+        int tipo = src.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int w = src.getWidth(), h = src.getHeight();
+        do {
+            if (w > anchoFinal * 2 && h > alto * 2) { w /= 2; h /= 2; }
+            else { w = anchoFinal; h = alto; }
+            BufferedImage paso = new BufferedImage(w, h, tipo);
+            Graphics2D g = paso.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+            g.drawImage(actual, 0, 0, w, h, null);
+            g.dispose();
+            actual = paso;
+        } while (w != anchoFinal || h != alto);
+        return actual;
+    }
+
+    private void avisar() {
+        if (oyentes.isEmpty() || !repintePendiente.compareAndSet(false, true)) return;
+        SwingUtilities.invokeLater(() -> {
+            repintePendiente.set(false);
+            for (Runnable r : oyentes) r.run();
+        });
+    }
+
+    private static long clave(Carta c, int alto) { return ((long) c.ordinal() << 32) | (alto & 0xFFFFFFFFL); }
+
+    private static long pesar(BufferedImage img) { return 4L * img.getWidth() * img.getHeight(); }
+
+    /** Píxeles de un atlas: las cartas leídas de disco comparten un raster, que se cuenta una vez. */
+    private static long pesarAtlas(BufferedImage[] cartas) {
+        Set<DataBuffer> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+        long total = 0;
+        for (BufferedImage c : cartas) {
+            DataBuffer d = c.getRaster().getDataBuffer();
+            if (vistos.add(d)) total += 4L * d.getSize();
+        }
+        return total;
+    }
+}
@@ -29,6 +29,13 @@ public class VistaConsola extends JFrame implements IVistaParade {
     private String lastPropiasLine     = "Tus recogidas: (vacías)";
     private String lastRivalesBlock    = "Rivales (recogidas):\n";
 
+    // ===== Marco (un solo update del documento por refresco) =====
+    private StringBuilder marco = new StringBuilder(1024);          // se arma acá y se reusa
+    private StringBuilder marcoAnterior = new StringBuilder(1024);  // lo que muestra hoy el JTextArea
+    private final transient List<String> avisos = new ArrayList<>(); // toasts hasta el próximo marco
+    private int profundidadLote = 0;
+    private boolean sucio = false;
+
     // ===== Constructores =====
     public VistaConsola(ControladorParade c) {
         super("Parade - Consola");
@@ -59,6 +66,7 @@ public class VistaConsola extends JFrame implements IVistaParade {
     public void iniciar() {
         setVisible(true);
         printHeader();
+        if (c.isEspectador()) { c.mirar(); return; }
 
         String nombre = JOptionPane.showInputDialog(this, "Tu nombre:");
         if (nombre != null && !nombre.isBlank()) {
@@ -71,18 +79,8 @@ public class VistaConsola extends JFrame implements IVistaParade {
     }
 
     // ===== Header (lista corta de comandos) =====
+    /** Primer marco: el tablero ya trae la línea de comandos, la lista larga no se muestra. */
     private void printHeader() {
-        limpiarPantalla();
-        println("=== Parade ===");
-        println("Comandos:");
-        println("  iniciar           – iniciar partida (6 en carnaval / 5 por jugador)");
-        println("  jugar <idx>       – jugar carta de tu mano por índice");
-        println("  puntajes          – ver puntajes actuales");
-        println("  ranking           – ver Top 5 del ranking");
-        println("  guardar <archivo> – guardar partida");
-        println("  cargar <archivo>  – cargar partida");
-        println("────────────────────────────────────────────────────────");
-        // bloque inicial vacío
         redraw();
     }
 
@@ -125,29 +123,59 @@ public class VistaConsola extends JFrame implements IVistaParade {
     }
 
     // ===== Helpers I/O =====
-    private void print(String s){ out.append(s); out.setCaretPosition(out.getDocument().getLength()); }
-    private void println(String s){ print(s + "\n"); }
-    private void limpiarPantalla(){ out.setText(""); }
-    private void toast(String s){ println(s); } // mensaje breve; será reemplazado en el próximo redraw
+    private void println(String s){ avisos.add(s); }
+    private void toast(String s){ println(s); redraw(); } // mensaje breve; se muestra hasta el próximo marco
+
+    // ===== Lotes =====
+    @Override public void comenzarLote() { profundidadLote++; }
+
+    @Override
+    public void terminarLote() {
+        if (profundidadLote > 0 && --profundidadLote == 0 && sucio) pintar();
+    }
 
     // ===== Redibujado SIEMPRE automático =====
+    /** Dentro de un lote solo marca el marco como sucio; fuera de un lote dibuja ya. */
     private void redraw() {
-        // Re-dibuja todo el tablero con lo último recibido
-        limpiarPantalla();
-        println("=== Parade ===");
-        println("Comandos: iniciar | jugar <idx> | puntajes | ranking | guardar | cargar");
-        println("────────────────────────────────────────────────────────");
-
-        String tagTurno = (yoNombre != null && yoNombre.equalsIgnoreCase(turnoActual)) ? " (tu turno)" : "";
-        println("Turno: " + turnoActual + tagTurno);
-        println(lastJugadoresLine);
-        println("────────────────────────────────────────────────────────");
-
-        println(lastCarnavalLine);
-        println(lastManoLine);
-        println("");
-        println(lastPropiasLine);
-        print(lastRivalesBlock); // ya trae su \n final si corresponde
+        if (profundidadLote > 0) { sucio = true; return; }
+        pintar();
+    }
+
+    /**
+     * Arma el tablero con lo último recibido en el buffer reusable y lo compara con el marco anterior:
+     * si cambió, reemplaza en el documento solo desde el primer carácter distinto (un único update).
+     */
+    private void pintar() {
+        sucio = false;
+        StringBuilder m = marco;
+        m.setLength(0);
+        m.append("=== Parade ===\n");
+        m.append("Comandos: iniciar | jugar <idx> | puntajes | ranking | guardar | cargar\n");
+        m.append("────────────────────────────────────────────────────────\n");
+
+        m.append("Turno: ").append(turnoActual);
+        if (yoNombre != null && yoNombre.equalsIgnoreCase(turnoActual)) m.append(" (tu turno)");
+        m.append('\n');
+        m.append(lastJugadoresLine).append('\n');
+        m.append("────────────────────────────────────────────────────────\n");
+
+        m.append(lastCarnavalLine).append('\n');
+        m.append(lastManoLine).append('\n');
+        m.append('\n');
+        m.append(lastPropiasLine).append('\n');
+        m.append(lastRivalesBlock); // ya trae su \n final si corresponde
+        for (String a : avisos) m.append(a).append('\n');
+        avisos.clear();
+
+        StringBuilder prev = marcoAnterior;
+        if (m.length() == prev.length() && m.compareTo(prev) == 0) return;
+        int comun = 0, max = Math.min(m.length(), prev.length());
+        while (comun < max && m.charAt(comun) == prev.charAt(comun)) comun++;
+        out.replaceRange(m.substring(comun), comun, prev.length());
+        out.setCaretPosition(m.length());
+
+        marcoAnterior = m;   // se intercambian: el próximo marco se arma sobre el buffer viejo
+        marco = prev;
     }
 
     // ===== Formateo de listas =====
@@ -251,8 +279,8 @@ public class VistaConsola extends JFrame implements IVistaParade {
         redraw();
     }
 
-    @Override public void mostrarError(String msg) { toast("[ERROR] " + msg); redraw(); }
-    @Override public void mostrarInfo (String msg) { toast("[INFO] " + msg);  redraw(); }
+    @Override public void mostrarError(String msg) { toast("[ERROR] " + msg); }
+    @Override public void mostrarInfo (String msg) { toast("[INFO] " + msg); }
 
     @Override
     public void mostrarRecolectadasPropias(List<Carta> propias) {
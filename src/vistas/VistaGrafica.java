@@ -6,7 +6,6 @@ import modelo.EntradaRanking;
 
 import javax.swing.*;
 import java.awt.*;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -121,6 +120,14 @@ public class VistaGrafica extends JFrame implements IVistaParade {
             sp.getHorizontalScrollBar().setUnitIncrement(24);
         }
 
+        // Imágenes: decodificación en paralelo fuera del EDT; al tener tamaños nuevos se repinta
+        ImagenesCartas.compartidas().precargar();
+        ImagenesCartas.compartidas().alActualizar(() -> {
+            carnavalList.repaint();
+            manoList.repaint();
+            propiasRecList.repaint();
+        });
+
         // Setear renderers (solo donde hay imágenes)
         carnavalList.setCellRenderer(rndCarnaval);
         manoList.setCellRenderer(rndMano);
@@ -279,6 +286,7 @@ public class VistaGrafica extends JFrame implements IVistaParade {
     @Override
     public void iniciar() {
         setVisible(true);
+        if (controlador.isEspectador()) { controlador.mirar(); return; }
         String nombre = JOptionPane.showInputDialog(this, "Tu nombre:");
         if (nombre != null && !nombre.isBlank()) {
             nombre = nombre.trim();
@@ -379,12 +387,15 @@ public class VistaGrafica extends JFrame implements IVistaParade {
     @Override public void mostrarInfo (String msg) { JOptionPane.showMessageDialog(this, msg, "Info",  JOptionPane.INFORMATION_MESSAGE); }
 
     // ---------- Renderer (para listas con imágenes) ----------
-    private static class CardRenderer extends DefaultListCellRenderer {
+    // Visible en el paquete para los benchmarks de carga de imágenes.
+    static class CardRenderer extends DefaultListCellRenderer {
+        private final ImagenesCartas imagenes;
         private int targetHeight;
-        private final Map<String, ImageIcon> cache = new HashMap<>();
 
-        CardRenderer(int targetHeight) { this.targetHeight = targetHeight; }
-        void setTargetHeight(int h) { if (h > 0 && h != this.targetHeight) { this.targetHeight = h; cache.clear(); } }
+        CardRenderer(int targetHeight) { this(targetHeight, ImagenesCartas.compartidas()); }
+        CardRenderer(int targetHeight, ImagenesCartas imagenes) { this.targetHeight = targetHeight; this.imagenes = imagenes; }
+        /** El caché es compartido y por tamaño: cambiar de alto no descarta nada. */
+        void setTargetHeight(int h) { if (h > 0) this.targetHeight = h; }
 
         @Override
         public Component getListCellRendererComponent(
@@ -394,7 +405,7 @@ public class VistaGrafica extends JFrame implements IVistaParade {
 
             if (value instanceof Carta c) {
                 final int h = isSelected ? targetHeight + 8 : targetHeight;
-                ImageIcon icon = loadIcon(c, h);
+                ImageIcon icon = imagenes.iconoSinBloquear(c, h); // nunca escala en el EDT
                 if (icon != null) {
                     lbl.setIcon(icon);
                     lbl.setText("");
@@ -422,31 +433,9 @@ public class VistaGrafica extends JFrame implements IVistaParade {
             return lbl;
         }
 
-        private ImageIcon loadIcon(Carta c, int height) {
-            String key = c.getColor().name().toLowerCase() + "_" + c.getValor() + "_h" + height;
-            if (cache.containsKey(key)) return cache.get(key);
-
-            String color = c.getColor().name().toLowerCase();
-            int v = c.getValor();
-            String[] candidates = {
-                    "/resources/cartas/%s_%d.jpeg", "/resources/cartas/%s_%d.jpg",
-                    "/resources.cartas/%s_%d.jpeg", "/resources.cartas/%s_%d.jpg"
-            };
-
-            ImageIcon icon = null;
-            for (String pat : candidates) {
-                String path = String.format(pat, color, v);
-                URL url = getClass().getResource(path);
-                if (url != null) {
-                    Image img = new ImageIcon(url).getImage();
-                    int w = (int) Math.round(img.getWidth(null) * (height / (double) img.getHeight(null)));
-                    Image scaled = img.getScaledInstance(w, height, Image.SCALE_SMOOTH);
-                    icon = new ImageIcon(scaled);
-                    break;
-                }
-            }
-            cache.put(key, icon);
-            return icon;
+        /** Carga sincrónica (decodifica y escala en el hilo actual si falta). */
+        ImageIcon loadIcon(Carta c, int height) {
+            return imagenes.icono(c, height);
         }
     }
 }